@@ -3,6 +3,7 @@ package com.TheBigAdventure.Main;
 import java.awt.Color;
 import java.io.IOException;
 
+import com.TheBigAdventure.graphic.GameLoop;
 import com.TheBigAdventure.graphic.Graph;
 import com.TheBigAdventure.mapBuiler.GameMap;
 
@@ -16,13 +17,24 @@ public class Main {
     
     
     String mapFileName = "maps/fun.map"; 
+    boolean terrainCache = true;
+    int tickRate = GameLoop.DEFAULT_TICKS_PER_SECOND;
 
     for (int i = 0; i < args.length; i++) {
         if (args[i].equals("--level") && i + 1 < args.length) {
             mapFileName = "maps/" + args[i + 1];
-            break;
+            i++;
+        }
+        else if (args[i].equals("--no-terrain-cache")) {
+            terrainCache = false;
+        }
+        else if (args[i].equals("--tick-rate") && i + 1 < args.length) {
+            tickRate = Integer.parseInt(args[i + 1]);
+            i++;
         }
     }
+    final boolean useTerrainCache = terrainCache;
+    final int ticksPerSecond = tickRate;
 
     final GameMap gameMap = Graph.initGameMap(mapFileName);
     if (gameMap == null) {
@@ -32,10 +44,13 @@ public class Main {
     Application.run(Color.LIGHT_GRAY, context -> {
         ScreenInfo screenInfo = context.getScreenInfo();
         Graph.configureMapScale(gameMap, screenInfo);
+        if (!useTerrainCache) {
+            gameMap.setTerrainCache(null);
+        }
         
         context.renderFrame(graphics -> Graph.drawInitialMap(gameMap, graphics, screenInfo));
         
-        Graph.gameLoop(context, gameMap);
+        Graph.gameLoop(context, gameMap, ticksPerSecond);
     });
 
   }
@@ -39,8 +39,9 @@ public enum ActionType implements ExecuteAction {
       item = OptionalItem.orElseThrow(() -> new NoSuchElementException("No item found"));
       character.addToInventory(item);
       Case updatedCase = gameMap.getCaseAt(caseInFrontPos).withItem(Optional.empty());
-      gameMap.getGrid().put(caseInFrontPos, updatedCase);
-      gameMap.getCasesToReDraw().add(updatedCase);
+      gameMap.setCaseAt(caseInFrontPos, updatedCase);
+      gameMap.getItemIndex().remove(item);
+      gameMap.markCharacterToReDraw(character.getPosition());
 
     }
   },
@@ -72,16 +73,12 @@ public enum ActionType implements ExecuteAction {
       enemyFighter.attack(selfFighter);
       if (enemyFighter.getHealth() <= 0) {
         Case updatedCase = gameMap.getCaseAt(caseInFrontPos).withCharacterEntity(Optional.empty());
-        gameMap.getGrid().put(caseInFrontPos, updatedCase);
-        gameMap.getCasesToReDraw().add(updatedCase);
-        gameMap.getCasesToReDraw().add(gameMap
-            .getCaseAt(new Position(frontCharacter.getPosition().getX(), frontCharacter.getPosition().getY() - 1)));
-      } else {
-        gameMap.getCasesToReDraw().add(gameMap
-            .getCaseAt(new Position(frontCharacter.getPosition().getX(), frontCharacter.getPosition().getY() - 1)));
-        gameMap.getCasesToReDraw().add(
-            gameMap.getCaseAt(new Position(frontCharacter.getPosition().getX(), frontCharacter.getPosition().getY())));
+        gameMap.setCaseAt(caseInFrontPos, updatedCase);
+        gameMap.unregisterEnemy(frontCharacter);
+        gameMap.getCharacterIndex().remove(frontCharacter);
       }
+      gameMap.markCharacterToReDraw(frontCharacter.getPosition());
+      gameMap.markCharacterToReDraw(character.getPosition());
 
       System.out.println("HP PLAYER :" + selfFighter.getHealth());
       System.out.println("HP ENEMY :" + enemyFighter.getHealth());
@@ -112,8 +109,8 @@ public enum ActionType implements ExecuteAction {
 
             if (gameMap.getCaseAt(caseInFrontPos).getEnvironnement().typeToString().equals("DOOR")) {
               Case updatedCase = gameMap.getCaseAt(caseInFrontPos)
-                  .withEnvironnementEntity(new DecorativeElement(DecorationType.VOID, caseInFrontPos));
-              gameMap.getGrid().put(caseInFrontPos, updatedCase);
+                  .withEnvironnementEntity(DecorativeElement.of(DecorationType.VOID));
+              gameMap.setCaseAt(caseInFrontPos, updatedCase);
             }
 
           }
@@ -144,6 +141,7 @@ public enum ActionType implements ExecuteAction {
           if (item.typeOfItem().equals(ItemType.PIZZA)) {
             character.healCharacter(item.getHealAmount());
             characterInventory.removeItemAtIndex(0);
+            gameMap.markCharacterToReDraw(character.getPosition());
           }
             
 
@@ -5,6 +5,7 @@
 package com.TheBigAdventure.characterEntities;
 
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.util.Map;
 import java.util.Objects;
@@ -92,18 +93,19 @@ public final class Ally implements Character{
   /**
    * Draws the ally character on the graphics context.
    *
-   * @param graphics The graphics context to draw on.
-   * @param sizeX    The size of the entity in the X direction.
-   * @param sizeY    The size of the entity in the Y direction.
-   * @param gameMap  The game map containing information about the world.
+   * @param graphics  The graphics context to draw on.
+   * @param transform The transformation of the graphics context.
+   * @param sizeX     The size of the entity in the X direction.
+   * @param sizeY     The size of the entity in the Y direction.
+   * @param gameMap   The game map containing information about the world.
    */
   @Override
-  public void draw(Graphics2D graphics, int sizeX, int sizeY, GameMap gameMap) {
+  public void draw(Graphics2D graphics, AffineTransform transform, int sizeX, int sizeY, GameMap gameMap) {
     //Position stringPos = new Position(allyPosition.getX(),allyPosition.getY()-1);
     
     
     BufferedImage img = gameMap.getPicturesInMap().get(allySkin.toString());
-    Graph.drawEntity(allyPosition, sizeX, sizeY,graphics,img);
+    Graph.drawEntity(allyPosition, sizeX, sizeY,graphics,transform,img);
   }
   
   /**
@@ -9,6 +9,7 @@ package com.TheBigAdventure.characterEntities;
  */
 
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -32,7 +33,7 @@ public sealed interface Character permits Enemy,Player,Ally {
   
   Optional<CanFight> asCanFight();
   
-  public void draw(Graphics2D graphics, int sizeX, int sizeY,GameMap gameMap);
+  public void draw(Graphics2D graphics, AffineTransform transform, int sizeX, int sizeY,GameMap gameMap);
 
   public void setPosition(Position newPosition);
   
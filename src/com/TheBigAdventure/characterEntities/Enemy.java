@@ -4,9 +4,8 @@
  */
 package com.TheBigAdventure.characterEntities;
 
-import java.awt.Color;
-import java.awt.Font;
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.util.Map;
 import java.util.Objects;
@@ -38,6 +37,7 @@ public final class Enemy implements Character, CanFight {
   private final int maxZoneHeight;
   private final int maxZoneWidth;
   private final Position caseInFrontPos;
+  private final EnemyBehavior behavior;
   
 
   /**
@@ -51,10 +51,12 @@ public final class Enemy implements Character, CanFight {
    * @param enemySkin      The skin or appearance of the enemy character.
    * @param zoneHeight     The height of the zone in which the enemy can move.
    * @param zoneWidth      The width of the zone in which the enemy can move.
+   * @param behavior       The way the enemy moves. Must not be null.
    * @throws IllegalArgumentException if enemyHealth is less than or equal to 0.
    */
-  protected Enemy(String enemyName, Position enemyPosition, int enemyDamage, int enemyBonusDamage, int enemyHealth,String enemySkin,int zoneHeight,int zoneWidth) {
+  protected Enemy(String enemyName, Position enemyPosition, int enemyDamage, int enemyBonusDamage, int enemyHealth,String enemySkin,int zoneHeight,int zoneWidth,EnemyBehavior behavior) {
     Objects.requireNonNull(enemyName);
+    Objects.requireNonNull(behavior);
     Objects.requireNonNull(enemyPosition);
     Objects.requireNonNull(enemySkin);
     if (enemyHealth <= 0) {
@@ -74,6 +76,7 @@ public final class Enemy implements Character, CanFight {
     this.maxZoneWidth = enemyPosition.getX()+zoneWidth;
     this.minZoneHeight = enemyPosition.getY();
     this.minZoneWidth = enemyPosition.getX();
+    this.behavior = behavior;
     
   }
   
@@ -151,7 +154,8 @@ public final class Enemy implements Character, CanFight {
     monsterZoneDimensions = Enemy.extractMonsterZone(enemyFieldsMap.get("zone"));
     zoneHeight = monsterZoneDimensions[1];
     zoneWidth = monsterZoneDimensions[0];
-    return new Enemy(enemyName, enemyPosition, enemyDamage, 0, enemyHealth, object.getObjectSkin(),zoneHeight,zoneWidth);
+    EnemyBehavior behavior = EnemyBehavior.fromString(enemyFieldsMap.get("behavior"));
+    return new Enemy(enemyName, enemyPosition, enemyDamage, 0, enemyHealth, object.getObjectSkin(),zoneHeight,zoneWidth,behavior);
   }
   
   /**
@@ -192,27 +196,22 @@ public final class Enemy implements Character, CanFight {
   /**
    * Draws the enemy on the graphics context.
    *
-   * @param graphics The graphics context to draw on.
-   * @param sizeX    The size of the enemy in the X direction.
-   * @param sizeY    The size of the enemy in the Y direction.
-   * @param gameMap  The game map containing information about the world.
+   * @param graphics  The graphics context to draw on.
+   * @param transform The transformation of the graphics context.
+   * @param sizeX     The size of the enemy in the X direction.
+   * @param sizeY     The size of the enemy in the Y direction.
+   * @param gameMap   The game map containing information about the world.
    */
   @Override
-  public void draw(Graphics2D graphics, int sizeX, int sizeY,GameMap gameMap){
+  public void draw(Graphics2D graphics, AffineTransform transform, int sizeX, int sizeY,GameMap gameMap){
 
 
-    Position stringPos = new Position(enemyPosition.getX(),enemyPosition.getY()-1);
     BufferedImage img = gameMap.getPicturesInMap().get(enemySkin.toString());
-    Graph.drawEntity(enemyPosition, sizeX, sizeY,graphics,img);
-    graphics.setColor(Color.black);
-    graphics.setFont(new Font("Calibri",Font.TYPE1_FONT,1));
-    
-    if(gameMap.getGrid().get(stringPos).isWalkable()) {
-      
-      graphics.drawString(String.valueOf(enemyHealth),enemyPosition.getX(),enemyPosition.getY());
-      
+    Graph.drawEntity(enemyPosition, sizeX, sizeY,graphics,transform,img);
+    Case caseAbove = gameMap.getGrid().getCase(enemyPosition.getX(), enemyPosition.getY() - 1);
+    if (caseAbove != null && caseAbove.isWalkable()) {
+      Graph.drawLabel(enemyHealth, enemyPosition.getX(), enemyPosition.getY(), graphics, transform);
     }
-
   }
   
   /**
@@ -423,4 +422,13 @@ public final class Enemy implements Character, CanFight {
   public int getZoneHeight() {
       return zoneHeight;
   }
+
+  /**
+   * Returns the way the enemy moves.
+   *
+   * @return The behavior of the enemy.
+   */
+  public EnemyBehavior getBehavior() {
+      return behavior;
+  }
 }
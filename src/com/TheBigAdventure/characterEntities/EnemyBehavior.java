@@ -0,0 +1,43 @@
+/**
+ * Package com.TheBigAdventure.characterEntities contains the definition of the EnemyBehavior enum,
+ * the ways an enemy moves on the map.
+ */
+package com.TheBigAdventure.characterEntities;
+
+/**
+ * Enum representing the ways an enemy moves, read from the behavior attribute of the map file.
+ */
+public enum EnemyBehavior {
+
+  /**
+   * The enemy walks randomly in its zone.
+   */
+  STROLL,
+
+  /**
+   * The enemy walks toward the player along the shortest path while the player is in its zone, and
+   * walks randomly otherwise.
+   */
+  CHASE;
+
+  /**
+   * Converts the behavior attribute of an enemy to the corresponding behavior.
+   * <p>
+   * The format has other behaviors, such as shy or agressive, that the game does not implement: the
+   * enemies having them stroll, like the enemies with a missing or empty attribute.
+   *
+   * @param behavior The value of the attribute, or null if the enemy has none.
+   * @return The behavior, STROLL if the attribute is missing or does not name a behavior of the game.
+   */
+  public static EnemyBehavior fromString(String behavior) {
+    if (behavior == null) {
+      return STROLL;
+    }
+    for (EnemyBehavior type : EnemyBehavior.values()) {
+      if (type.name().equalsIgnoreCase(behavior.strip())) {
+        return type;
+      }
+    }
+    return STROLL;
+  }
+}
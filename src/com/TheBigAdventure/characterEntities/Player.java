@@ -7,9 +7,8 @@ import com.TheBigAdventure.mapBuiler.ObjectFromSkin;
 import com.TheBigAdventure.mapBuiler.Position;
 import com.TheBigAdventure.usableEntities.InsideInventory;
 
-import java.awt.Color;
-import java.awt.Font;
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.util.Map;
 import java.util.Objects;
@@ -186,34 +185,31 @@ public final class Player implements Character, CanFight {
   /**
    * Draws the player on the graphics context along with their inventory items.
    *
-   * @param graphics The graphics context to draw on.
-   * @param sizeX    The size of the player in the X direction.
-   * @param sizeY    The size of the player in the Y direction.
-   * @param gameMap  The game map containing information about the world.
+   * @param graphics  The graphics context to draw on.
+   * @param transform The transformation of the graphics context.
+   * @param sizeX     The size of the player in the X direction.
+   * @param sizeY     The size of the player in the Y direction.
+   * @param gameMap   The game map containing information about the world.
    */
   @Override
-  public void draw(Graphics2D graphics, int sizeX, int sizeY, GameMap gameMap) {
+  public void draw(Graphics2D graphics, AffineTransform transform, int sizeX, int sizeY, GameMap gameMap) {
 
-    Position stringPos = new Position(playerPosition.getX(), playerPosition.getY() - 1);
     BufferedImage img = gameMap.getPicturesInMap().get(skin.toString());
-    Graph.drawEntity(playerPosition, sizeX, sizeY, graphics, img);
+    Graph.drawEntity(playerPosition, sizeX, sizeY, graphics, transform, img);
 
     if (playerInventory.getItems().size() > 0) {
       if (playerInventory.getItemOnHand() != null) {
           Position itemPos = new Position(playerPosition.getX()-1, playerPosition.getY());
-          playerInventory.getItemOnHand().drawInMap(graphics, 1,1,itemPos, gameMap);
+          playerInventory.getItemOnHand().drawInMap(graphics, transform, 1,1,itemPos, gameMap);
       }
         
 
     }
 
-    graphics.setColor(Color.black);
-    graphics.setFont(new Font("Calibri", Font.TYPE1_FONT, 1));
-    if (gameMap.getGrid().get(stringPos).isWalkable()) {
-      graphics.drawString(String.valueOf(playerHealth), playerPosition.getX(), playerPosition.getY());
-     
+    Case caseAbove = gameMap.getGrid().getCase(playerPosition.getX(), playerPosition.getY() - 1);
+    if (caseAbove != null && caseAbove.isWalkable()) {
+      Graph.drawLabel(playerHealth, playerPosition.getX(), playerPosition.getY(), graphics, transform);
     }
-
   }
   
   /**
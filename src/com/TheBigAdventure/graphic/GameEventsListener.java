@@ -23,16 +23,12 @@ public final class GameEventsListener {
   private static long lastEventTime = 0;
   
   /**
-   * Gets the keyboard event from the provided ApplicationContext and returns it as a string.
+   * Gets the key of a keyboard event as a string, ignoring the releases and the repeats of a key.
    *
-   * @param context The ApplicationContext for handling events.
-   * @return The string representation of the keyboard event.
+   * @param event The event polled from the ApplicationContext.
+   * @return The string representation of the keyboard event, or null if the event is ignored.
    */
-  private static final String getKeyboardEvent(ApplicationContext context) {
-    Event event = context.pollOrWaitEvent(10);
-    if (event == null) {
-      return null;
-    }
+  private static final String getKeyboardEvent(Event event) {
     if (event.getAction() == Event.Action.KEY_RELEASED) {
       return null;
     }
@@ -50,30 +46,31 @@ public final class GameEventsListener {
   
   /**
    * Listens for events from the provided ApplicationContext and performs corresponding actions
-   * in the specified GameMap.
+   * in the specified GameMap. Every pending event is handled, without waiting for new ones.
    *
    * @param context  The ApplicationContext for handling events.
    * @param gameMap  The GameMap to apply actions on.
-   * @return Returns 1 if an action related to inventory is performed, 0 for non-inventory actions, and -1 otherwise.
+   * @return Returns 1 if the last action performed is related to inventory, 0 for non-inventory actions, and -1 if no action is performed.
    */
   protected static int listenEvents(ApplicationContext context, GameMap gameMap) {
     Objects.requireNonNull(context);
     Objects.requireNonNull(gameMap);
 
-    String eventString = getKeyboardEvent(context);
-    Character character = gameMap.characterFromMap(gameMap);
-    if (eventString != null) {
-      if (gameMap.getDrawedObjectsInfo().get("InventoryDrawed").equals(true)) {
-        handleInventoryEvents(eventString, gameMap, character);
-        return 1;
-      } else {
-        handleNonInventoryEvents(eventString, gameMap, character);
-        
-        return 0;
+    int result = -1;
+    for (Event event = context.pollEvent(); event != null; event = context.pollEvent()) {
+      String eventString = getKeyboardEvent(event);
+      if (eventString != null) {
+        Character character = gameMap.characterFromMap(gameMap);
+        if (gameMap.getDrawedObjectsInfo().get("InventoryDrawed").equals(true)) {
+          handleInventoryEvents(eventString, gameMap, character);
+          result = 1;
+        } else {
+          handleNonInventoryEvents(eventString, gameMap, character);
+          result = 0;
+        }
       }
-
     }
-    return -1;
+    return result;
   }
   
   /**
@@ -164,7 +161,7 @@ public final class GameEventsListener {
    */
   private static void handleSpecialActions(String eventString, GameMap gameMap, Character character) {
     if (eventString.equals("SPACE")) {
-      gameMap.getGrid().get(character.getPosCaseInFront()).getCaseState().execute(character, gameMap);
+      gameMap.getCaseAt(character.getPosCaseInFront()).getCaseState().execute(character, gameMap);
       return;
     }
 
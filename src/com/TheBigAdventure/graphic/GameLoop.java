@@ -0,0 +1,126 @@
+package com.TheBigAdventure.graphic;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Clock of the game loop, running the simulation at a fixed rate whatever the frame rate.
+ * <p>
+ * The real time elapsed between two iterations of the loop is added to an accumulator, and an
+ * iteration runs one simulation tick for each tick duration of the accumulator. When rendering
+ * is slow, an iteration runs several ticks to catch up and may skip its frame, so the simulation
+ * keeps its pace. At most {@value #MAX_SKIPPED_FRAMES} frames in a row are skipped, and the time
+ * the simulation is late beyond a quarter of a second is dropped. When an iteration is done
+ * early, the loop sleeps until the next tick is due.
+ */
+public final class GameLoop {
+
+  /**
+   * The default number of simulation ticks per second.
+   */
+  public static final int DEFAULT_TICKS_PER_SECOND = 60;
+  private static final int MAX_TICKS_PER_SECOND = 1000;
+  private static final int MAX_TICKS_PER_ITERATION = 5;
+  private static final int MAX_SKIPPED_FRAMES = 5;
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private final long tickNanos;
+  private final long maxLateTicks;
+  private final LoopStats stats = new LoopStats();
+  private long previousTime;
+  private long accumulator;
+  private int skippedFramesInRow;
+
+  /**
+   * Constructs the clock of a loop.
+   *
+   * @param ticksPerSecond The number of simulation ticks per second.
+   * @throws IllegalArgumentException if ticksPerSecond is not between 1 and 1000.
+   */
+  public GameLoop(int ticksPerSecond) {
+    if (ticksPerSecond <= 0 || ticksPerSecond > MAX_TICKS_PER_SECOND) {
+      throw new IllegalArgumentException("The tick rate must be between 1 and " + MAX_TICKS_PER_SECOND + " ticks per second");
+    }
+    this.tickNanos = NANOS_PER_SECOND / ticksPerSecond;
+    this.maxLateTicks = Math.max(MAX_TICKS_PER_ITERATION, ticksPerSecond / 4);
+  }
+
+  /**
+   * Gets the duration of a simulation tick.
+   *
+   * @return The duration of a tick, in nanoseconds.
+   */
+  public long tickNanos() {
+    return tickNanos;
+  }
+
+  /**
+   * Gets the counters of the iterations of the loop.
+   *
+   * @return The statistics of the loop.
+   */
+  public LoopStats stats() {
+    return stats;
+  }
+
+  /**
+   * Starts the clock. The first ticks are due one tick duration later.
+   *
+   * @param now The current time, in nanoseconds.
+   */
+  void start(long now) {
+    previousTime = now;
+    accumulator = 0;
+    skippedFramesInRow = 0;
+  }
+
+  /**
+   * Adds the time elapsed since the previous iteration and computes the ticks to run now.
+   *
+   * @param now The current time, in nanoseconds.
+   * @return The number of ticks the iteration must run.
+   */
+  int advance(long now) {
+    accumulator += Math.max(0, now - previousTime);
+    previousTime = now;
+    long dueTicks = accumulator / tickNanos;
+    if (dueTicks > maxLateTicks) {
+      stats.recordDroppedTicks(dueTicks - maxLateTicks);
+      accumulator -= (dueTicks - maxLateTicks) * tickNanos;
+      dueTicks = maxLateTicks;
+    }
+    int ticks = (int) Math.min(dueTicks, MAX_TICKS_PER_ITERATION);
+    accumulator -= ticks * tickNanos;
+    return ticks;
+  }
+
+  /**
+   * Decides whether the iteration renders its frame. The frame is skipped when ticks are still due,
+   * unless too many frames were skipped in a row.
+   *
+   * @return true if the iteration renders a frame, false if it skips it.
+   */
+  boolean shouldRender() {
+    if (accumulator >= tickNanos && skippedFramesInRow < MAX_SKIPPED_FRAMES) {
+      skippedFramesInRow++;
+      return false;
+    }
+    skippedFramesInRow = 0;
+    return true;
+  }
+
+  /**
+   * Ends an iteration: records it, then sleeps until the next tick is due if no tick is due yet.
+   *
+   * @param ticks    The number of ticks run by the iteration.
+   * @param rendered Whether the iteration rendered a frame.
+   * @param start    The time the iteration started, in nanoseconds.
+   * @param now      The current time, in nanoseconds.
+   */
+  void endIteration(int ticks, boolean rendered, long start, long now) {
+    stats.recordIteration(ticks, rendered, now - start, tickNanos);
+    long untilNextTick = tickNanos - accumulator - (now - previousTime);
+    if (untilNextTick > 0) {
+      LockSupport.parkNanos(untilNextTick);
+    }
+  }
+}
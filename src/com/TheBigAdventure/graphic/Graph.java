@@ -5,21 +5,26 @@ package com.TheBigAdventure.graphic;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import com.TheBigAdventure.characterEntities.Character;
 import javax.imageio.ImageIO;
 
 import com.TheBigAdventure.mapBuiler.Case;
 import com.TheBigAdventure.mapBuiler.GameMap;
+import com.TheBigAdventure.mapBuiler.MapGrid;
 import com.TheBigAdventure.mapBuiler.Position;
 
 import fr.umlv.zen5.Application;
@@ -30,9 +35,21 @@ import fr.umlv.zen5.ScreenInfo;
  * The Graph class provides utility methods for drawing entities, maps, and handling graphics-related operations in the game.
  */
 public final class Graph {
+
+  private static final int VIEWPORT_MARGIN = 1;
+  private static final int SCALE_ONLY = AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_UNIFORM_SCALE | AffineTransform.TYPE_GENERAL_SCALE;
+  private static final AffineTransform IDENTITY = new AffineTransform();
+  private static final SpriteCache SPRITES = new SpriteCache();
+  private static final LabelCache LABELS = new LabelCache();
+  private static final SpriteBatch GROUND_BATCH = new SpriteBatch();
+  private static SpriteBatch openBatch;
+  private static final BitSet OCCUPANTS_MARKED = new BitSet();
+  private static int[] occupantsToDraw = new int[64];
+  private static int occupantsCount;
 	
   /**
-   * Loads an image from the specified path.
+   * Loads an image from the specified path. An image of the image directory is taken from the
+   * {@link SpriteArchive} of the decoded images when it holds it, and decoded from its file otherwise.
    *
    * @param imgPath The path of the image file.
    * @return The loaded BufferedImage.
@@ -40,6 +57,12 @@ public final class Graph {
    */
   public static final BufferedImage loadImage(String imgPath) throws IOException {
     Objects.requireNonNull(imgPath);
+    if (imgPath.startsWith(SpriteArchive.RESOURCE_DIRECTORY)) {
+      BufferedImage packed = SpriteArchive.shared().image(imgPath.substring(SpriteArchive.RESOURCE_DIRECTORY.length()));
+      if (packed != null) {
+        return packed;
+      }
+    }
     BufferedImage image = null;
     try (InputStream input = Graph.class.getResourceAsStream(imgPath)) {
       image = ImageIO.read(input);
@@ -63,17 +86,32 @@ public final class Graph {
    */ 
  public static final void  drawRect(Position entityPosition, int sizeX, int sizeY, Graphics2D graphics, Color color) {
     Objects.requireNonNull(entityPosition);
+    drawRect(entityPosition.getX(), entityPosition.getY(), sizeX, sizeY, graphics, color);
+    }
+
+  /**
+   * Draws a filled rectangle at the specified coordinates, with the specified size, color, and graphics context.
+   *
+   * @param x              The x-coordinate of the rectangle.
+   * @param y              The y-coordinate of the rectangle.
+   * @param sizeX          The width of the rectangle.
+   * @param sizeY          The height of the rectangle.
+   * @param graphics       The Graphics2D context to draw on.
+   * @param color          The color of the rectangle.
+   */
+ public static final void  drawRect(int x, int y, int sizeX, int sizeY, Graphics2D graphics, Color color) {
     Objects.requireNonNull(color);
     Objects.requireNonNull(graphics);
 
     graphics.setColor(color);
-    graphics.fillRect(entityPosition.getX(), entityPosition.getY(), sizeX, sizeY);
+    graphics.fillRect(x, y, sizeX, sizeY);
     }
  
 
 
  /**
-  * Draws an entity (image) with the specified position, size, image, and graphics context.
+  * Draws an entity (image) with the specified position, size, image, and graphics context, reading
+  * the transformation of the graphics context. Used by the drawings outside the map, like the inventory.
   *
   * @param entityPosition The position of the entity.
   * @param sizeX          The width of the entity.
@@ -82,11 +120,128 @@ public final class Graph {
   * @param img            The image of the entity.
   */
   public static final void drawEntity(Position entityPosition, int sizeX, int sizeY,Graphics2D graphics,BufferedImage img ){
+    Objects.requireNonNull(graphics);
+    drawEntity(entityPosition, sizeX, sizeY, graphics, graphics.getTransform(), img);
+    }
+
+ /**
+  * Draws an entity (image) with the specified position, size, image, and graphics context.
+  *
+  * @param entityPosition The position of the entity.
+  * @param sizeX          The width of the entity.
+  * @param sizeY          The height of the entity.
+  * @param graphics       The Graphics2D context to draw on.
+  * @param transform      The transformation of the graphics context, given by the frame being drawn.
+  * @param img            The image of the entity.
+  */
+  public static final void drawEntity(Position entityPosition, int sizeX, int sizeY,Graphics2D graphics,AffineTransform transform,BufferedImage img ){
     Objects.requireNonNull(entityPosition);
+    drawEntity(entityPosition.getX(), entityPosition.getY(), sizeX, sizeY, graphics, transform, img);
+    }
+
+ /**
+  * Draws an entity (image) at the specified coordinates, with the specified size, image, and graphics context.
+  * When the graphics context is only scaled and translated, the image is taken already scaled to its size
+  * in pixels from the sprite atlas, and copied at 1:1 at the nearest pixel, or queued until the end of
+  * the ground batch when one is open. The transformation of the graphics context is given by the
+  * frame being drawn rather than copied from the context, so that a draw allocates nothing once
+  * its sprite is cached.
+  *
+  * @param x              The x-coordinate of the entity.
+  * @param y              The y-coordinate of the entity.
+  * @param sizeX          The width of the entity.
+  * @param sizeY          The height of the entity.
+  * @param graphics       The Graphics2D context to draw on.
+  * @param transform      The transformation of the graphics context.
+  * @param img            The image of the entity.
+  */
+  public static final void drawEntity(int x, int y, int sizeX, int sizeY,Graphics2D graphics,AffineTransform transform,BufferedImage img ){
     Objects.requireNonNull(img);
     Objects.requireNonNull(graphics);
+    Objects.requireNonNull(transform);
     
-    graphics.drawImage(img, entityPosition.getX(), entityPosition.getY(), sizeX, sizeY, null);
+    if ((transform.getType() & ~SCALE_ONLY) != 0 || transform.getScaleX() <= 0 || transform.getScaleY() <= 0) {
+      graphics.drawImage(img, x, y, sizeX, sizeY, null);
+      return;
+    }
+    int pixelX = (int) Math.round(transform.getTranslateX() + x * transform.getScaleX());
+    int pixelY = (int) Math.round(transform.getTranslateY() + y * transform.getScaleY());
+    int pixelWidth = (int) Math.round(transform.getTranslateX() + (x + sizeX) * transform.getScaleX()) - pixelX;
+    int pixelHeight = (int) Math.round(transform.getTranslateY() + (y + sizeY) * transform.getScaleY()) - pixelY;
+    if (pixelWidth <= 0 || pixelHeight <= 0) {
+      return;
+    }
+    SpriteAtlas.Region sprite = SPRITES.scaled(img, pixelWidth, pixelHeight, graphics.getDeviceConfiguration());
+    if (openBatch != null) {
+      openBatch.add(sprite, pixelX, pixelY);
+      return;
+    }
+    graphics.setTransform(IDENTITY);
+    sprite.draw(graphics, pixelX, pixelY);
+    graphics.setTransform(transform);
+    }
+
+  /**
+   * Draws a number in black, like the health of a character, with its baseline starting at the
+   * specified coordinates. When the graphics context is only scaled and translated, the number is
+   * taken already rendered at the zoom from the label cache, and copied at 1:1 at the nearest pixel.
+   *
+   * @param value     The number to draw.
+   * @param x         The x-coordinate of the start of the baseline.
+   * @param y         The y-coordinate of the baseline.
+   * @param graphics  The Graphics2D context to draw on.
+   * @param transform The transformation of the graphics context, given by the frame being drawn.
+   */
+  public static final void drawLabel(int value, int x, int y, Graphics2D graphics, AffineTransform transform) {
+    Objects.requireNonNull(graphics);
+    Objects.requireNonNull(transform);
+
+    if ((transform.getType() & ~SCALE_ONLY) != 0 || transform.getScaleX() <= 0 || transform.getScaleY() <= 0) {
+      graphics.setColor(LabelCache.COLOR);
+      graphics.setFont(LabelCache.FONT);
+      graphics.drawString(String.valueOf(value), x, y);
+      return;
+    }
+    LabelCache.Label label = LABELS.label(value, transform.getScaleX(), transform.getScaleY(), graphics.getDeviceConfiguration());
+    if (label == null) {
+      return;
+    }
+    int pixelX = (int) Math.round(transform.getTranslateX() + x * transform.getScaleX());
+    int pixelY = (int) Math.round(transform.getTranslateY() + y * transform.getScaleY());
+    graphics.setTransform(IDENTITY);
+    label.draw(graphics, pixelX, pixelY);
+    graphics.setTransform(transform);
+    }
+
+  /**
+   * Opens a ground batch: the sprites drawn until it is closed are queued in it, then drawn together
+   * page by page of the atlas. Only sprites that do not overlap may be drawn while it is open. A
+   * batch opened while another one is open, like the batch of a chunk of the terrain cache rendered
+   * during a frame, replaces it until it is closed.
+   *
+   * @param batch The batch receiving the sprites, which must not be open already.
+   * @return The batch that was open before, or null if there was none.
+   * @throws NullPointerException if batch is null.
+   */
+  static final SpriteBatch beginGroundBatch(SpriteBatch batch) {
+    Objects.requireNonNull(batch);
+    SpriteBatch enclosing = openBatch;
+    openBatch = batch;
+    return enclosing;
+    }
+
+  /**
+   * Closes the open ground batch, draws its sprites and opens again the batch it replaced.
+   *
+   * @param graphics  The Graphics2D context to draw the sprites of the closed batch on.
+   * @param enclosing The batch returned when the closed batch was opened, or null.
+   * @throws NullPointerException if graphics is null.
+   */
+  static final void endGroundBatch(Graphics2D graphics, SpriteBatch enclosing) {
+    Objects.requireNonNull(graphics);
+    SpriteBatch batch = openBatch;
+    openBatch = enclosing;
+    batch.flush(graphics);
     }
   
   /**
@@ -131,18 +286,72 @@ public final class Graph {
    * @param graphics The Graphics2D context to draw on.
    */
   public static final void drawMap(GameMap gameMap, Graphics2D graphics) {
+    Objects.requireNonNull(gameMap);
+    drawMap(gameMap, graphics, new Rectangle(0, 0, gameMap.getGrid().width(), gameMap.getGrid().height()));
+    }
+
+  /**
+   * Draws the tiles of the game map inside the given rectangle on the provided graphics context.
+   * The ground of every tile is drawn first, batched by atlas page, then the characters and items.
+   *
+   * @param gameMap  The GameMap to be drawn.
+   * @param graphics The Graphics2D context to draw on.
+   * @param tiles    The rectangle of tiles to draw, in grid coordinates, inside the bounds of the grid.
+   */
+  public static final void drawMap(GameMap gameMap, Graphics2D graphics, Rectangle tiles) {
     Objects.requireNonNull(gameMap);
     Objects.requireNonNull(graphics);
+    Objects.requireNonNull(tiles);
     
-    for (Case caseToDraw : gameMap.getGrid().values()) {
-      if (caseToDraw != null) {
-        caseToDraw.draw(graphics,1,1,gameMap);
+    MapGrid grid = gameMap.getGrid();
+    AffineTransform transform = graphics.getTransform();
+    SpriteBatch enclosing = beginGroundBatch(GROUND_BATCH);
+    try {
+      for (int y = tiles.y; y < tiles.y + tiles.height; y++) {
+        for (int x = tiles.x; x < tiles.x + tiles.width; x++) {
+          Case caseToDraw = grid.getCase(x, y);
+          if (caseToDraw != null) {
+            caseToDraw.getEnvironnement().draw(graphics,transform,x,y,1,1,gameMap);
+            }
+          }
         }
-      }
+    } finally {
+      endGroundBatch(graphics, enclosing);
+    }
+    drawOccupants(gameMap, graphics, transform, tiles);
     
     gameMap.setMapInitialised(true);
     }
   
+  /**
+   * Computes the rectangle of tiles visible on the screen through a transformation, with a margin
+   * of one tile on each side, clipped to the bounds of the grid.
+   *
+   * @param gameMap      The GameMap being drawn.
+   * @param transform    The transformation from grid coordinates to screen pixels.
+   * @param screenWidth  The width of the screen.
+   * @param screenHeight The height of the screen.
+   * @return The rectangle of visible tiles, in grid coordinates.
+   * @throws NullPointerException if gameMap or transform is null.
+   */
+  static final Rectangle visibleTiles(GameMap gameMap, AffineTransform transform, double screenWidth, double screenHeight) {
+    Objects.requireNonNull(gameMap);
+    Objects.requireNonNull(transform);
+    MapGrid grid = gameMap.getGrid();
+    Rectangle2D visibleArea;
+    try {
+      visibleArea = transform.createInverse()
+          .createTransformedShape(new Rectangle2D.Double(0, 0, screenWidth, screenHeight)).getBounds2D();
+    } catch (NoninvertibleTransformException e) {
+      return new Rectangle(0, 0, grid.width(), grid.height());
+    }
+    int startX = Math.max(0, (int) Math.floor(visibleArea.getMinX()) - VIEWPORT_MARGIN);
+    int startY = Math.max(0, (int) Math.floor(visibleArea.getMinY()) - VIEWPORT_MARGIN);
+    int endX = Math.min(grid.width(), (int) Math.ceil(visibleArea.getMaxX()) + VIEWPORT_MARGIN);
+    int endY = Math.min(grid.height(), (int) Math.ceil(visibleArea.getMaxY()) + VIEWPORT_MARGIN);
+    return new Rectangle(startX, startY, Math.max(0, endX - startX), Math.max(0, endY - startY));
+    }
+
   /**
    * Generates a set of positions for the inventory zone around the specified center position on the game map.
    *
@@ -163,9 +372,10 @@ public final class Graph {
     for (int x = startX; x < startX + 6; x++) {
         for (int y = startY-1; y < startY + 6; y++) {
             Position currentPosition = new Position(x, y);
-            if (gameMap.getGrid().containsKey(currentPosition)) {
+            Case currentCase = gameMap.getCaseAt(currentPosition);
+            if (currentCase != null) {
                 squarePositions.add(currentPosition);
-                gameMap.getCasesToReDraw().add(gameMap.getGrid().get(currentPosition));
+                gameMap.markToReDraw(currentPosition);
                 }
             }
         }
@@ -315,7 +525,7 @@ public final class Graph {
    * @throws NullPointerException if gameMap or graphics is null.
    */
   private static final void drawInventoryItems(GameMap gameMap, Graphics2D graphics) {
-    Character character = gameMap.getGrid().get(gameMap.getPlayerPosition()).getCharacter()
+    Character character = gameMap.getCaseAt(gameMap.getPlayerPosition()).getCharacter()
                                .orElseThrow(NoSuchElementException::new);
 
     character.characterGetInventory().drawItems(graphics, gameMap);
@@ -333,24 +543,20 @@ public final class Graph {
   protected static final void getHiddenPositionsToReDraw(Position drawingPosition, int drawingSizeX, int drawingSizeY,GameMap gameMap) {
     Objects.requireNonNull(drawingPosition);
     Objects.requireNonNull(gameMap);
-    Set<Position> hiddenPositions = new HashSet<>();
-
-    int drawingEndX = drawingPosition.getX() + drawingSizeX;
-    int drawingEndY = drawingPosition.getY() + drawingSizeY;
+    MapGrid grid = gameMap.getGrid();
 
+    int drawingStartX = Math.max(drawingPosition.getX(), 0);
+    int drawingStartY = Math.max(drawingPosition.getY(), 0);
+    int drawingEndX = Math.min(drawingPosition.getX() + drawingSizeX, grid.width());
+    int drawingEndY = Math.min(drawingPosition.getY() + drawingSizeY, grid.height());
 
-    for (Position pos : gameMap.getGrid().keySet()) {
-        if (pos.getX() >= drawingPosition.getX() && pos.getX() < drawingEndX &&
-            pos.getY() >= drawingPosition.getY() && pos.getY() < drawingEndY) {
-            hiddenPositions.add(pos);
+    for (int y = drawingStartY; y < drawingEndY; y++) {
+        for (int x = drawingStartX; x < drawingEndX; x++) {
+            if (grid.getCase(x, y) != null) {
+                gameMap.markToReDraw(new Position(x, y));
+                }
             }
         }
-    gameMap.getCasesToReDraw().addAll(
-        hiddenPositions.stream()
-                       .map(gameMap.getGrid()::get)
-                       .filter(Objects::nonNull)
-                       .collect(Collectors.toList())
-        );
     return;
     }
   
@@ -371,7 +577,8 @@ public final class Graph {
     }
   
   /**
-   * Configures the map scale based on the screen information.
+   * Configures the map scale based on the screen information, creates the cache of the ground
+   * of the map for this screen and drops the sprites scaled for the previous scale.
    *
    * @param gameMap    The GameMap to configure.
    * @param screenInfo The screen information.
@@ -380,10 +587,14 @@ public final class Graph {
   public static final void configureMapScale(GameMap gameMap, ScreenInfo screenInfo) {
     gameMap.getMapScale().put("X", screenInfo.getWidth() / (double) gameMap.getSize().width());
     gameMap.getMapScale().put("Y", screenInfo.getHeight() / (double) gameMap.getSize().height());
+    gameMap.setTerrainCache(new TerrainCache(screenInfo.getWidth(), screenInfo.getHeight()));
+    SPRITES.clear();
+    LABELS.clear();
     }
   
   /**
-   * Draws the initial map based on the provided GameMap, Graphics2D, and ScreenInfo.
+   * Draws the initial map based on the provided GameMap, Graphics2D, and ScreenInfo, once the
+   * pictures of the map are decoded.
    *
    * @param gameMap   The GameMap to draw.
    * @param graphics  The Graphics2D context to draw on.
@@ -391,21 +602,176 @@ public final class Graph {
    * @throws NullPointerException if gameMap, graphics, or screenInfo is null.
    */
   public static final void drawInitialMap(GameMap gameMap, Graphics2D graphics, ScreenInfo screenInfo) {
+    gameMap.awaitPictures();
+
+    AffineTransform zoomed = zoomedOnPlayer(gameMap, screenInfo.getWidth(),screenInfo.getHeight());
+    drawVisibleMap(gameMap, graphics, zoomed, screenInfo.getWidth(), screenInfo.getHeight());
+    gameMap.setCameraTransform(zoomed);
+    gameMap.getCasesToReDraw().clear();
+    }
+
+  /**
+   * Draws the tiles visible through a transformation. When the map has a cache of its ground, the
+   * cached ground is copied to the screen and only the characters and items are drawn on top of it,
+   * otherwise every visible tile is drawn.
+   *
+   * @param gameMap      The GameMap to draw.
+   * @param graphics     The Graphics2D context to draw on.
+   * @param zoomed       The transformation from grid coordinates to screen pixels.
+   * @param screenWidth  The width of the screen.
+   * @param screenHeight The height of the screen.
+   * @return The number of tiles drawn.
+   * @throws NullPointerException if gameMap, graphics or zoomed is null.
+   */
+  private static final int drawVisibleMap(GameMap gameMap, Graphics2D graphics, AffineTransform zoomed, double screenWidth, double screenHeight) {
+    Rectangle tiles = visibleTiles(gameMap, zoomed, screenWidth, screenHeight);
+    TerrainCache terrainCache = gameMap.getTerrainCache();
+    if (terrainCache == null) {
+      graphics.setTransform(zoomed);
+      drawMap(gameMap, graphics, tiles);
+      return tiles.width * tiles.height;
+    }
+    gameMap.setMapInitialised(true);
+    terrainCache.drawTerrain(gameMap, graphics, zoomed, tiles);
+    graphics.setTransform(zoomed);
+    drawOccupants(gameMap, graphics, zoomed, tiles);
+    return tiles.width * tiles.height;
+    }
+
+  /**
+   * Draws the characters and items of the tiles inside the given rectangle.
+   *
+   * @param gameMap   The GameMap to draw.
+   * @param graphics  The Graphics2D context to draw on.
+   * @param transform The transformation of the graphics context.
+   * @param tiles     The rectangle of tiles, in grid coordinates, inside the bounds of the grid.
+   */
+  private static final void drawOccupants(GameMap gameMap, Graphics2D graphics, AffineTransform transform, Rectangle tiles) {
+    MapGrid grid = gameMap.getGrid();
+    for (int y = tiles.y; y < tiles.y + tiles.height; y++) {
+      for (int x = tiles.x; x < tiles.x + tiles.width; x++) {
+        Case caseToDraw = grid.getCase(x, y);
+        if (caseToDraw != null) {
+          caseToDraw.drawOccupants(graphics, transform, x, y, 1, 1, gameMap);
+          }
+        }
+      }
+    }
+
+  /**
+   * Redraws the tiles marked to be redrawn that are visible through a transformation. The ground
+   * of each tile is drawn first, then the characters and items of the tiles and of their neighbours
+   * whose drawing covers them: the tiles below and on the left for their health, and the tile on the right for the item in its hand.
+   *
+   * @param gameMap      The GameMap to draw.
+   * @param graphics     The Graphics2D context to draw on.
+   * @param zoomed       The transformation from grid coordinates to screen pixels.
+   * @param screenWidth  The width of the screen.
+   * @param screenHeight The height of the screen.
+   * @return The number of tiles redrawn.
+   * @throws NullPointerException if gameMap, graphics or zoomed is null.
+   */
+  private static final int drawDirtyTiles(GameMap gameMap, Graphics2D graphics, AffineTransform zoomed, double screenWidth, double screenHeight) {
+    Rectangle tiles = visibleTiles(gameMap, zoomed, screenWidth, screenHeight);
+    TerrainCache terrainCache = gameMap.getTerrainCache();
+    MapGrid grid = gameMap.getGrid();
+    int drawnTiles = 0;
+
+    SpriteBatch enclosing = beginGroundBatch(GROUND_BATCH);
+    try {
+      for (Position position : gameMap.getCasesToReDraw()) {
+        int x = position.getX();
+        int y = position.getY();
+        Case caseToDraw = grid.getCase(x, y);
+        if (caseToDraw == null || !tiles.contains(x, y)) {
+          continue;
+        }
+        if (terrainCache != null) {
+          terrainCache.drawTile(gameMap, graphics, zoomed, x, y);
+        } else {
+          graphics.setTransform(zoomed);
+          drawRect(x, y, 1, 1, graphics, Color.LIGHT_GRAY);
+          caseToDraw.getEnvironnement().draw(graphics, zoomed, x, y, 1, 1, gameMap);
+        }
+        markOccupants(grid, x, y);
+        markOccupants(grid, x, y + 1);
+        markOccupants(grid, x - 1, y + 1);
+        markOccupants(grid, x + 1, y);
+        markOccupants(grid, x - 1, y);
+        drawnTiles++;
+      }
+    } finally {
+      endGroundBatch(graphics, enclosing);
+    }
 
-    graphics.setTransform(zoomedOnPlayer(gameMap, screenInfo.getWidth(),screenInfo.getHeight()));
-    drawMap(gameMap, graphics); 
+    graphics.setTransform(zoomed);
+    int width = grid.width();
+    for (int i = 0; i < occupantsCount; i++) {
+      int tile = occupantsToDraw[i];
+      OCCUPANTS_MARKED.clear(tile);
+      Case caseToDraw = grid.getCase(tile % width, tile / width);
+      if (caseToDraw != null) {
+        caseToDraw.drawOccupants(graphics, zoomed, tile % width, tile / width, 1, 1, gameMap);
+      }
+    }
+    occupantsCount = 0;
+    return drawnTiles;
+    }
+
+  /**
+   * Adds a tile of the grid to the tiles whose characters and items are drawn again by the frame,
+   * once, in the order the tiles are marked. The tiles are kept by index in arrays reused from
+   * frame to frame.
+   *
+   * @param grid The grid of the map being drawn.
+   * @param x    The x-coordinate of the tile, ignored outside the grid.
+   * @param y    The y-coordinate of the tile, ignored outside the grid.
+   */
+  private static final void markOccupants(MapGrid grid, int x, int y) {
+    if (x < 0 || x >= grid.width() || y < 0 || y >= grid.height()) {
+      return;
+    }
+    int tile = y * grid.width() + x;
+    if (OCCUPANTS_MARKED.get(tile)) {
+      return;
+    }
+    OCCUPANTS_MARKED.set(tile);
+    if (occupantsCount == occupantsToDraw.length) {
+      occupantsToDraw = Arrays.copyOf(occupantsToDraw, 2 * occupantsCount);
+    }
+    occupantsToDraw[occupantsCount++] = tile;
     }
   
   /**
-   * The game loop that continuously renders frames using the provided ApplicationContext and GameMap.
+   * The game loop that continuously renders frames using the provided ApplicationContext and GameMap,
+   * with the default simulation rate.
    *
    * @param context The ApplicationContext.
    * @param gameMap The GameMap to render.
    * @throws NullPointerException if context or gameMap is null.
    */
   public static final void gameLoop(ApplicationContext context, GameMap gameMap) {
+    gameLoop(context, gameMap, GameLoop.DEFAULT_TICKS_PER_SECOND);
+    }
+
+  /**
+   * The game loop that continuously renders frames using the provided ApplicationContext and GameMap.
+   * Each iteration handles the pending keyboard events without waiting, runs the simulation ticks
+   * due at a fixed rate, then renders a frame unless the simulation is late.
+   *
+   * @param context        The ApplicationContext.
+   * @param gameMap        The GameMap to render.
+   * @param ticksPerSecond The number of simulation ticks per second.
+   * @throws NullPointerException if context or gameMap is null.
+   * @throws IllegalArgumentException if ticksPerSecond is not between 1 and 1000.
+   */
+  public static final void gameLoop(ApplicationContext context, GameMap gameMap, int ticksPerSecond) {
+    Objects.requireNonNull(context);
+    Objects.requireNonNull(gameMap);
+    GameLoop loop = new GameLoop(ticksPerSecond);
     Optional<Character> optionalPlayer;
     Character player;
+    loop.start(System.nanoTime());
     while (true) {
         optionalPlayer = gameMap.getCaseAt(gameMap.getPlayerPosition()).getCharacter();
         player = optionalPlayer.orElseThrow(() -> new NoSuchElementException("No character found"));
@@ -413,11 +779,20 @@ public final class Graph {
           System.out.println("GAME LOST\n");
           break;
         }
-        context.renderFrame(graphics -> renderGameFrame(gameMap, graphics,GameEventsListener.listenEvents(context, gameMap)));
-        gameMap.enemiesMouvements();
-        
-        gameMap.getCasesToReDraw().clear();
+        long start = System.nanoTime();
+        GameEventsListener.listenEvents(context, gameMap);
+        int ticks = loop.advance(start);
+        for (int i = 0; i < ticks; i++) {
+          gameMap.enemiesMouvements(loop.tickNanos());
+        }
+        boolean rendered = loop.shouldRender();
+        if (rendered) {
+          context.renderFrame(graphics -> renderGameFrame(gameMap, graphics));
         }
+        loop.endIteration(ticks, rendered, start, System.nanoTime());
+        }
+    System.out.println("Rendering: " + gameMap.getRenderStats());
+    System.out.println("Loop: " + loop.stats());
     }
   
 
@@ -460,14 +835,17 @@ public final class Graph {
 
  
   /**
-   * Renders a game frame based on the provided GameMap, Graphics2D, and draw map decider.
+   * Renders a game frame based on the provided GameMap and Graphics2D.
+   * When the camera moved or the inventory is erased, every tile visible through the zoom on the
+   * player is drawn, from the cached ground of the map when it is present. Otherwise only the tiles
+   * marked to be redrawn since the previous frame are drawn, and the inventory is drawn again on top
+   * of them if it is open. The number of tiles drawn is recorded in the render stats of the map.
    *
    * @param gameMap        The GameMap to render.
    * @param graphics       The Graphics2D context to draw on.
-   * @param drawMapDecider The draw map decider indicating whether to draw the map.
    * @throws NullPointerException if gameMap or graphics is null.
    */
- static final void renderGameFrame(GameMap gameMap, Graphics2D graphics,int drawMapDecider) {
+ static final void renderGameFrame(GameMap gameMap, Graphics2D graphics) {
 
    double screenWidth,screenHeight;
    screenWidth = gameMap.getMapScale().get("X")*gameMap.getSize().width();
@@ -475,9 +853,21 @@ public final class Graph {
    AffineTransform zoomed = zoomedOnPlayer(gameMap, screenWidth, screenHeight);
    graphics.setTransform(zoomed);
    
-   if(drawMapDecider == 0 ||gameMap.getDrawedObjectsInfo().get("EraseInventory").equals(true)) {
-     drawMap(gameMap, graphics);
+   boolean fullRepaint = !zoomed.equals(gameMap.getCameraTransform())
+       || gameMap.getDrawedObjectsInfo().get("EraseInventory").equals(true);
+   int drawnTiles;
+   if(fullRepaint) {
+     drawnTiles = drawVisibleMap(gameMap, graphics, zoomed, screenWidth, screenHeight);
+     gameMap.setCameraTransform(zoomed);
+   }
+   else {
+     drawnTiles = drawDirtyTiles(gameMap, graphics, zoomed, screenWidth, screenHeight);
+     if (drawnTiles > 0 && gameMap.getDrawedObjectsInfo().get("InventoryDrawed").equals(true)) {
+       gameMap.getDrawedObjectsInfo().replace("DrawInventory", true);
+     }
    }
+   gameMap.getCasesToReDraw().clear();
+   gameMap.getRenderStats().recordFrame(drawnTiles, fullRepaint);
    handleInventoryDrawing(gameMap, graphics);
 
    
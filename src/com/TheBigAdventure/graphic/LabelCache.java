@@ -0,0 +1,127 @@
+package com.TheBigAdventure.graphic;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache of the numbers drawn over the characters of the map, rendered at the zoom of the screen.
+ * <p>
+ * Drawing a number with the font of the map looks up the font, lays out its glyphs and rasterizes
+ * them through the zoom on every draw. The cache renders each number once to a small image of the
+ * screen format, packed in the pages of a {@link SpriteAtlas}, so that a label is copied at 1:1 at
+ * the nearest pixel of its baseline. The labels of the small positive numbers, like the health of
+ * the characters, are found in an array without any allocation. Every label is dropped when the
+ * scale of the map changes.
+ */
+final class LabelCache {
+
+  /**
+   * A number rendered at the zoom of the screen.
+   *
+   * @param region  The place of the label in the atlas.
+   * @param offsetX The x-offset of the label from the pixel of its baseline start.
+   * @param offsetY The y-offset of the label from the pixel of its baseline start.
+   */
+  record Label(SpriteAtlas.Region region, int offsetX, int offsetY) {
+
+    /**
+     * Copies the label at 1:1 to a graphics context.
+     *
+     * @param graphics The graphics context to draw on, without transformation.
+     * @param pixelX   The x-coordinate of the start of the baseline, in pixels.
+     * @param pixelY   The y-coordinate of the baseline, in pixels.
+     */
+    void draw(Graphics2D graphics, int pixelX, int pixelY) {
+      region.draw(graphics, pixelX + offsetX, pixelY + offsetY);
+    }
+  }
+
+  static final Font FONT = new Font("Calibri", Font.TYPE1_FONT, 1);
+  static final Color COLOR = Color.BLACK;
+  private static final int INDEXED_VALUES = 1024;
+  private static final int MARGIN = 1;
+
+  private final Label[] indexedLabels = new Label[INDEXED_VALUES];
+  private final Map<Integer, Label> otherLabels = new HashMap<>();
+  private final SpriteAtlas atlas = new SpriteAtlas();
+  private double scaleX;
+  private double scaleY;
+
+  /**
+   * Gets the label of a number at a scale, rendering it if needed.
+   *
+   * @param value         The number of the label.
+   * @param newScaleX     The horizontal scale of the font, in pixels per unit.
+   * @param newScaleY     The vertical scale of the font, in pixels per unit.
+   * @param configuration The configuration of the screen.
+   * @return The label, or null if the number has no visible pixel at this scale.
+   * @throws NullPointerException if configuration is null.
+   */
+  Label label(int value, double newScaleX, double newScaleY, GraphicsConfiguration configuration) {
+    Objects.requireNonNull(configuration);
+    if (newScaleX != scaleX || newScaleY != scaleY) {
+      clear();
+      scaleX = newScaleX;
+      scaleY = newScaleY;
+    }
+    boolean indexed = value >= 0 && value < INDEXED_VALUES;
+    Label label = indexed ? indexedLabels[value] : otherLabels.get(value);
+    if (label == null) {
+      label = render(String.valueOf(value), configuration);
+      if (label == null) {
+        return null;
+      }
+      if (indexed) {
+        indexedLabels[value] = label;
+      } else {
+        otherLabels.put(value, label);
+      }
+    }
+    return label;
+  }
+
+  /**
+   * Drops every label of the cache.
+   */
+  void clear() {
+    Arrays.fill(indexedLabels, null);
+    otherLabels.clear();
+    atlas.clear();
+  }
+
+  private Label render(String text, GraphicsConfiguration configuration) {
+    AffineTransform scale = AffineTransform.getScaleInstance(scaleX, scaleY);
+    FontRenderContext context = new FontRenderContext(scale, false, false);
+    GlyphVector glyphs = FONT.createGlyphVector(context, text);
+    Rectangle bounds = glyphs.getPixelBounds(context, 0, 0);
+    if (bounds.isEmpty()) {
+      return null;
+    }
+    int width = bounds.width + 2 * MARGIN;
+    int height = bounds.height + 2 * MARGIN;
+    BufferedImage image = configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    Graphics2D imageGraphics = image.createGraphics();
+    try {
+      imageGraphics.translate(MARGIN - bounds.x, MARGIN - bounds.y);
+      imageGraphics.scale(scaleX, scaleY);
+      imageGraphics.setColor(COLOR);
+      imageGraphics.setFont(FONT);
+      imageGraphics.drawString(text, 0, 0);
+    } finally {
+      imageGraphics.dispose();
+    }
+    return new Label(atlas.add(image, configuration), bounds.x - MARGIN, bounds.y - MARGIN);
+  }
+}
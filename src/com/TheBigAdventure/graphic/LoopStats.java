@@ -0,0 +1,126 @@
+package com.TheBigAdventure.graphic;
+
+/**
+ * Counters of the iterations of a {@link GameLoop}.
+ * <p>
+ * An iteration handles the pending input, runs the simulation ticks due since the previous
+ * iteration, then renders a frame unless the simulation is late. An iteration overruns when its
+ * work takes longer than one tick. Ticks are dropped, slowing the simulation, only when it is so
+ * late that catching up would freeze the screen.
+ */
+public final class LoopStats {
+
+  private long iterations;
+  private long ticks;
+  private long frames;
+  private long skippedFrames;
+  private long overruns;
+  private long droppedTicks;
+  private long workNanos;
+  private long maxWorkNanos;
+
+  /**
+   * Records an iteration of the loop.
+   *
+   * @param iterationTicks The number of ticks run by the iteration.
+   * @param rendered       Whether the iteration rendered a frame.
+   * @param nanos          The time spent by the iteration, without waiting for the next tick.
+   * @param tickNanos      The duration of a tick.
+   * @throws IllegalArgumentException if iterationTicks or nanos is negative.
+   */
+  void recordIteration(int iterationTicks, boolean rendered, long nanos, long tickNanos) {
+    if (iterationTicks < 0 || nanos < 0) {
+      throw new IllegalArgumentException("The ticks and the time of an iteration cant be negative");
+    }
+    iterations++;
+    ticks += iterationTicks;
+    if (rendered) {
+      frames++;
+    } else {
+      skippedFrames++;
+    }
+    if (nanos > tickNanos) {
+      overruns++;
+    }
+    workNanos += nanos;
+    maxWorkNanos = Math.max(maxWorkNanos, nanos);
+  }
+
+  /**
+   * Records ticks dropped because the simulation was too late.
+   *
+   * @param dropped The number of ticks dropped.
+   */
+  void recordDroppedTicks(long dropped) {
+    droppedTicks += dropped;
+  }
+
+  /**
+   * Gets the number of simulation ticks run.
+   *
+   * @return The number of ticks.
+   */
+  public long ticks() {
+    return ticks;
+  }
+
+  /**
+   * Gets the number of frames rendered.
+   *
+   * @return The number of frames.
+   */
+  public long frames() {
+    return frames;
+  }
+
+  /**
+   * Gets the number of iterations that skipped their frame to catch up with the simulation.
+   *
+   * @return The number of skipped frames.
+   */
+  public long skippedFrames() {
+    return skippedFrames;
+  }
+
+  /**
+   * Gets the number of iterations whose work took longer than one tick.
+   *
+   * @return The number of overruns.
+   */
+  public long overruns() {
+    return overruns;
+  }
+
+  /**
+   * Gets the number of ticks dropped because the simulation was too late.
+   *
+   * @return The number of dropped ticks.
+   */
+  public long droppedTicks() {
+    return droppedTicks;
+  }
+
+  /**
+   * Gets the longest time spent by an iteration, without waiting for the next tick.
+   *
+   * @return The longest iteration, in nanoseconds.
+   */
+  public long maxWorkNanos() {
+    return maxWorkNanos;
+  }
+
+  /**
+   * Computes the average time spent by an iteration, without waiting for the next tick.
+   *
+   * @return The average iteration, in nanoseconds, or 0 if no iteration was run.
+   */
+  public double averageWorkNanos() {
+    return iterations == 0 ? 0 : workNanos / (double) iterations;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d ticks, %d frames, %d skipped frames, %d overruns, %d dropped ticks, %.3f ms per iteration (max %.3f)",
+        ticks, frames, skippedFrames, overruns, droppedTicks, averageWorkNanos() / 1e6, maxWorkNanos / 1e6);
+  }
+}
@@ -0,0 +1,101 @@
+package com.TheBigAdventure.graphic;
+
+/**
+ * Counters of the tiles repainted by the frames of a game map.
+ * <p>
+ * A frame either repaints every visible tile, when the camera moved or the inventory was erased,
+ * or only the tiles whose content changed since the previous frame. A frame where nothing changed
+ * repaints no tile at all.
+ */
+public final class RenderStats {
+
+  private long frames;
+  private long fullRepaints;
+  private long idleFrames;
+  private long tilesRepainted;
+  private int lastFrameTiles;
+  private int maxFrameTiles;
+
+  /**
+   * Records the tiles repainted by a frame.
+   *
+   * @param tiles       The number of tiles repainted by the frame.
+   * @param fullRepaint Whether the frame repainted every visible tile.
+   * @throws IllegalArgumentException if tiles is negative.
+   */
+  void recordFrame(int tiles, boolean fullRepaint) {
+    if (tiles < 0) {
+      throw new IllegalArgumentException("The number of repainted tiles cant be negative");
+    }
+    frames++;
+    if (fullRepaint) {
+      fullRepaints++;
+    }
+    if (tiles == 0) {
+      idleFrames++;
+    }
+    tilesRepainted += tiles;
+    lastFrameTiles = tiles;
+    maxFrameTiles = Math.max(maxFrameTiles, tiles);
+  }
+
+  /**
+   * Gets the number of frames rendered.
+   *
+   * @return The number of frames.
+   */
+  public long frames() {
+    return frames;
+  }
+
+  /**
+   * Gets the number of frames that repainted every visible tile.
+   *
+   * @return The number of full repaints.
+   */
+  public long fullRepaints() {
+    return fullRepaints;
+  }
+
+  /**
+   * Gets the number of frames that repainted no tile.
+   *
+   * @return The number of idle frames.
+   */
+  public long idleFrames() {
+    return idleFrames;
+  }
+
+  /**
+   * Gets the number of tiles repainted by the last frame.
+   *
+   * @return The number of tiles of the last frame.
+   */
+  public int lastFrameTiles() {
+    return lastFrameTiles;
+  }
+
+  /**
+   * Gets the largest number of tiles repainted by a frame.
+   *
+   * @return The maximum number of tiles of a frame.
+   */
+  public int maxFrameTiles() {
+    return maxFrameTiles;
+  }
+
+  /**
+   * Computes the average number of tiles repainted by a frame.
+   *
+   * @return The average number of tiles per frame, or 0 if no frame was rendered.
+   */
+  public double averageFrameTiles() {
+    return frames == 0 ? 0 : tilesRepainted / (double) frames;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d frames, %d full repaints, %d idle frames, %.2f tiles per frame (max %d)",
+        frames, fullRepaints, idleFrames, averageFrameTiles(), maxFrameTiles);
+  }
+}
@@ -0,0 +1,255 @@
+package com.TheBigAdventure.graphic;
+
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Archive of the images of the game, already decoded to ARGB pixels.
+ * <p>
+ * The archive is built from the PNG files of the image directory by the {@link #main(String[])}
+ * packer, as a step of the build, and is read as the resource {@code /img/sprites.pack}. All the
+ * values are big-endian:
+ * <ul>
+ * <li>a header: the magic number, the format version and the number of images;</li>
+ * <li>the index: for each image its file name, its width, its height, whether it is opaque and
+ * the offset of its pixels in the archive;</li>
+ * <li>the pixels: for each image, one ARGB int per pixel, row after row, starting on a multiple
+ * of four bytes.</li>
+ * </ul>
+ * Strings are stored as their length in bytes followed by their UTF-8 bytes. The archive is
+ * read through a memory mapping when it is a file, and an image is the bulk copy of its pixels
+ * into the {@link DataBufferInt} of a {@link BufferedImage}, without any decompression. An image
+ * missing from the archive, or every image when the archive is missing or corrupted, is read
+ * from its PNG file instead.
+ * <p>
+ * Usage: {@code java -cp out com.TheBigAdventure.graphic.SpriteArchive [image directory] [archive]},
+ * by default from {@code src/img} to {@code src/img/sprites.pack}.
+ */
+final class SpriteArchive {
+
+  static final String RESOURCE_DIRECTORY = "/img/";
+  private static final String FILE_NAME = "sprites.pack";
+  private static final int MAGIC = 0x53505254;
+  private static final int VERSION = 1;
+  private static final int[] ARGB_MASKS = { 0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000 };
+  private static final int[] RGB_MASKS = { 0x00FF0000, 0x0000FF00, 0x000000FF };
+  private static final ColorModel ARGB = ColorModel.getRGBdefault();
+  private static final ColorModel RGB = new DirectColorModel(24, 0x00FF0000, 0x0000FF00, 0x000000FF);
+  private static final SpriteArchive EMPTY = new SpriteArchive(ByteBuffer.allocate(0), Map.of());
+
+  private static SpriteArchive shared;
+
+  private record Entry(int width, int height, boolean opaque, int offset) {
+  }
+
+  private final ByteBuffer pixels;
+  private final Map<String, Entry> entries;
+
+  private SpriteArchive(ByteBuffer pixels, Map<String, Entry> entries) {
+    this.pixels = pixels;
+    this.entries = entries;
+  }
+
+  /**
+   * Gets the archive of the images of the game, opening it the first time.
+   *
+   * @return The archive read from the resources, or an empty archive if there is none or it is corrupted.
+   * @throws IOException If an I/O error occurs reading the archive.
+   */
+  static synchronized SpriteArchive shared() throws IOException {
+    if (shared == null) {
+      shared = open(Graph.class.getResource(RESOURCE_DIRECTORY + FILE_NAME));
+    }
+    return shared;
+  }
+
+  /**
+   * Creates an image from the pixels of the archive.
+   *
+   * @param fileName The name of the image file, relative to the image directory.
+   * @return A new image holding a copy of the pixels, or null if the archive has no such image.
+   * @throws NullPointerException if fileName is null.
+   */
+  BufferedImage image(String fileName) {
+    Objects.requireNonNull(fileName);
+    Entry entry = entries.get(fileName);
+    if (entry == null) {
+      return null;
+    }
+    int[] data = new int[entry.width() * entry.height()];
+    pixels.slice(entry.offset(), data.length * Integer.BYTES).asIntBuffer().get(data);
+    DataBufferInt buffer = new DataBufferInt(data, data.length);
+    int[] masks = entry.opaque() ? RGB_MASKS : ARGB_MASKS;
+    WritableRaster raster = Raster.createPackedRaster(buffer, entry.width(), entry.height(), entry.width(), masks, null);
+    return new BufferedImage(entry.opaque() ? RGB : ARGB, raster, false, null);
+  }
+
+  private static SpriteArchive open(URL archive) throws IOException {
+    if (archive == null) {
+      return EMPTY;
+    }
+    ByteBuffer buffer;
+    if ("file".equals(archive.getProtocol())) {
+      Path path;
+      try {
+        path = Path.of(archive.toURI());
+      } catch (URISyntaxException e) {
+        throw new IOException("Sprite archive " + archive + " cant be located", e);
+      }
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+    } else {
+      try (InputStream input = archive.openStream()) {
+        buffer = ByteBuffer.wrap(input.readAllBytes());
+      }
+    }
+    try {
+      return read(buffer);
+    } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+      return EMPTY;
+    }
+  }
+
+  /**
+   * Reads the index of an archive.
+   *
+   * @param buffer The whole archive.
+   * @return The archive, or an empty archive if it is not an archive of this version.
+   * @throws BufferUnderflowException if the archive is truncated.
+   * @throws IllegalArgumentException if the archive is corrupted.
+   */
+  private static SpriteArchive read(ByteBuffer buffer) {
+    if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+      return EMPTY;
+    }
+    int count = buffer.getInt();
+    if (count < 0 || count > buffer.remaining()) {
+      throw new IllegalArgumentException("Sprite archive index is corrupted");
+    }
+    Map<String, Entry> entries = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      String fileName = readString(buffer);
+      Entry entry = new Entry(buffer.getInt(), buffer.getInt(), buffer.get() != 0, buffer.getInt());
+      long end = entry.offset() + (long) entry.width() * entry.height() * Integer.BYTES;
+      if (entry.width() <= 0 || entry.height() <= 0 || entry.offset() < 0 || end > buffer.limit()) {
+        throw new IllegalArgumentException("Sprite archive entry " + fileName + " is corrupted");
+      }
+      entries.put(fileName, entry);
+    }
+    return new SpriteArchive(buffer, Map.copyOf(entries));
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    int length = buffer.getShort() & 0xFFFF;
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Packs the PNG files of a directory into an archive. The archive is written to a temporary file
+   * then moved, so that a failed packing leaves the previous archive.
+   *
+   * @param imageDirectory The directory of the PNG files.
+   * @param archive        The path of the archive to write.
+   * @return The number of images packed.
+   * @throws IOException If an I/O error occurs, or if a file cant be decoded.
+   */
+  static int pack(Path imageDirectory, Path archive) throws IOException {
+    Objects.requireNonNull(imageDirectory);
+    Objects.requireNonNull(archive);
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(imageDirectory)) {
+      files = listing.filter(file -> file.getFileName().toString().endsWith(".png")).sorted().toList();
+    }
+
+    List<String> names = new ArrayList<>(files.size());
+    List<BufferedImage> images = new ArrayList<>(files.size());
+    ByteArrayOutputStream index = new ByteArrayOutputStream();
+    DataOutputStream indexOutput = new DataOutputStream(index);
+    for (Path file : files) {
+      BufferedImage image = ImageIO.read(file.toFile());
+      if (image == null) {
+        throw new IOException("Image " + file + " cant be decoded");
+      }
+      names.add(file.getFileName().toString());
+      images.add(image);
+      byte[] name = names.get(names.size() - 1).getBytes(StandardCharsets.UTF_8);
+      indexOutput.writeShort(name.length);
+      indexOutput.write(name);
+      indexOutput.writeInt(image.getWidth());
+      indexOutput.writeInt(image.getHeight());
+      indexOutput.writeByte(image.getTransparency() == Transparency.OPAQUE ? 1 : 0);
+      indexOutput.writeInt(0);
+    }
+
+    int headerSize = 3 * Integer.BYTES;
+    int offset = align(headerSize + index.size());
+    ByteBuffer indexBuffer = ByteBuffer.wrap(index.toByteArray());
+    for (int i = 0, position = 0; i < images.size(); i++) {
+      position += Short.BYTES + names.get(i).getBytes(StandardCharsets.UTF_8).length + 2 * Integer.BYTES + 1;
+      indexBuffer.putInt(position, offset);
+      position += Integer.BYTES;
+      offset += images.get(i).getWidth() * images.get(i).getHeight() * Integer.BYTES;
+    }
+
+    Path temporary = archive.resolveSibling(archive.getFileName() + ".tmp");
+    try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      output.writeInt(images.size());
+      output.write(indexBuffer.array());
+      output.write(new byte[align(headerSize + index.size()) - headerSize - index.size()]);
+      for (BufferedImage image : images) {
+        int[] argb = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        for (int pixel : argb) {
+          output.writeInt(pixel);
+        }
+      }
+    }
+    Files.move(temporary, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return images.size();
+  }
+
+  private static int align(int offset) {
+    return (offset + Integer.BYTES - 1) & -Integer.BYTES;
+  }
+
+  public static void main(String[] args) throws IOException {
+    Path imageDirectory = Path.of(args.length > 0 ? args[0] : "src/img");
+    Path archive = args.length > 1 ? Path.of(args[1]) : imageDirectory.resolve(FILE_NAME);
+    long start = System.nanoTime();
+    int count = pack(imageDirectory, archive);
+    System.out.printf("%d images packed into %s (%,d bytes) in %.1f ms%n",
+        count, archive, Files.size(archive), (System.nanoTime() - start) / 1e6);
+  }
+}
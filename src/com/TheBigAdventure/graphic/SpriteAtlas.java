@@ -0,0 +1,124 @@
+package com.TheBigAdventure.graphic;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Large images, called pages, holding many sprites side by side.
+ * <p>
+ * The sprites are packed in rows: a sprite is placed on the right of the previous one, or at the
+ * start of a new row below the highest sprite of the current row when it does not fit, or on a new
+ * page when the current page is full. Drawing sprites from a few pages instead of one image per
+ * sprite lets the graphics pipeline keep a few surfaces in its cache, and drawing the sprites of a
+ * same page one after the other avoids switching the source image between draws.
+ */
+final class SpriteAtlas {
+
+  private static final int PAGE_SIZE = 2048;
+
+  /**
+   * The place of a sprite in the atlas.
+   *
+   * @param page   The index of the page holding the sprite.
+   * @param image  The page holding the sprite.
+   * @param x      The x-coordinate of the sprite in the page.
+   * @param y      The y-coordinate of the sprite in the page.
+   * @param width  The width of the sprite.
+   * @param height The height of the sprite.
+   */
+  record Region(int page, BufferedImage image, int x, int y, int width, int height) {
+
+    /**
+     * Copies the sprite at 1:1 to a graphics context.
+     *
+     * @param graphics The graphics context to draw on.
+     * @param pixelX   The x-coordinate of the sprite in the graphics context.
+     * @param pixelY   The y-coordinate of the sprite in the graphics context.
+     */
+    void draw(Graphics2D graphics, int pixelX, int pixelY) {
+      graphics.drawImage(image, pixelX, pixelY, pixelX + width, pixelY + height, x, y, x + width, y + height, null);
+    }
+  }
+
+  private final List<BufferedImage> pages = new ArrayList<>();
+  private int rowX;
+  private int rowY;
+  private int rowHeight;
+  private boolean pageOpen;
+
+  /**
+   * Packs a sprite in the atlas.
+   *
+   * @param sprite        The sprite, already at its size on the screen.
+   * @param configuration The configuration of the screen, used to create the pages.
+   * @return The place of the sprite in the atlas.
+   * @throws NullPointerException if sprite or configuration is null.
+   */
+  Region add(BufferedImage sprite, GraphicsConfiguration configuration) {
+    Objects.requireNonNull(sprite);
+    Objects.requireNonNull(configuration);
+    int width = sprite.getWidth();
+    int height = sprite.getHeight();
+    if (width > PAGE_SIZE || height > PAGE_SIZE) {
+      BufferedImage page = configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+      pages.add(page);
+      pageOpen = false;
+      copy(sprite, page, 0, 0);
+      return new Region(pages.size() - 1, page, 0, 0, width, height);
+    }
+
+    if (!pageOpen) {
+      newPage(configuration);
+    }
+    if (rowX + width > PAGE_SIZE) {
+      rowX = 0;
+      rowY += rowHeight;
+      rowHeight = 0;
+    }
+    if (rowY + height > PAGE_SIZE) {
+      newPage(configuration);
+    }
+    int pageIndex = pages.size() - 1;
+    BufferedImage page = pages.get(pageIndex);
+    copy(sprite, page, rowX, rowY);
+    Region region = new Region(pageIndex, page, rowX, rowY, width, height);
+    rowX += width;
+    rowHeight = Math.max(rowHeight, height);
+    return region;
+  }
+
+  /**
+   * Drops every page of the atlas.
+   */
+  void clear() {
+    pages.clear();
+    pageOpen = false;
+    rowX = 0;
+    rowY = 0;
+    rowHeight = 0;
+  }
+
+  private void newPage(GraphicsConfiguration configuration) {
+    pages.add(configuration.createCompatibleImage(PAGE_SIZE, PAGE_SIZE, Transparency.TRANSLUCENT));
+    pageOpen = true;
+    rowX = 0;
+    rowY = 0;
+    rowHeight = 0;
+  }
+
+  private static void copy(BufferedImage sprite, BufferedImage page, int x, int y) {
+    Graphics2D pageGraphics = page.createGraphics();
+    try {
+      pageGraphics.setComposite(AlphaComposite.Src);
+      pageGraphics.drawImage(sprite, x, y, null);
+    } finally {
+      pageGraphics.dispose();
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.TheBigAdventure.graphic;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sprites waiting to be drawn, drawn together page by page of the atlas.
+ * <p>
+ * A batch is only used for sprites that do not overlap, like the ground of the tiles, since the
+ * sprites are not drawn in the order they were added but grouped by atlas page, keeping their
+ * order inside a page.
+ */
+final class SpriteBatch {
+
+  private record Draw(SpriteAtlas.Region region, int pixelX, int pixelY) {
+  }
+
+  private final List<Draw> draws = new ArrayList<>();
+
+  /**
+   * Adds a sprite to the batch.
+   *
+   * @param region The place of the sprite in the atlas.
+   * @param pixelX The x-coordinate of the sprite, in pixels.
+   * @param pixelY The y-coordinate of the sprite, in pixels.
+   * @throws NullPointerException if region is null.
+   */
+  void add(SpriteAtlas.Region region, int pixelX, int pixelY) {
+    Objects.requireNonNull(region);
+    draws.add(new Draw(region, pixelX, pixelY));
+  }
+
+  /**
+   * Draws the sprites of the batch, sorted by atlas page, then empties the batch.
+   *
+   * @param graphics The graphics context to draw on, whose transformation is kept.
+   * @throws NullPointerException if graphics is null.
+   */
+  void flush(Graphics2D graphics) {
+    Objects.requireNonNull(graphics);
+    if (draws.isEmpty()) {
+      return;
+    }
+    draws.sort(Comparator.comparingInt(draw -> draw.region().page()));
+    AffineTransform transform = graphics.getTransform();
+    graphics.setTransform(new AffineTransform());
+    for (Draw draw : draws) {
+      draw.region().draw(graphics, draw.pixelX(), draw.pixelY());
+    }
+    graphics.setTransform(transform);
+    draws.clear();
+  }
+}
@@ -0,0 +1,115 @@
+package com.TheBigAdventure.graphic;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache of the sprites of the game scaled to their size on the screen.
+ * <p>
+ * A sprite drawn through the zoom of the map is resampled from its image file size by every draw.
+ * The cache keeps, for each image and each size in pixels it is drawn at, a copy already scaled in
+ * the format of the screen, so that the sprite is copied at 1:1 with an integer translation only.
+ * The scaled copies of the skins of the map are packed in the pages of a {@link SpriteAtlas}.
+ * Since the size of a tile in pixels is not an integer, an image has at most two widths and two
+ * heights for one tile size. The copies of an image are found by a scan of its few sizes, so
+ * that a lookup allocates nothing. Every copy is dropped when the scale of the map is configured
+ * again, and when the cache grows past a bound, as it does when the zoom changes.
+ */
+final class SpriteCache {
+
+  /**
+   * The scaled copies of one image, with their sizes in pixels.
+   */
+  private static final class Sizes {
+    private int[] widths = new int[4];
+    private int[] heights = new int[4];
+    private SpriteAtlas.Region[] regions = new SpriteAtlas.Region[4];
+    private int count;
+
+    private SpriteAtlas.Region find(int width, int height) {
+      for (int i = 0; i < count; i++) {
+        if (widths[i] == width && heights[i] == height) {
+          return regions[i];
+        }
+      }
+      return null;
+    }
+
+    private void add(int width, int height, SpriteAtlas.Region region) {
+      if (count == regions.length) {
+        widths = Arrays.copyOf(widths, 2 * count);
+        heights = Arrays.copyOf(heights, 2 * count);
+        regions = Arrays.copyOf(regions, 2 * count);
+      }
+      widths[count] = width;
+      heights[count] = height;
+      regions[count++] = region;
+    }
+  }
+
+  private static final int MAX_SPRITES = 1024;
+
+  private final Map<BufferedImage, Sizes> sprites = new HashMap<>();
+  private final SpriteAtlas atlas = new SpriteAtlas();
+  private int spriteCount;
+
+  /**
+   * Gets the copy of an image scaled to a size in pixels, creating it in the atlas if needed.
+   *
+   * @param image         The image of the sprite.
+   * @param width         The width of the sprite on the screen, in pixels.
+   * @param height        The height of the sprite on the screen, in pixels.
+   * @param configuration The configuration of the screen.
+   * @return The place of the scaled copy of the image in the atlas.
+   * @throws NullPointerException if image or configuration is null.
+   * @throws IllegalArgumentException if width or height is not positive.
+   */
+  SpriteAtlas.Region scaled(BufferedImage image, int width, int height, GraphicsConfiguration configuration) {
+    Objects.requireNonNull(image);
+    Objects.requireNonNull(configuration);
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("A sprite must be at least one pixel wide and high");
+    }
+    Sizes sizes = sprites.get(image);
+    SpriteAtlas.Region sprite = sizes == null ? null : sizes.find(width, height);
+    if (sprite == null) {
+      if (spriteCount >= MAX_SPRITES) {
+        clear();
+        sizes = null;
+      }
+      if (sizes == null) {
+        sizes = new Sizes();
+        sprites.put(image, sizes);
+      }
+      sprite = atlas.add(scale(image, width, height, configuration), configuration);
+      sizes.add(width, height, sprite);
+      spriteCount++;
+    }
+    return sprite;
+  }
+
+  /**
+   * Drops every scaled copy of the cache.
+   */
+  void clear() {
+    sprites.clear();
+    atlas.clear();
+    spriteCount = 0;
+  }
+
+  private static BufferedImage scale(BufferedImage image, int width, int height, GraphicsConfiguration configuration) {
+    BufferedImage sprite = configuration.createCompatibleImage(width, height, image.getTransparency());
+    Graphics2D spriteGraphics = sprite.createGraphics();
+    try {
+      spriteGraphics.drawImage(image, 0, 0, width, height, null);
+    } finally {
+      spriteGraphics.dispose();
+    }
+    return sprite;
+  }
+}
@@ -0,0 +1,239 @@
+package com.TheBigAdventure.graphic;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.TheBigAdventure.mapBuiler.Case;
+import com.TheBigAdventure.mapBuiler.GameMap;
+import com.TheBigAdventure.mapBuiler.MapGrid;
+import com.TheBigAdventure.mapBuiler.Position;
+
+/**
+ * Cache of the ground of a game map, rendered once at the zoom of the screen.
+ * <p>
+ * The map is split in square chunks of tiles. A chunk is rendered the first time it becomes
+ * visible, into an image compatible with the screen, holding only the environnement entities of
+ * its tiles. A frame then copies the visible chunks to the screen without scaling, and only the
+ * characters, the items and the inventory are drawn on top of them.
+ * <p>
+ * The chunks are rendered for one tile size in pixels and are all dropped when it changes. A chunk
+ * is dropped when the environnement entity of one of its tiles changes, and the least recently
+ * used chunks are dropped once the cache holds twice the chunks covering the screen.
+ */
+public final class TerrainCache {
+
+  private static final int CHUNK_PIXELS = 512;
+  private static final Color BACKGROUND = Color.LIGHT_GRAY;
+
+  private final double screenWidth;
+  private final double screenHeight;
+  private final Map<Long, BufferedImage> chunks;
+  private final SpriteBatch chunkBatch = new SpriteBatch();
+  private double tileWidth;
+  private double tileHeight;
+  private int chunkTiles;
+  private int maxChunks;
+
+  /**
+   * Constructs an empty cache for a screen.
+   *
+   * @param screenWidth  The width of the screen.
+   * @param screenHeight The height of the screen.
+   */
+  TerrainCache(double screenWidth, double screenHeight) {
+    this.screenWidth = screenWidth;
+    this.screenHeight = screenHeight;
+    this.chunks = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+        return size() > maxChunks;
+      }
+    };
+  }
+
+  /**
+   * Drops the chunks showing a tile, so that they are rendered again the next time they are visible.
+   * A tile on the first row or column of a chunk also shows in the extra pixel of its previous chunks.
+   *
+   * @param position The position of the tile whose environnement entity changed.
+   * @throws NullPointerException if position is null.
+   */
+  public void invalidate(Position position) {
+    Objects.requireNonNull(position);
+    if (chunkTiles == 0) {
+      return;
+    }
+    int chunkX = position.getX() / chunkTiles;
+    int chunkY = position.getY() / chunkTiles;
+    int previousX = position.getX() % chunkTiles == 0 ? chunkX - 1 : chunkX;
+    int previousY = position.getY() % chunkTiles == 0 ? chunkY - 1 : chunkY;
+    for (int y = previousY; y <= chunkY; y++) {
+      for (int x = previousX; x <= chunkX; x++) {
+        chunks.remove(key(x, y));
+      }
+    }
+  }
+
+  /**
+   * Drops every chunk of the cache.
+   */
+  public void clear() {
+    chunks.clear();
+  }
+
+  /**
+   * Copies the chunks covering the visible tiles to the screen. The transformation of the graphics
+   * context is changed and must be set again by the caller.
+   *
+   * @param gameMap  The game map being drawn.
+   * @param graphics The graphics context of the screen.
+   * @param zoomed   The transformation from grid coordinates to screen pixels.
+   * @param tiles    The rectangle of visible tiles, in grid coordinates, inside the bounds of the grid.
+   * @throws NullPointerException if an argument is null.
+   */
+  void drawTerrain(GameMap gameMap, Graphics2D graphics, AffineTransform zoomed, Rectangle tiles) {
+    Objects.requireNonNull(gameMap);
+    Objects.requireNonNull(graphics);
+    Objects.requireNonNull(zoomed);
+    Objects.requireNonNull(tiles);
+    resize(zoomed.getScaleX(), zoomed.getScaleY());
+    if (tiles.isEmpty()) {
+      return;
+    }
+
+    graphics.setTransform(new AffineTransform());
+    int startChunkX = tiles.x / chunkTiles;
+    int startChunkY = tiles.y / chunkTiles;
+    int endChunkX = (tiles.x + tiles.width - 1) / chunkTiles;
+    int endChunkY = (tiles.y + tiles.height - 1) / chunkTiles;
+    for (int chunkY = startChunkY; chunkY <= endChunkY; chunkY++) {
+      for (int chunkX = startChunkX; chunkX <= endChunkX; chunkX++) {
+        BufferedImage chunk = chunk(gameMap, graphics.getDeviceConfiguration(), chunkX, chunkY);
+        int pixelX = (int) Math.round(zoomed.getTranslateX() + chunkX * chunkTiles * tileWidth);
+        int pixelY = (int) Math.round(zoomed.getTranslateY() + chunkY * chunkTiles * tileHeight);
+        graphics.drawImage(chunk, pixelX, pixelY, null);
+      }
+    }
+  }
+
+  /**
+   * Copies the part of a chunk covering one tile to the screen. The transformation of the graphics
+   * context is changed and must be set again by the caller.
+   *
+   * @param gameMap  The game map being drawn.
+   * @param graphics The graphics context of the screen.
+   * @param zoomed   The transformation from grid coordinates to screen pixels.
+   * @param x        The x-coordinate of the tile.
+   * @param y        The y-coordinate of the tile.
+   * @throws NullPointerException if an argument is null.
+   */
+  void drawTile(GameMap gameMap, Graphics2D graphics, AffineTransform zoomed, int x, int y) {
+    Objects.requireNonNull(gameMap);
+    Objects.requireNonNull(graphics);
+    Objects.requireNonNull(zoomed);
+    resize(zoomed.getScaleX(), zoomed.getScaleY());
+    int chunkX = x / chunkTiles;
+    int chunkY = y / chunkTiles;
+    BufferedImage chunk = chunk(gameMap, graphics.getDeviceConfiguration(), chunkX, chunkY);
+    int chunkPixelX = (int) Math.round(zoomed.getTranslateX() + chunkX * chunkTiles * tileWidth);
+    int chunkPixelY = (int) Math.round(zoomed.getTranslateY() + chunkY * chunkTiles * tileHeight);
+    int startX = (int) Math.floor((x - chunkX * chunkTiles) * tileWidth);
+    int startY = (int) Math.floor((y - chunkY * chunkTiles) * tileHeight);
+    int nextChunkPixelX = (int) Math.round(zoomed.getTranslateX() + (chunkX + 1) * chunkTiles * tileWidth);
+    int nextChunkPixelY = (int) Math.round(zoomed.getTranslateY() + (chunkY + 1) * chunkTiles * tileHeight);
+    int endX = Math.min(nextChunkPixelX - chunkPixelX, (int) Math.ceil((x + 1 - chunkX * chunkTiles) * tileWidth));
+    int endY = Math.min(nextChunkPixelY - chunkPixelY, (int) Math.ceil((y + 1 - chunkY * chunkTiles) * tileHeight));
+
+    graphics.setTransform(new AffineTransform());
+    graphics.drawImage(chunk, chunkPixelX + startX, chunkPixelY + startY, chunkPixelX + endX, chunkPixelY + endY,
+        startX, startY, endX, endY, null);
+  }
+
+  private BufferedImage chunk(GameMap gameMap, GraphicsConfiguration configuration, int chunkX, int chunkY) {
+    BufferedImage chunk = chunks.get(key(chunkX, chunkY));
+    if (chunk == null) {
+      chunk = renderChunk(gameMap, configuration, chunkX, chunkY);
+      chunks.put(key(chunkX, chunkY), chunk);
+    }
+    return chunk;
+  }
+
+  /**
+   * Changes the tile size in pixels of the cache, dropping every chunk if it is different.
+   *
+   * @param newTileWidth  The width of a tile in pixels.
+   * @param newTileHeight The height of a tile in pixels.
+   */
+  private void resize(double newTileWidth, double newTileHeight) {
+    if (newTileWidth == tileWidth && newTileHeight == tileHeight) {
+      return;
+    }
+    chunks.clear();
+    tileWidth = newTileWidth;
+    tileHeight = newTileHeight;
+    chunkTiles = Math.max(1, (int) (CHUNK_PIXELS / Math.max(tileWidth, tileHeight)));
+    int chunksPerRow = (int) Math.ceil(screenWidth / (chunkTiles * tileWidth)) + 1;
+    int chunksPerColumn = (int) Math.ceil(screenHeight / (chunkTiles * tileHeight)) + 1;
+    maxChunks = 2 * chunksPerRow * chunksPerColumn;
+  }
+
+  /**
+   * Renders the environnement entities of the tiles of a chunk, batched in the batch of the cache,
+   * as a chunk may be rendered while the ground batch of a frame is open.
+   *
+   * @param gameMap       The game map being drawn.
+   * @param configuration The configuration of the screen.
+   * @param chunkX        The column of the chunk.
+   * @param chunkY        The row of the chunk.
+   * @return The image of the chunk, one pixel larger than the chunk to hide the rounding of its position.
+   */
+  private BufferedImage renderChunk(GameMap gameMap, GraphicsConfiguration configuration, int chunkX, int chunkY) {
+    int width = (int) Math.ceil(chunkTiles * tileWidth) + 1;
+    int height = (int) Math.ceil(chunkTiles * tileHeight) + 1;
+    BufferedImage chunk = configuration.createCompatibleImage(width, height, Transparency.OPAQUE);
+    Graphics2D chunkGraphics = chunk.createGraphics();
+    try {
+      chunkGraphics.setColor(BACKGROUND);
+      chunkGraphics.fillRect(0, 0, width, height);
+      chunkGraphics.scale(tileWidth, tileHeight);
+      chunkGraphics.translate(-chunkX * chunkTiles, -chunkY * chunkTiles);
+      AffineTransform transform = chunkGraphics.getTransform();
+
+      MapGrid grid = gameMap.getGrid();
+      int startX = chunkX * chunkTiles;
+      int startY = chunkY * chunkTiles;
+      int endX = Math.min(grid.width(), startX + chunkTiles + 1);
+      int endY = Math.min(grid.height(), startY + chunkTiles + 1);
+      SpriteBatch enclosing = Graph.beginGroundBatch(chunkBatch);
+      try {
+        for (int y = startY; y < endY; y++) {
+          for (int x = startX; x < endX; x++) {
+            Case tile = grid.getCase(x, y);
+            if (tile != null) {
+              tile.getEnvironnement().draw(chunkGraphics, transform, x, y, 1, 1, gameMap);
+            }
+          }
+        }
+      } finally {
+        Graph.endGroundBatch(chunkGraphics, enclosing);
+      }
+    } finally {
+      chunkGraphics.dispose();
+    }
+    return chunk;
+  }
+
+  private static long key(int chunkX, int chunkY) {
+    return ((long) chunkY << 32) | (chunkX & 0xFFFFFFFFL);
+  }
+}
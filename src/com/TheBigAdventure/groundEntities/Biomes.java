@@ -1,31 +1,41 @@
 /**
  * The {@code Biomes} class represents a biome entity in the game world.
  * It implements the {@code Environnement} interface and provides
- * information about the biome type and its position.
+ * information about the biome type.
  * 
  */
 package com.TheBigAdventure.groundEntities;
 
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 
 import com.TheBigAdventure.graphic.Graph;
 import com.TheBigAdventure.mapBuiler.GameMap;
-import com.TheBigAdventure.mapBuiler.Position;
 
 /**
  * Represents a biome entity in the game world.
+ * A biome does not hold its position, so a single instance per biome type, returned by
+ * {@link #of(biomeType)}, is shared by every tile of this type.
  */
-public record Biomes(biomeType typeBiome, Position biomePosition) implements Environnement {
-	
+public record Biomes(biomeType typeBiome) implements Environnement {
+
+  private static final Biomes[] SHARED = new Biomes[biomeType.values().length];
+
+  static {
+    for (biomeType type : biomeType.values()) {
+      SHARED[type.ordinal()] = new Biomes(type);
+    }
+  }
+
     /**
-     * Gets the position of the biome.
+     * Gets the shared biome of a type.
      *
-     * @return The position of the biome.
+     * @param typeBiome The type of the biome.
+     * @return The instance shared by every biome of this type.
      */
-  @Override
-  public Position getPosition() {
-    return biomePosition;
+  public static Biomes of(biomeType typeBiome) {
+    return SHARED[typeBiome.ordinal()];
   }
   
   /**
@@ -51,18 +61,21 @@ public record Biomes(biomeType typeBiome, Position biomePosition) implements Env
   /**
    * Draws the biome entity on the graphics context.
    *
-   * @param graphics The graphics context to draw on.
-   * @param sizeX    The X-size of the entity.
-   * @param sizeY    The Y-size of the entity.
-   * @param gameMap  The game map containing pictures for different biomes.
+   * @param graphics  The graphics context to draw on.
+   * @param transform The transformation of the graphics context.
+   * @param x         The x-coordinate of the tile.
+   * @param y         The y-coordinate of the tile.
+   * @param sizeX     The X-size of the entity.
+   * @param sizeY     The Y-size of the entity.
+   * @param gameMap   The game map containing pictures for different biomes.
    */
   @Override
-  public void draw(Graphics2D graphics, int sizeX, int sizeY,GameMap gameMap){
+  public void draw(Graphics2D graphics, AffineTransform transform, int x, int y, int sizeX, int sizeY,GameMap gameMap){
 
 
     
     BufferedImage img = gameMap.getPicturesInMap().get(typeBiome.toString());
-    Graph.drawEntity(biomePosition, sizeX, sizeY,graphics,img);
+    Graph.drawEntity(x, y, sizeX, sizeY,graphics,transform,img);
 
   }
   
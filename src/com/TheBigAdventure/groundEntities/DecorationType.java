@@ -1,11 +1,5 @@
 package com.TheBigAdventure.groundEntities;
 
-import java.util.Map;
-import java.util.Objects;
-
-import com.TheBigAdventure.mapBuiler.ObjectFromSkin;
-import com.TheBigAdventure.mapBuiler.Position;
-
 /**
  * Represents different decoration models in the game world.
  */
@@ -26,21 +20,4 @@ public enum DecorationType {
     }
     return null;
   }
-  
-  /**
-   * Loads an environment based on the provided object skin and values.
-   *
-   * @param object The object containing skin and values information.
-   * @return The loaded environment represented by an instance of {@code DecorativeElement}.
-   * @throws NullPointerException If the provided object is null.
-   */
-  public static Environnement loadEnvironnement(ObjectFromSkin object) {
-    Objects.requireNonNull(object);
-    DecorationType decoType;
-    Position decoPosition;
-    decoType = DecorationType.fromString(object.getObjectSkin());
-    Map<String, String> decoFieldsMap = object.getObjectValues();
-    decoPosition = object.parsePosition(decoFieldsMap.get("position"));
-    return new DecorativeElement(decoType, decoPosition);
-  }
 }
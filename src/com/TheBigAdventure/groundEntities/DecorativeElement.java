@@ -2,26 +2,36 @@ package com.TheBigAdventure.groundEntities;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 
 import com.TheBigAdventure.graphic.Graph;
 import com.TheBigAdventure.mapBuiler.GameMap;
-import com.TheBigAdventure.mapBuiler.Position;
 
 /**
  * Represents a decorative element in the game world.
- * Manages the position and rendering of decorative elements.
+ * Manages the rendering of decorative elements. A decorative element does not hold its position,
+ * so a single instance per decoration type, returned by {@link #of(DecorationType)}, is shared by
+ * every tile of this type.
  */
-public record DecorativeElement(DecorationType decorationType, Position decorationPosition) implements Environnement {
-	
+public record DecorativeElement(DecorationType decorationType) implements Environnement {
+
+  private static final DecorativeElement[] SHARED = new DecorativeElement[DecorationType.values().length];
+
+  static {
+    for (DecorationType type : DecorationType.values()) {
+      SHARED[type.ordinal()] = new DecorativeElement(type);
+    }
+  }
+
     /**
-     * Gets the position of the decorative element.
+     * Gets the shared decorative element of a type.
      *
-     * @return The position of the decorative element.
+     * @param decorationType The type of the decoration.
+     * @return The instance shared by every decoration of this type.
      */
-  @Override
-  public Position getPosition() {
-    return decorationPosition;
+  public static DecorativeElement of(DecorationType decorationType) {
+    return SHARED[decorationType.ordinal()];
   }
   
   /**
@@ -49,16 +59,19 @@ public record DecorativeElement(DecorationType decorationType, Position decorati
    * size dimensions, and game map information.
    *
    * @param graphics   The graphics context used for drawing.
+   * @param transform  The transformation of the graphics context.
+   * @param x          The x-coordinate of the tile.
+   * @param y          The y-coordinate of the tile.
    * @param sizeX      The width of the decoration.
    * @param sizeY      The height of the decoration.
    * @param gameMap    The game map containing information about the game environment.
    */
   @Override
-  public void draw(Graphics2D graphics, int sizeX, int sizeY,GameMap gameMap){
+  public void draw(Graphics2D graphics, AffineTransform transform, int x, int y, int sizeX, int sizeY,GameMap gameMap){
 
     if(decorationType.equals(DecorationType.VOID)) {
       if(gameMap.isMapInitialised()) {
-        Graph.drawRect(decorationPosition, sizeX, sizeY, graphics,Color.LIGHT_GRAY);
+        Graph.drawRect(x, y, sizeX, sizeY, graphics,Color.LIGHT_GRAY);
         return;
         
       }
@@ -67,9 +80,9 @@ public record DecorativeElement(DecorationType decorationType, Position decorati
       }
     }
  
-    Graph.drawRect(decorationPosition, sizeX, sizeY, graphics,Color.LIGHT_GRAY);
+    Graph.drawRect(x, y, sizeX, sizeY, graphics,Color.LIGHT_GRAY);
     BufferedImage img = gameMap.getPicturesInMap().get(decorationType.toString());
-    Graph.drawEntity(decorationPosition, sizeX, sizeY,graphics,img);
+    Graph.drawEntity(x, y, sizeX, sizeY,graphics,transform,img);
 
   }
   
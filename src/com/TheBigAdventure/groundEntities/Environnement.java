@@ -1,31 +1,32 @@
 package com.TheBigAdventure.groundEntities;
 
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.util.Objects;
 
 import com.TheBigAdventure.mapBuiler.Case;
 import com.TheBigAdventure.mapBuiler.GameMap;
-import com.TheBigAdventure.mapBuiler.Position;
 
 /**
  * The Environnement interface represents entities that can be part of the game environment,
- * including both obstacles and decorations. It defines methods to retrieve the position,
+ * including both obstacles and decorations. It defines methods to
  * check if it is an obstacle or a decoration, convert the type to a string representation,
  * and draw the entity on the screen.
  * <p>
+ * An environment entity does not know its position: the same instance is shared by every tile
+ * of its type, and the coordinates of the tile are given when it is drawn.
+ * <p>
  * This interface also includes a static method for updating an environment entity in a specific game map case.
  */
 public interface Environnement {
 	
-  public Position getPosition();
-
   public boolean isObstacle();
 
   public boolean isDecoration();
 
   public String typeToString();
 
-  public void draw(Graphics2D graphics, int sizeX, int sizeY,GameMap gameMap);
+  public void draw(Graphics2D graphics, AffineTransform transform, int x, int y, int sizeX, int sizeY,GameMap gameMap);
   
   /**
    * Updates the environment entity in a specific game map case.
@@ -1,11 +1,5 @@
 package com.TheBigAdventure.groundEntities;
 
-import java.util.Map;
-import java.util.Objects;
-
-import com.TheBigAdventure.mapBuiler.ObjectFromSkin;
-import com.TheBigAdventure.mapBuiler.Position;
-
 /**
  * The ObstacleType enum represents different obstacle models in the game.
  * It includes various types of obstacles that can be used in the game environment.
@@ -30,24 +24,4 @@ public enum ObstacleType {
     return null;
   }
 
-  /**
-   * Loads an environment entity based on the provided ObjectFromSkin instance.
-   *
-   * @param object The ObjectFromSkin instance containing information about the environment entity.
-   * @return The loaded environment entity.
-   * @throws NullPointerException     If the input ObjectFromSkin is null.
-   * @throws IllegalArgumentException If the obstacle type cannot be determined from the input skin string.
-   */
-  public static final Environnement loadEnvironnement(ObjectFromSkin object) {
-    Objects.requireNonNull(object);
-    ObstacleType obstacleType;
-    Position obstaclePosition;
-
-    obstacleType = ObstacleType.fromString(object.getObjectSkin());
-    Map<String, String> decoFieldsMap = object.getObjectValues();
-    obstaclePosition = object.parsePosition(decoFieldsMap.get("position"));
-
-    return new Obstacles(obstacleType, obstaclePosition);
-  }
-
 }
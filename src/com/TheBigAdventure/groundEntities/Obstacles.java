@@ -1,31 +1,41 @@
 package com.TheBigAdventure.groundEntities;
 
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 
 import com.TheBigAdventure.graphic.Graph;
 import com.TheBigAdventure.mapBuiler.GameMap;
-import com.TheBigAdventure.mapBuiler.Position;
 
 /**
- * The Obstacles class represents obstacles in the game, managing their position and rendering.
- * It implements the Environnement interface, providing methods to retrieve the position,
+ * The Obstacles class represents obstacles in the game, managing their rendering.
+ * It implements the Environnement interface, providing methods to
  * check if it is an obstacle, draw the obstacle on the screen, convert the type to a string representation,
  * and distinguish it from decorations.
  * <p>
  * This class is a record, meaning it is immutable and automatically generates appropriate methods,
- * such as equals, hashCode, and toString, based on its components.
+ * such as equals, hashCode, and toString, based on its components. An obstacle does not hold its
+ * position, so a single instance per obstacle type, returned by {@link #of(ObstacleType)}, is shared
+ * by every tile of this type.
  */
-public record Obstacles(ObstacleType obstacleType, Position obstaclePosition) implements Environnement {
-	
-	  /**
-	   * Gets the position of the obstacle.
-	   *
-	   * @return The position of the obstacle.
-	   */
-  @Override
-  public Position getPosition() {
-    return obstaclePosition;
+public record Obstacles(ObstacleType obstacleType) implements Environnement {
+
+  private static final Obstacles[] SHARED = new Obstacles[ObstacleType.values().length];
+
+  static {
+    for (ObstacleType type : ObstacleType.values()) {
+      SHARED[type.ordinal()] = new Obstacles(type);
+    }
+  }
+
+  /**
+   * Gets the shared obstacle of a type.
+   *
+   * @param obstacleType The type of the obstacle.
+   * @return The instance shared by every obstacle of this type.
+   */
+  public static Obstacles of(ObstacleType obstacleType) {
+    return SHARED[obstacleType.ordinal()];
   }
 
   /**
@@ -53,15 +63,18 @@ public record Obstacles(ObstacleType obstacleType, Position obstaclePosition) im
    * size dimensions, and game map information.
    *
    * @param graphics   The graphics context used for drawing.
+   * @param transform  The transformation of the graphics context.
+   * @param x          The x-coordinate of the tile.
+   * @param y          The y-coordinate of the tile.
    * @param sizeX      The width of the obstacle.
    * @param sizeY      The height of the obstacle.
    * @param gameMap    The game map containing information about the game environment.
    */
   @Override
-  public void draw(Graphics2D graphics, int sizeX, int sizeY,GameMap gameMap){
+  public void draw(Graphics2D graphics, AffineTransform transform, int x, int y, int sizeX, int sizeY,GameMap gameMap){
     
     BufferedImage img = gameMap.getPicturesInMap().get(obstacleType.toString());
-    Graph.drawEntity(obstaclePosition, sizeX, sizeY,graphics,img);
+    Graph.drawEntity(x, y, sizeX, sizeY,graphics,transform,img);
 
   }
 
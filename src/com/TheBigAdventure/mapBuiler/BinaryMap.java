@@ -0,0 +1,236 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * Compiled form of a map file, stored next to it with the ".bmap" extension.
+ * <p>
+ * A compiled map holds everything the text parser extracts from the map, so that loading it
+ * needs neither lexing nor validation. All the values are big-endian:
+ * <ul>
+ * <li>a header: the magic number, the format version, the hash of the source map file, the
+ * width and the height of the map;</li>
+ * <li>the encodings table: the number of skins, then for each tile identifier its character in
+ * the data section and its skin;</li>
+ * <li>the element table: the number of elements, then for each element its number of
+ * properties followed by the pairs of key and value;</li>
+ * <li>the tiles: one identifier per byte, row after row.</li>
+ * </ul>
+ * Strings are stored as their length in bytes followed by their UTF-8 bytes. The file is read
+ * through a memory mapping, and the tiles of the {@link DataBlock} are a view of the mapping.
+ * A compiled map is only used if the hash of its source matches the current map file and its
+ * tiles all have a skin; otherwise it is stale and the map is parsed again from its text.
+ */
+final class BinaryMap {
+
+  private static final String EXTENSION = ".bmap";
+  private static final int MAGIC = 0x424D4150;
+  private static final int VERSION = 1;
+
+  private BinaryMap() {
+  }
+
+  /**
+   * Gets the path of the compiled map of a map file.
+   *
+   * @param mapPath The path of the map file.
+   * @return The path of the compiled map, in the same directory.
+   */
+  static Path compiledPath(Path mapPath) {
+    Objects.requireNonNull(mapPath);
+    String fileName = mapPath.getFileName().toString();
+    int dot = fileName.lastIndexOf('.');
+    String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+    return mapPath.resolveSibling(baseName + EXTENSION);
+  }
+
+  /**
+   * Computes the hash identifying the content of a map file.
+   *
+   * @param mapPath The path of the map file.
+   * @return The CRC32C of the file in the low 32 bits and its length in the high 32 bits.
+   * @throws IOException If an I/O error occurs.
+   */
+  static long sourceHash(Path mapPath) throws IOException {
+    Objects.requireNonNull(mapPath);
+    try (FileChannel channel = FileChannel.open(mapPath, StandardOpenOption.READ)) {
+      long size = channel.size();
+      CRC32C crc = new CRC32C();
+      crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+      return (size << 32) | crc.getValue();
+    }
+  }
+
+  /**
+   * Loads the compiled map of a map file if it is up to date.
+   *
+   * @param mapPath    The path of the map file.
+   * @param sourceHash The hash of the current content of the map file.
+   * @return The content of the compiled map, or null if there is none or it does not match the map file.
+   * @throws IOException If an I/O error occurs.
+   */
+  static MapContainer load(Path mapPath, long sourceHash) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(compiledPath(mapPath), StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+    try {
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != sourceHash) {
+        return null;
+      }
+      return read(buffer);
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Reads the content of a compiled map, after its header identification.
+   *
+   * @param buffer The compiled map, positioned on the width of the map.
+   * @return The content of the compiled map.
+   * @throws BufferUnderflowException if the compiled map is truncated.
+   * @throws IllegalArgumentException if the compiled map is corrupted.
+   */
+  private static MapContainer read(ByteBuffer buffer) {
+    int width = buffer.getInt();
+    int height = buffer.getInt();
+
+    int skinCount = readCount(buffer);
+    List<String> skins = new ArrayList<>(skinCount);
+    StringBuilder codes = new StringBuilder(skinCount);
+    for (int i = 0; i < skinCount; i++) {
+      codes.append(buffer.getChar());
+      skins.add(readString(buffer));
+    }
+
+    int elementCount = readCount(buffer);
+    List<Map<String, String>> listOfElements = new ArrayList<>(elementCount);
+    for (int i = 0; i < elementCount; i++) {
+      int propertyCount = readCount(buffer);
+      Map<String, String> element = new HashMap<>();
+      for (int j = 0; j < propertyCount; j++) {
+        String key = readString(buffer);
+        element.put(key, readString(buffer));
+      }
+      listOfElements.add(element);
+    }
+
+    int tileCount = Math.multiplyExact(width, height);
+    if (tileCount != buffer.remaining()) {
+      throw new IllegalArgumentException("Compiled map tiles do not match its dimensions\n");
+    }
+    ByteBuffer tiles = buffer.slice();
+    checkTiles(tiles, skinCount);
+    DataBlock dataBlock = new DataBlock(width, height, tiles, new EncodingTable(skins, codes.toString()));
+    return new MapContainer(new int[] { width, height }, listOfElements, dataBlock);
+  }
+
+  /**
+   * Checks that every tile identifier of a compiled map has a skin. The header only identifies the
+   * source map file, so a corrupted payload is only found by reading its tiles.
+   *
+   * @param tiles     The tile identifiers, row after row.
+   * @param skinCount The number of skins of the encodings table.
+   * @throws IllegalArgumentException if a tile identifier has no skin.
+   */
+  private static void checkTiles(ByteBuffer tiles, int skinCount) {
+    for (int i = 0; i < tiles.limit(); i++) {
+      if ((tiles.get(i) & 0xFF) >= skinCount) {
+        throw new IllegalArgumentException("Compiled map tile has no skin\n");
+      }
+    }
+  }
+
+  private static int readCount(ByteBuffer buffer) {
+    int count = buffer.getInt();
+    if (count < 0 || count > buffer.remaining()) {
+      throw new IllegalArgumentException("Compiled map table is corrupted\n");
+    }
+    return count;
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0 || length > buffer.remaining()) {
+      throw new IllegalArgumentException("Compiled map string is corrupted\n");
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes the compiled map of a map file. The compiled map is written to a temporary file which
+   * then replaces the previous compiled map, so that a concurrent load never sees a partial file.
+   *
+   * @param mapPath      The path of the map file.
+   * @param sourceHash   The hash of the content of the map file.
+   * @param mapContainer The content parsed from the map file, before its objects are built.
+   * @throws IOException If an I/O error occurs.
+   */
+  static void save(Path mapPath, long sourceHash, MapContainer mapContainer) throws IOException {
+    Objects.requireNonNull(mapContainer);
+    Path compiledPath = compiledPath(mapPath);
+    Path temporaryPath = compiledPath.resolveSibling(compiledPath.getFileName() + ".tmp");
+    DataBlock dataBlock = mapContainer.dataBlock();
+    try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      output.writeLong(sourceHash);
+      output.writeInt(dataBlock.width());
+      output.writeInt(dataBlock.height());
+
+      EncodingTable encodings = dataBlock.encodings();
+      List<String> skins = encodings.skins();
+      output.writeInt(skins.size());
+      for (int i = 0; i < skins.size(); i++) {
+        output.writeChar(encodings.codes().charAt(i));
+        writeString(output, skins.get(i));
+      }
+
+      output.writeInt(mapContainer.listOfElements().size());
+      for (Map<String, String> element : mapContainer.listOfElements()) {
+        output.writeInt(element.size());
+        for (Map.Entry<String, String> property : element.entrySet()) {
+          writeString(output, property.getKey());
+          writeString(output, property.getValue());
+        }
+      }
+
+      ByteBuffer tiles = dataBlock.tiles();
+      byte[] row = new byte[dataBlock.width()];
+      while (tiles.hasRemaining()) {
+        tiles.get(row);
+        output.write(row);
+      }
+    }
+    Files.move(temporaryPath, compiledPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+}
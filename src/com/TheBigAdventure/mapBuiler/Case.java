@@ -1,6 +1,7 @@
 package com.TheBigAdventure.mapBuiler;
 
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -143,16 +144,6 @@ public final class Case {
            !item.isPresent();
 }
 
-  /**
-   * Gets the position of the environnement entity in the case.
-   *
-   * @return The position of the environnement entity.
-   */
-  private final Position getPosition() {
-    return environnementEntity.getPosition();
-  }
-
-  
   /**
    * Gets the environnement entity in the case.
    *
@@ -237,19 +228,36 @@ public final class Case {
    * Draws the entities in the case on the game map using the specified graphics context,
    * size dimensions, and game map information.
    *
-   * @param graphics The graphics context used for drawing.
-   * @param sizeX    The width of the case.
-   * @param sizeY    The height of the case.
-   * @param gameMap  The game map containing information about the game environment.
+   * @param graphics  The graphics context used for drawing.
+   * @param transform The transformation of the graphics context, from grid coordinates to pixels.
+   * @param x         The x-coordinate of the case.
+   * @param y         The y-coordinate of the case.
+   * @param sizeX     The width of the case.
+   * @param sizeY     The height of the case.
+   * @param gameMap   The game map containing information about the game environment.
    */
-  public final void draw(Graphics2D graphics, int sizeX, int sizeY,GameMap gameMap) {
-    environnementEntity.draw(graphics, sizeX, sizeY,gameMap);
-    if (characterEntity != null) {
-      characterEntity.ifPresent(character -> character.draw(graphics, sizeX, sizeY,gameMap));
-      
+  public final void draw(Graphics2D graphics, AffineTransform transform, int x, int y, int sizeX, int sizeY,GameMap gameMap) {
+    environnementEntity.draw(graphics, transform, x, y, sizeX, sizeY,gameMap);
+    drawOccupants(graphics, transform, x, y, sizeX, sizeY, gameMap);
+  }
+
+  /**
+   * Draws the character and the item of the case, without its environnement entity.
+   *
+   * @param graphics  The graphics context used for drawing.
+   * @param transform The transformation of the graphics context, from grid coordinates to pixels.
+   * @param x         The x-coordinate of the case.
+   * @param y         The y-coordinate of the case.
+   * @param sizeX     The width of the case.
+   * @param sizeY     The height of the case.
+   * @param gameMap   The game map containing information about the game environment.
+   */
+  public final void drawOccupants(Graphics2D graphics, AffineTransform transform, int x, int y, int sizeX, int sizeY,GameMap gameMap) {
+    if (characterEntity != null && characterEntity.isPresent()) {
+      characterEntity.get().draw(graphics, transform, sizeX, sizeY,gameMap);
     }
     if (item != null) {
-      item.ifPresent(insideinventory -> insideinventory.drawInMap(graphics, sizeX, sizeY, getPosition(),gameMap));
+      item.ifPresent(insideinventory -> insideinventory.drawInMap(graphics, transform, sizeX, sizeY, new Position(x, y),gameMap));
     }
 
   }
@@ -0,0 +1,367 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import com.TheBigAdventure.groundEntities.Environnement;
+
+/**
+ * Decoded content of the data section of a map.
+ * <p>
+ * Each tile is stored as a one byte identifier in a row-major buffer, and the identifier indexes
+ * the {@link EncodingTable} of the block. The identifier 0 is always the "VOID" skin, used for
+ * blank tiles and for characters that are not in the encodings section. The buffer is either decoded
+ * from the text of the map or mapped from a compiled map file.
+ */
+final class DataBlock {
+
+  private static final String DATA_DELIMITER = "\"\"\"";
+  private static final int PARALLEL_THRESHOLD = 1 << 16;
+  private static final int TILES_PER_TASK = 1 << 13;
+
+  private final int width;
+  private final int height;
+  private final ByteBuffer tiles;
+  private final EncodingTable encodings;
+  private final List<Case> tileCases;
+
+  /**
+   * Constructs a data block from its decoded tiles.
+   *
+   * @param width     The width of the map.
+   * @param height    The height of the map.
+   * @param tiles     The tile identifiers, row after row.
+   * @param encodings The skins and characters of the tile identifiers.
+   * @throws IllegalArgumentException if the tiles do not match the dimensions or a skin cannot be used as ground of the map.
+   */
+  DataBlock(int width, int height, ByteBuffer tiles, EncodingTable encodings) {
+    Objects.requireNonNull(tiles);
+    Objects.requireNonNull(encodings);
+    if (tiles.remaining() != Math.multiplyExact(width, height)) {
+      throw new IllegalArgumentException("Data section does not match its dimensions\n");
+    }
+    this.width = width;
+    this.height = height;
+    this.tiles = tiles.slice();
+    this.encodings = encodings;
+    this.tileCases = new ArrayList<>();
+    for (String skin : encodings.skins()) {
+      tileCases.add(new Case(environnement(skin)));
+    }
+  }
+
+  /**
+   * Finds the ground element of a skin used in the data section.
+   *
+   * @param skin The skin of the tile.
+   * @return The ground element shared by every tile of this skin.
+   * @throws IllegalArgumentException if the skin is not a decoration, an obstacle or a biome.
+   */
+  private static Environnement environnement(String skin) {
+    SkinRegistry.Skin registered = SkinRegistry.resolve(skin);
+    if (registered == null || registered.category() != SkinRegistry.Category.ENVIRONNEMENT) {
+      throw new IllegalArgumentException("Skin " + skin + " cant be used in the data section\n");
+    }
+    return registered.environnement();
+  }
+
+  /**
+   * Reads the rows of a data section from the reader, up to the closing delimiter, and decodes
+   * them tile by tile. Each row is validated before being decoded.
+   *
+   * @param reader       The reader positioned just after the opening delimiter of the data section.
+   * @param firstLine    The rest of the line holding the opening delimiter.
+   * @param size         The size of the map declared in the size section.
+   * @param encodingsMap The encodings of the map, from skin to character.
+   * @return The decoded data block.
+   * @throws IOException If an I/O error occurs.
+   * @throws IllegalArgumentException if the data section is not closed or does not match the size and encodings sections.
+   */
+  static DataBlock read(BufferedReader reader, String firstLine, MapSize size, Map<String, String> encodingsMap) throws IOException {
+    Objects.requireNonNull(reader);
+    Objects.requireNonNull(firstLine);
+    Objects.requireNonNull(size);
+    Objects.requireNonNull(encodingsMap);
+
+    EncodingTable encodings = EncodingTable.of(encodingsMap);
+    RowDecoder decoder = new RowDecoder(size, encodings);
+    String line = firstLine;
+    while (true) {
+      int end = line.indexOf(DATA_DELIMITER);
+      if (end >= 0) {
+        decoder.accept(line.substring(0, end));
+        break;
+      }
+      decoder.accept(line);
+      line = reader.readLine();
+      if (line == null) {
+        throw new IllegalArgumentException("Data section is not closed");
+      }
+    }
+    if (decoder.finish() != 0) {
+      throw new IllegalArgumentException("Data section error");
+    }
+    return new DataBlock(size.width(), size.height(), ByteBuffer.wrap(decoder.tiles), encodings);
+  }
+
+  /**
+   * Gets the width of the block.
+   *
+   * @return The number of tiles per row.
+   */
+  int width() {
+    return width;
+  }
+
+  /**
+   * Gets the height of the block.
+   *
+   * @return The number of rows.
+   */
+  int height() {
+    return height;
+  }
+
+  /**
+   * Retrieves the skins used by the tiles of the block, including the "VOID" skin.
+   *
+   * @return The skins of the block, indexed by tile identifier.
+   */
+  List<String> skins() {
+    return encodings.skins();
+  }
+
+  /**
+   * Retrieves the compiled encodings of the block.
+   *
+   * @return The skins and characters of the tile identifiers.
+   */
+  EncodingTable encodings() {
+    return encodings;
+  }
+
+  /**
+   * Retrieves the tile identifiers of the block.
+   *
+   * @return A read-only view of the tile identifiers, row after row.
+   */
+  ByteBuffer tiles() {
+    return tiles.asReadOnlyBuffer();
+  }
+
+  /**
+   * Places the case of every tile of the block in the grid. The tiles of a same skin share a
+   * single case, holding the shared ground element of the skin, until something is placed on
+   * them. The rows of large blocks are split between the threads of the common fork/join pool.
+   *
+   * @param grid The grid to fill, with the dimensions of the block.
+   */
+  void fillGrid(MapGrid grid) {
+    Objects.requireNonNull(grid);
+    if (isParallel(tiles.capacity())) {
+      ForkJoinPool.commonPool().invoke(new FillRows(grid, 0, height));
+    } else {
+      fillRows(grid, 0, height);
+    }
+  }
+
+  private void fillRows(MapGrid grid, int startRow, int endRow) {
+    for (int y = startRow; y < endRow; y++) {
+      for (int x = 0; x < width; x++) {
+        int tileId = tiles.get(y * width + x) & 0xFF;
+        grid.setCase(x, y, tileCases.get(tileId));
+      }
+    }
+  }
+
+  /**
+   * Task creating the cases of a range of rows, split in two halves while the range is large enough.
+   */
+  private final class FillRows extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final transient MapGrid grid;
+    private final int startRow;
+    private final int endRow;
+
+    private FillRows(MapGrid grid, int startRow, int endRow) {
+      this.grid = grid;
+      this.startRow = startRow;
+      this.endRow = endRow;
+    }
+
+    @Override
+    protected void compute() {
+      if (endRow - startRow <= rowsPerTask(width)) {
+        fillRows(grid, startRow, endRow);
+        return;
+      }
+      int middle = (startRow + endRow) >>> 1;
+      invokeAll(new FillRows(grid, startRow, middle), new FillRows(grid, middle, endRow));
+    }
+  }
+
+  /**
+   * Checks if the rows of a block of the given size are worth splitting between the threads of
+   * the common fork/join pool.
+   *
+   * @param tileCount The number of tiles of the block.
+   * @return true if the block should be processed in parallel, false otherwise.
+   */
+  private static boolean isParallel(int tileCount) {
+    return tileCount >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+  }
+
+  /**
+   * Computes the minimum number of rows handled by one task, so that a task has enough tiles to
+   * outweigh its scheduling.
+   *
+   * @param width The width of the rows.
+   * @return The minimum number of rows of a task.
+   */
+  private static int rowsPerTask(int width) {
+    return Math.max(1, TILES_PER_TASK / Math.max(1, width));
+  }
+
+  /**
+   * Validates and decodes the rows of a data section.
+   * <p>
+   * Blank lines before the first row and after the last row are ignored, like the indentation
+   * of each row. A row is validated once the next row is known, so that the last row can be
+   * validated with the rules of the last line, and the errors are always reported in line and
+   * column order.
+   * <p>
+   * Small data sections are validated and decoded row by row as they are read. Large ones are
+   * first read entirely, then split in ranges of rows validated and decoded by the common
+   * fork/join pool, and the errors of the ranges are merged in line order.
+   */
+  private static final class RowDecoder {
+    private final int width;
+    private final int height;
+    private final byte[] tiles;
+    private final EncodingTable encodings;
+    private final List<String> rows;
+    private final List<String> errors = new ArrayList<>();
+    private int rowCount = 0;
+    private int pendingBlankRows = 0;
+    private String previousRow;
+
+    private RowDecoder(MapSize size, EncodingTable encodings) {
+      this.width = size.width();
+      this.height = size.height();
+      this.tiles = new byte[Math.multiplyExact(width, height)];
+      this.encodings = encodings;
+      this.rows = isParallel(tiles.length) ? new ArrayList<>(height) : null;
+    }
+
+    private void accept(String line) {
+      String row = line.trim();
+      if (row.isEmpty()) {
+        if (rowCount != 0) {
+          pendingBlankRows++;
+        }
+        return;
+      }
+      for (; pendingBlankRows > 0; pendingBlankRows--) {
+        addRow("");
+      }
+      addRow(row);
+    }
+
+    private void addRow(String row) {
+      if (rows != null) {
+        rows.add(row);
+      } else if (previousRow != null) {
+        processRow(previousRow, rowCount - 1, false, errors);
+      }
+      previousRow = row;
+      rowCount++;
+    }
+
+    /**
+     * Validates a row then decodes its tiles.
+     *
+     * @param row      The trimmed row.
+     * @param rowIndex The index of the row in the data section.
+     * @param lastRow  Whether it is the last row of the data section.
+     * @param errors   The list receiving the error messages of the row.
+     */
+    private void processRow(String row, int rowIndex, boolean lastRow, List<String> errors) {
+      MapValidate.validateCountCol(row, rowIndex + 1, width, errors);
+      if (rowIndex == 0 || lastRow) {
+        MapValidate.validateBorderLine(row, rowIndex + 1, encodings, errors);
+      } else {
+        MapValidate.validateBodyLine(row, rowIndex + 1, encodings, errors);
+      }
+      if (rowIndex < height) {
+        decode(row, rowIndex);
+      }
+    }
+
+    private void decode(String row, int rowIndex) {
+      int offset = rowIndex * width;
+      int length = Math.min(row.length(), width);
+      for (int x = 0; x < length; x++) {
+        int tileId = encodings.skinId(row.charAt(x));
+        if (tileId != EncodingTable.UNKNOWN) {
+          tiles[offset + x] = (byte) tileId;
+        }
+      }
+    }
+
+    /**
+     * Processes the rows that are still pending and prints the errors of the data section.
+     *
+     * @return The number of errors of the data section.
+     */
+    private int finish() {
+      if (rows != null) {
+        errors.addAll(ForkJoinPool.commonPool().invoke(new ProcessRows(0, rows.size())));
+      } else if (previousRow != null) {
+        processRow(previousRow, rowCount - 1, true, errors);
+      }
+      for (String error : errors) {
+        System.out.println(error);
+      }
+      return errors.size() + MapValidate.validateCountLine(rowCount, height);
+    }
+
+    /**
+     * Task processing a range of rows, split in two halves while the range is large enough.
+     */
+    private final class ProcessRows extends RecursiveTask<List<String>> {
+      private static final long serialVersionUID = 1L;
+      private final int start;
+      private final int end;
+
+      private ProcessRows(int start, int end) {
+        this.start = start;
+        this.end = end;
+      }
+
+      @Override
+      protected List<String> compute() {
+        if (end - start <= rowsPerTask(width)) {
+          List<String> rangeErrors = new ArrayList<>();
+          for (int rowIndex = start; rowIndex < end; rowIndex++) {
+            processRow(rows.get(rowIndex), rowIndex, rowIndex == rowCount - 1, rangeErrors);
+          }
+          return rangeErrors;
+        }
+        int middle = (start + end) >>> 1;
+        ProcessRows second = new ProcessRows(middle, end);
+        second.fork();
+        List<String> rangeErrors = new ProcessRows(start, middle).compute();
+        rangeErrors.addAll(second.join());
+        return rangeErrors;
+      }
+    }
+  }
+}
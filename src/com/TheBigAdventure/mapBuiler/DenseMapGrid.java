@@ -0,0 +1,94 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Map grid storing its cases in a single array, row after row.
+ * <p>
+ * The case at (x, y) is stored at index {@code y * width + x}, so reading or writing a case is a
+ * bound check followed by an array access, and iterating over the grid walks the array in order.
+ */
+public final class DenseMapGrid implements MapGrid {
+
+  private final int width;
+  private final int height;
+  private final Case[] cases;
+
+  /**
+   * Constructs an empty grid with the dimensions of the given map size.
+   *
+   * @param size The size of the map.
+   * @throws IllegalArgumentException if the width or the height is negative.
+   */
+  public DenseMapGrid(MapSize size) {
+    Objects.requireNonNull(size);
+    if (size.width() < 0 || size.height() < 0) {
+      throw new IllegalArgumentException("Grid dimensions cant be negative");
+    }
+    this.width = size.width();
+    this.height = size.height();
+    this.cases = new Case[Math.multiplyExact(width, height)];
+  }
+
+  @Override
+  public int width() {
+    return width;
+  }
+
+  @Override
+  public int height() {
+    return height;
+  }
+
+  @Override
+  public Case getCase(int x, int y) {
+    if (!isInside(x, y)) {
+      return null;
+    }
+    return cases[y * width + x];
+  }
+
+  @Override
+  public void setCase(int x, int y, Case caseObj) {
+    if (!isInside(x, y)) {
+      throw new IllegalArgumentException("This position does not exist in the grid\n");
+    }
+    cases[y * width + x] = caseObj;
+  }
+
+  /**
+   * Returns an iterator over the cases of the grid, row by row.
+   *
+   * @return An iterator over the cases that have been set.
+   */
+  @Override
+  public Iterator<Case> iterator() {
+    return new Iterator<>() {
+      private int index = nextIndex(0);
+
+      private int nextIndex(int from) {
+        while (from < cases.length && cases[from] == null) {
+          from++;
+        }
+        return from;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return index < cases.length;
+      }
+
+      @Override
+      public Case next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        Case current = cases[index];
+        index = nextIndex(index + 1);
+        return current;
+      }
+    };
+  }
+}
@@ -9,6 +9,8 @@ import java.util.Random;
 public enum Direction {
   UP, DOWN, LEFT, RIGHT, INIT;
 
+  static final Direction[] MOVES = { UP, DOWN, LEFT, RIGHT };
+
   /**
    * Generates and returns a random Direction enum value.
    *
@@ -22,6 +24,34 @@ public enum Direction {
     return directions[randomIndex];
   }
 
+  /**
+   * Picks a direction of movement from random bits, like getRandomDirection but reproducible.
+   *
+   * @param bits The random bits.
+   * @return UP, DOWN, LEFT or RIGHT.
+   */
+  public static Direction fromRandomBits(long bits) {
+    return MOVES[(int) Math.floorMod(bits, (long) MOVES.length)];
+  }
+
+  /**
+   * Gets the change of x-coordinate of a move in this direction.
+   *
+   * @return -1 for LEFT, 1 for RIGHT, 0 otherwise.
+   */
+  public int deltaX() {
+    return this == LEFT ? -1 : this == RIGHT ? 1 : 0;
+  }
+
+  /**
+   * Gets the change of y-coordinate of a move in this direction.
+   *
+   * @return -1 for UP, 1 for DOWN, 0 otherwise.
+   */
+  public int deltaY() {
+    return this == UP ? -1 : this == DOWN ? 1 : 0;
+  }
+
   /**
    * Converts a string representation of a direction to the corresponding
    * Direction enum.
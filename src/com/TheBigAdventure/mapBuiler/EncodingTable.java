@@ -0,0 +1,124 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compiled form of the encodings section of a map, from the character of a tile to its skin.
+ * <p>
+ * Each skin gets a tile identifier, its index in {@link #skins()}. The identifier 0 is always the
+ * "VOID" skin, used for blank tiles. The identifier of an ASCII character is read from a 128-entry
+ * array, the other characters are looked up in a fallback map, so checking or decoding a character
+ * of the data section never scans the encodings.
+ */
+final class EncodingTable {
+
+  /**
+   * Identifier returned for a character that is not in the encodings section.
+   */
+  static final int UNKNOWN = -1;
+
+  private static final String VOID_SKIN = "VOID";
+  private static final char VOID_CODE = ' ';
+  private static final int MAX_SKINS = 256;
+  private static final int ASCII_SIZE = 128;
+
+  private final List<String> skins;
+  private final String codes;
+  private final int[] asciiIds = new int[ASCII_SIZE];
+  private final Map<Character, Integer> otherIds = new HashMap<>();
+
+  /**
+   * Constructs the table of already numbered skins.
+   *
+   * @param skins The skin of each tile identifier, starting with the "VOID" skin.
+   * @param codes The character of each tile identifier, starting with a blank for the "VOID" skin.
+   * @throws IllegalArgumentException if the skins and the characters do not match or there are too many skins.
+   */
+  EncodingTable(List<String> skins, String codes) {
+    Objects.requireNonNull(skins);
+    Objects.requireNonNull(codes);
+    if (skins.isEmpty() || skins.size() != codes.length() || !skins.get(0).equals(VOID_SKIN)) {
+      throw new IllegalArgumentException("Encodings table is corrupted\n");
+    }
+    if (skins.size() > MAX_SKINS) {
+      throw new IllegalArgumentException("Too many encodings, the maximum is " + (MAX_SKINS - 1));
+    }
+    this.skins = List.copyOf(skins);
+    this.codes = codes;
+    Arrays.fill(asciiIds, UNKNOWN);
+    for (int id = 1; id < codes.length(); id++) {
+      char code = codes.charAt(id);
+      if (code < ASCII_SIZE) {
+        asciiIds[code] = id;
+      } else {
+        otherIds.put(code, id);
+      }
+    }
+  }
+
+  /**
+   * Compiles the encodings section of a map. The skins are numbered in the iteration order of the map.
+   *
+   * @param encodingsMap The validated encodings of the map, from skin to character.
+   * @return The compiled encodings.
+   * @throws IllegalArgumentException if there are too many encodings.
+   */
+  static EncodingTable of(Map<String, String> encodingsMap) {
+    Objects.requireNonNull(encodingsMap);
+    List<String> skins = new ArrayList<>(encodingsMap.size() + 1);
+    StringBuilder codes = new StringBuilder(encodingsMap.size() + 1);
+    skins.add(VOID_SKIN);
+    codes.append(VOID_CODE);
+    for (Map.Entry<String, String> encoding : encodingsMap.entrySet()) {
+      skins.add(encoding.getKey());
+      codes.append(encoding.getValue().charAt(0));
+    }
+    return new EncodingTable(skins, codes.toString());
+  }
+
+  /**
+   * Finds the tile identifier of a character of the data section.
+   *
+   * @param code The character of the data section.
+   * @return The tile identifier of the character, or {@link #UNKNOWN} if it is not in the encodings.
+   */
+  int skinId(char code) {
+    if (code < ASCII_SIZE) {
+      return asciiIds[code];
+    }
+    return otherIds.getOrDefault(code, UNKNOWN);
+  }
+
+  /**
+   * Checks if a character belongs to the encodings section.
+   *
+   * @param code The character of the data section.
+   * @return true if the character encodes a skin, false otherwise.
+   */
+  boolean contains(char code) {
+    return skinId(code) != UNKNOWN;
+  }
+
+  /**
+   * Retrieves the skins of the table, including the "VOID" skin.
+   *
+   * @return The skins, indexed by tile identifier.
+   */
+  List<String> skins() {
+    return skins;
+  }
+
+  /**
+   * Retrieves the characters of the table, starting with a blank for the "VOID" skin.
+   *
+   * @return The characters, indexed by tile identifier.
+   */
+  String codes() {
+    return codes;
+  }
+}
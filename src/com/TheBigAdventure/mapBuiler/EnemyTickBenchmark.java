@@ -0,0 +1,263 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import com.TheBigAdventure.characterEntities.ActionType;
+import com.TheBigAdventure.characterEntities.Character;
+
+/**
+ * Benchmark of an enemy movement tick on maps of growing size holding the same enemies.
+ * <p>
+ * A tick moves the live enemies of the map, and only depends on their number. For comparison,
+ * the benchmark also times the scan of the whole grid that used to find the enemies before every
+ * tick, and that grows with the area of the map. The maps are synthetic grass fields written to
+ * a temporary directory, with {@value #ENEMIES} enemies each, all updated at every tick whatever
+ * their distance to the player.
+ * <p>
+ * The benchmark then moves a crowd of enemies filling a map, once with the moves computed in the
+ * calling thread and once with the ForkJoin common pool, from the same seed, checks that both give
+ * the same positions and prints their timings.
+ * <p>
+ * Last, the player crosses a {@value #OPEN_SIDE} by {@value #OPEN_SIDE} open world full of enemies.
+ * The benchmark times the ticks updating every enemy, then the ticks updating only the enemies near
+ * the player, in the calling thread and with the common pool, checks that both give the same
+ * positions and prints the enemies of each band.
+ * <p>
+ * Usage: {@code java -Xmx2g -cp out com.TheBigAdventure.mapBuiler.EnemyTickBenchmark}
+ */
+final class EnemyTickBenchmark {
+
+  private static final int[] SIDES = { 64, 256, 1024, 2048 };
+  private static final int ENEMIES = 64;
+  private static final int TICKS = 200;
+  private static final int RUNS = 5;
+  private static final int CROWD_SIDE = 512;
+  private static final int CROWD_SPACING = 4;
+  private static final int CROWD_TICKS = 50;
+  private static final long SEED = 42;
+  private static final int OPEN_SIDE = 2048;
+  private static final int OPEN_SPACING = 8;
+  private static final int OPEN_TICKS = 40;
+  private static final int PLAYER_STRIDE = 8;
+
+  private EnemyTickBenchmark() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    Path directory = Files.createTempDirectory("enemy-tick");
+    try {
+      for (int side : SIDES) {
+        Path mapPath = directory.resolve("field" + side + ".map");
+        Files.writeString(mapPath, fieldMap(side, (side - 4) / (int) Math.ceil(Math.sqrt(ENEMIES)), ENEMIES, side - 2));
+        try {
+          GameMap gameMap = GameMap.initMap(mapPath.toString());
+          gameMap.setInterestRadii(Integer.MAX_VALUE, Integer.MAX_VALUE);
+          run(side, gameMap);
+        } finally {
+          Files.deleteIfExists(mapPath);
+          Files.deleteIfExists(BinaryMap.compiledPath(mapPath));
+        }
+      }
+      Path crowdPath = directory.resolve("crowd.map");
+      Files.writeString(crowdPath, fieldMap(CROWD_SIDE, CROWD_SPACING, Integer.MAX_VALUE, CROWD_SIDE - 2));
+      try {
+        compareExecutors(crowdPath);
+      } finally {
+        Files.deleteIfExists(crowdPath);
+        Files.deleteIfExists(BinaryMap.compiledPath(crowdPath));
+      }
+      Path openPath = directory.resolve("open.map");
+      Files.writeString(openPath, fieldMap(OPEN_SIDE, OPEN_SPACING, Integer.MAX_VALUE, OPEN_SPACING));
+      try {
+        compareInterest(openPath);
+      } finally {
+        Files.deleteIfExists(openPath);
+        Files.deleteIfExists(BinaryMap.compiledPath(openPath));
+      }
+    } finally {
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  /**
+   * Times the ticks of a map then prints them.
+   *
+   * @param side    The width and height of the map.
+   * @param gameMap The map.
+   */
+  private static void run(int side, GameMap gameMap) {
+    long tickNanos = Long.MAX_VALUE;
+    long scanNanos = Long.MAX_VALUE;
+    int found = 0;
+    for (int i = 0; i < RUNS; i++) {
+      tickNanos = Math.min(tickNanos, timeTicks(gameMap));
+      long start = System.nanoTime();
+      found = scanEnemies(gameMap);
+      scanNanos = Math.min(scanNanos, System.nanoTime() - start);
+    }
+    System.out.printf("%4d x %-4d %,10d tiles %3d live enemies (%3d on the grid)  tick %8.3f us  grid scan %10.3f us%n",
+        side, side, side * side, gameMap.getLiveEnemies().size(), found, tickNanos / 1e3, scanNanos / 1e3);
+  }
+
+  /**
+   * Moves the crowd of a map in the calling thread then with the common pool, and compares them.
+   *
+   * @param mapPath The path of the map of the crowd.
+   * @throws IOException If an I/O error occurs loading the map.
+   * @throws IllegalStateException if both executors do not give the same positions.
+   */
+  private static void compareExecutors(Path mapPath) throws IOException {
+    GameMap sequential = GameMap.initMap(mapPath.toString());
+    sequential.setAiExecutor(null);
+    long sequentialNanos = timeCrowd(sequential);
+    GameMap parallel = GameMap.initMap(mapPath.toString());
+    parallel.setAiExecutor(ForkJoinPool.commonPool());
+    long parallelNanos = timeCrowd(parallel);
+
+    List<Character> expected = sequential.getLiveEnemies();
+    List<Character> actual = parallel.getLiveEnemies();
+    for (int i = 0; i < expected.size(); i++) {
+      if (!expected.get(i).getPosition().equals(actual.get(i).getPosition())) {
+        throw new IllegalStateException("Enemy " + i + " is at " + actual.get(i).getPosition()
+            + " instead of " + expected.get(i).getPosition());
+      }
+    }
+    System.out.printf("crowd of %,d enemies, %d ticks: same positions, calling thread %8.3f ms  common pool (%d threads) %8.3f ms per tick%n",
+        expected.size(), CROWD_TICKS, sequentialNanos / 1e6, ForkJoinPool.getCommonPoolParallelism(), parallelNanos / 1e6);
+  }
+
+  /**
+   * Moves the enemies of an open world while the player crosses it, updating every enemy then only
+   * the enemies near the player, and compares the executors of the second case.
+   *
+   * @param mapPath The path of the map of the open world.
+   * @throws IOException If an I/O error occurs loading the map.
+   * @throws IllegalStateException if both executors do not give the same positions.
+   */
+  private static void compareInterest(Path mapPath) throws IOException {
+    GameMap everywhere = GameMap.initMap(mapPath.toString());
+    everywhere.setAiExecutor(null);
+    everywhere.setInterestRadii(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    long everywhereNanos = timeCrossing(everywhere);
+    GameMap sequential = GameMap.initMap(mapPath.toString());
+    sequential.setAiExecutor(null);
+    long sequentialNanos = timeCrossing(sequential);
+    GameMap parallel = GameMap.initMap(mapPath.toString());
+    parallel.setAiExecutor(ForkJoinPool.commonPool());
+    long parallelNanos = timeCrossing(parallel);
+
+    List<Character> expected = sequential.getLiveEnemies();
+    List<Character> actual = parallel.getLiveEnemies();
+    for (int i = 0; i < expected.size(); i++) {
+      if (!expected.get(i).getPosition().equals(actual.get(i).getPosition())) {
+        throw new IllegalStateException("Enemy " + i + " is at " + actual.get(i).getPosition()
+            + " instead of " + expected.get(i).getPosition());
+      }
+    }
+    InterestStats stats = sequential.getInterestStats();
+    System.out.printf("open world of %,d enemies, %d ticks: every enemy %8.3f ms  near the player: calling thread %8.3f ms  common pool %8.3f ms per tick, same positions%n",
+        expected.size(), OPEN_TICKS, everywhereNanos / 1e6, sequentialNanos / 1e6, parallelNanos / 1e6);
+    System.out.printf("last tick: %,d active, %,d reduced, %,d sleeping; %,.0f updates per tick instead of %,.0f%n",
+        stats.active(), stats.reduced(), stats.sleeping(), stats.updates() / (double) stats.ticks(),
+        everywhere.getInterestStats().updates() / (double) everywhere.getInterestStats().ticks());
+  }
+
+  /**
+   * Moves the enemies of a map while the player walks along its diagonal.
+   *
+   * @return The average duration of a tick, in nanoseconds.
+   */
+  private static long timeCrossing(GameMap gameMap) {
+    gameMap.setAiSeed(SEED);
+    long nanos = 0;
+    for (int i = 0; i < OPEN_TICKS; i++) {
+      gameMap.setPlayerPosition(new Position(1 + i * PLAYER_STRIDE, 1 + i * PLAYER_STRIDE));
+      long start = System.nanoTime();
+      gameMap.updateEnemiesMouvements();
+      nanos += System.nanoTime() - start;
+      gameMap.getCasesToReDraw().clear();
+    }
+    return nanos / OPEN_TICKS;
+  }
+
+  private static long timeCrowd(GameMap gameMap) {
+    gameMap.setAiSeed(SEED);
+    long start = System.nanoTime();
+    for (int i = 0; i < CROWD_TICKS; i++) {
+      gameMap.updateEnemiesMouvements();
+      gameMap.getCasesToReDraw().clear();
+    }
+    return (System.nanoTime() - start) / CROWD_TICKS;
+  }
+
+  private static long timeTicks(GameMap gameMap) {
+    long start = System.nanoTime();
+    for (int i = 0; i < TICKS; i++) {
+      gameMap.updateEnemiesMouvements();
+      gameMap.getCasesToReDraw().clear();
+    }
+    return (System.nanoTime() - start) / TICKS;
+  }
+
+  /**
+   * Counts the enemies of a map by scanning its grid, as the enemies were found before every tick.
+   *
+   * @param gameMap The map.
+   * @return The number of cases holding an enemy.
+   */
+  private static int scanEnemies(GameMap gameMap) {
+    MapGrid grid = gameMap.getGrid();
+    int enemies = 0;
+    for (int y = 0; y < grid.height(); y++) {
+      for (int x = 0; x < grid.width(); x++) {
+        Case aCase = grid.getCase(x, y);
+        if (aCase != null && aCase.getCaseState().equals(ActionType.CONTAINS_ENEMY)) {
+          enemies++;
+        }
+      }
+    }
+    return enemies;
+  }
+
+  /**
+   * Builds the text of a square grass field surrounded by walls, with a player and enemies spread
+   * on a regular grid.
+   *
+   * @param side    The width and height of the map.
+   * @param spacing The distance between two neighbour enemies.
+   * @param enemies The largest number of enemies, limited by the room on the map.
+   * @param zone    The width and height of the zone of an enemy, from its position.
+   * @return The text of the map.
+   */
+  private static String fieldMap(int side, int spacing, int enemies, int zone) {
+    StringBuilder builder = new StringBuilder(side * (side + 3) + 4096);
+    builder.append("[grid]\n  encodings: GRASS(g) WALL(W)\n");
+    builder.append("  size: (").append(side).append(" x ").append(side).append(")\n");
+    builder.append("  data: \"\"\"\n");
+    for (int y = 0; y < side; y++) {
+      builder.append("  ");
+      for (int x = 0; x < side; x++) {
+        boolean border = y == 0 || y == side - 1 || x == 0 || x == side - 1;
+        builder.append(border ? 'W' : 'g');
+      }
+      builder.append('\n');
+    }
+    builder.append("  \"\"\"\n\n");
+    builder.append("[element]\n  name: fluffy\n  player: true\n  skin: BABA\n  position: (1,1)\n  health: 10\n\n");
+    int columns = (side - 4) / spacing + 1;
+    int count = Math.min(enemies, columns * columns);
+    for (int i = 0; i < count; i++) {
+      int x = 2 + (i % columns) * spacing;
+      int y = 2 + (i / columns) * spacing;
+      builder.append("[element]\n  name: monster").append(i).append("\n  skin: MONSTER\n")
+             .append("  position: (").append(x).append(", ").append(y).append(")\n  kind: enemy\n")
+             .append("  health: 10\n  zone: (1, 1) (").append(zone).append(" x ").append(zone).append(")\n")
+             .append("  behavior: stroll\n  damage: 5\n\n");
+    }
+    return builder.toString();
+  }
+}
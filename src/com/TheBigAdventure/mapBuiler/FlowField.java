@@ -0,0 +1,143 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The first step of a shortest path toward a goal from every tile around it, on a
+ * {@link NavigationGrid}.
+ * <p>
+ * The field is computed by one breadth-first search from the goal, limited to the tiles within a
+ * radius of steps: every tile reached stores the direction of the tile it was reached from. Any
+ * number of characters walking to the goal then find their next step with one read of an array,
+ * instead of a search each. The goal tile is walked through even if it is not navigable, as it
+ * holds the character being chased.
+ * <p>
+ * With moves of cost one, the goal moving by one tile can change the distance of every tile of the
+ * field, so the field is not repaired but computed again, in a time bounded by the radius rather
+ * than by the map. It is computed only when the goal or the navigation grid changed since the
+ * previous computation. The tiles reached are kept in the queue of the search, so only those are
+ * cleared before the next computation.
+ */
+final class FlowField {
+
+  private static final byte NO_STEP = 0;
+
+  private final NavigationGrid navigation;
+  private final int width;
+  private final int height;
+  private final int radius;
+  private final byte[] steps;
+  private int[] queue = new int[256];
+  private int reached;
+  private int goal = -1;
+  private int version;
+  private long computations;
+
+  /**
+   * Constructs an empty flow field on a navigation grid.
+   *
+   * @param navigation The navigation grid of the map.
+   * @param radius     The largest number of steps between the goal and a tile of the field.
+   * @throws NullPointerException if navigation is null.
+   * @throws IllegalArgumentException if radius is negative.
+   */
+  FlowField(NavigationGrid navigation, int radius) {
+    this.navigation = Objects.requireNonNull(navigation);
+    if (radius < 0) {
+      throw new IllegalArgumentException("The radius of a flow field cannot be negative\n");
+    }
+    this.width = navigation.width();
+    this.height = navigation.height();
+    this.radius = radius;
+    this.steps = new byte[width * height];
+  }
+
+  /**
+   * Points the field to a goal, computing it again if the goal or the navigation grid changed.
+   *
+   * @param goalX The x-coordinate of the goal.
+   * @param goalY The y-coordinate of the goal.
+   * @throws IndexOutOfBoundsException if the goal is outside the map.
+   */
+  void update(int goalX, int goalY) {
+    Objects.checkIndex(goalX, width);
+    Objects.checkIndex(goalY, height);
+    int newGoal = goalY * width + goalX;
+    if (newGoal == goal && version == navigation.version()) {
+      return;
+    }
+    goal = newGoal;
+    version = navigation.version();
+    computations++;
+    for (int i = 0; i < reached; i++) {
+      steps[queue[i]] = NO_STEP;
+    }
+    reached = 0;
+    enqueue(goal);
+    int head = 0;
+    for (int distance = 0; distance < radius && head < reached; distance++) {
+      for (int layerEnd = reached; head < layerEnd; head++) {
+        expand(queue[head]);
+      }
+    }
+  }
+
+  /**
+   * Adds the navigable neighbours of a tile that are not in the field yet.
+   */
+  private void expand(int tile) {
+    int x = tile % width;
+    int y = tile / width;
+    for (int move = 0; move < Direction.MOVES.length; move++) {
+      int neighbourX = x + Direction.MOVES[move].deltaX();
+      int neighbourY = y + Direction.MOVES[move].deltaY();
+      if (!navigation.isNavigable(neighbourX, neighbourY)) {
+        continue;
+      }
+      int neighbour = neighbourY * width + neighbourX;
+      if (steps[neighbour] != NO_STEP || neighbour == goal) {
+        continue;
+      }
+      // The neighbour walks back along the move, to the opposite direction: UP and DOWN, LEFT and RIGHT.
+      steps[neighbour] = (byte) ((move ^ 1) + 1);
+      enqueue(neighbour);
+    }
+  }
+
+  /**
+   * Gets the first step toward the goal from a tile.
+   *
+   * @param tile The index of the tile, y * width + x.
+   * @return The direction to walk to, or null if the tile is the goal or is not in the field.
+   */
+  Direction step(int tile) {
+    byte step = steps[tile];
+    return step == NO_STEP ? null : Direction.MOVES[step - 1];
+  }
+
+  /**
+   * Gets the number of tiles of the field, the goal included.
+   *
+   * @return The number of tiles reached by the last computation.
+   */
+  int size() {
+    return reached;
+  }
+
+  /**
+   * Gets the number of computations of the field since it was built.
+   *
+   * @return The number of computations.
+   */
+  long computations() {
+    return computations;
+  }
+
+  private void enqueue(int tile) {
+    if (reached == queue.length) {
+      queue = Arrays.copyOf(queue, 2 * reached);
+    }
+    queue[reached++] = tile;
+  }
+}
@@ -1,19 +1,39 @@
 package com.TheBigAdventure.mapBuiler;
 
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.time.Instant;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 import com.TheBigAdventure.characterEntities.ActionType;
 import com.TheBigAdventure.characterEntities.Character;
+import com.TheBigAdventure.characterEntities.Enemy;
+import com.TheBigAdventure.characterEntities.EnemyBehavior;
 import com.TheBigAdventure.graphic.Graph;
+import com.TheBigAdventure.graphic.RenderStats;
+import com.TheBigAdventure.graphic.TerrainCache;
+import com.TheBigAdventure.usableEntities.InsideInventory;
 
 /**
  * Represents the game map with all game data organized by specific positions.
@@ -21,9 +41,9 @@ import com.TheBigAdventure.graphic.Graph;
 public final class GameMap {
 
   private final MapSize size;
-  private final Map<Position, Case> grid;
-  private final ArrayList<Case> casesToReDraw;
-  private final Map<String,BufferedImage> picturesInMap;
+  private final MapGrid grid;
+  private final Set<Position> casesToReDraw;
+  private final CompletableFuture<Map<String,BufferedImage>> picturesInMap;
   private final Position playerPosition = new Position (0,0);
   private final Map<String,Double> mapScale;
   private final Map<String,Integer> mapInventoryDimensions;
@@ -32,25 +52,67 @@ public final class GameMap {
   private int   inventoryCursorIndexPosition = 0;
   private final Position inventoryPosition = new Position (0,0);
   private boolean mapDrawed = false;
-  private Instant lastMonsterEvent;
-  private static final long MONSTERINTERVAL = 1;
+  private long nanosSinceMonsterEvent;
+  private TerrainCache terrainCache;
+  private AffineTransform cameraTransform;
+  private final RenderStats renderStats = new RenderStats();
+  private final List<Character> liveEnemies = new ArrayList<>();
+  private final Map<Character, Integer> enemyIds = new IdentityHashMap<>();
+  private int[] liveEnemyIds = new int[16];
+  private final List<WalkableZone> liveEnemyZones = new ArrayList<>();
+  private boolean enemyZonesBuilt;
+  private int nextEnemyId;
+  private long aiSeed = System.nanoTime();
+  private long aiTick;
+  private Executor aiExecutor = ForkJoinPool.commonPool();
+  private BitSet reservedTiles;
+  private int[] intentTargets = new int[0];
+  private Direction[] intentDirections = new Direction[0];
+  private NavigationGrid navigationGrid;
+  private PathFinder pathFinder;
+  private FlowField flowField;
+  private HierarchicalPathFinder hierarchicalPathFinder;
+  private int liveChasers;
+  private final InterestStats interestStats = new InterestStats();
+  private int activeRadius = ACTIVE_RADIUS;
+  private int reducedRadius = REDUCED_RADIUS;
+  private int[] tickedEnemies = new int[0];
+  private int tickedCount;
+  private int activeCount;
+  private int reducedCount;
+  private long interestTick;
+  private final SpatialIndex.Visitor<Character> interestVisitor = this::selectEnemy;
+  private final SpatialIndex<Character> characterIndex;
+  private final SpatialIndex<InsideInventory> itemIndex;
+  private static final long MONSTERINTERVAL = 1_000_000_000L;
+  private static final int PARALLEL_AI_THRESHOLD = 512;
+  private static final int AI_CHUNK = 256;
+  private static final int FLOW_FIELD_RADIUS = 64;
+  private static final int HIERARCHICAL_PATH_TILES = 1024 * 1024;
+  private static final int CLUSTER_SIZE = 32;
+  private static final int ACTIVE_RADIUS = 128;
+  private static final int REDUCED_RADIUS = 256;
+  private static final int REDUCED_INTERVAL = 4;
 
 
   /**
    * Constructs a GameMap with the specified grid layout.
    *
    * @param grid The initial grid layout of the game map.
+   * @param size The size of the game map.
+   * @param mapImages The images of the skins used in the map, available once they are decoded.
    */
-  protected GameMap(Map<Position, Case> grid, MapSize size,Map<String, BufferedImage> mapImages) {
+  protected GameMap(MapGrid grid, MapSize size,CompletableFuture<Map<String, BufferedImage>> mapImages) {
     this.grid = grid;
+    this.characterIndex = new SpatialIndex<>(size.width(), size.height());
+    this.itemIndex = new SpatialIndex<>(size.width(), size.height());
     this.size = size;
     this.picturesInMap=mapImages;
-    this.casesToReDraw   = new ArrayList<>();
+    this.casesToReDraw   = new LinkedHashSet<>();
     this.mapScale = new HashMap<>();
     this.mapInventoryDimensions = new HashMap<>();
     this.inventoryIndexPositions = new HashMap<>();
     this.drawedObjectsInfo = new HashMap<>();
-    this.lastMonsterEvent = Instant.now();
     
     drawedObjectsInfo.put("InventoryDrawed",false);
     drawedObjectsInfo.put("DrawInventory",false);
@@ -63,18 +125,74 @@ public final class GameMap {
    *
    * @return The grid of the game map.
    */
-  public final Map<Position, Case> getGrid() {
+  public final MapGrid getGrid() {
     return grid;
   }
 
   /**
-   * Adds or updates a case at a specific position in the game map.
+   * Adds or updates a case at a specific position in the game map, and marks the position to be
+   * redrawn. The navigation grid of the pathfinding is updated, with the clusters of the hierarchical
+   * pathfinding around the position if it becomes navigable or stops being so, as a door opening.
+   * If the environnement entity of the position changes, the cached ground of the map and the
+   * walkable zones of the enemies are updated.
    *
    * @param position The position to add or update the case.
    * @param caseObj  The Case object to place at this position.
    */
-  protected final void setCaseAt(Position position, Case caseObj) {
-    grid.put(position, caseObj);
+  public final void setCaseAt(Position position, Case caseObj) {
+    Case previousCase = grid.getCase(position);
+    grid.setCase(position, caseObj);
+    markToReDraw(position);
+    if (navigationGrid != null && navigationGrid.update(position.getX(), position.getY(), caseObj)
+        && hierarchicalPathFinder != null) {
+      hierarchicalPathFinder.tileChanged(position.getX(), position.getY());
+    }
+    if (previousCase == null) {
+      return;
+    }
+    if (previousCase.getCharacter().isPresent() || caseObj.getCharacter().isPresent()) {
+      markCharacterToReDraw(position);
+    }
+    if (!Objects.equals(previousCase.getEnvironnement(), caseObj.getEnvironnement())) {
+      if (terrainCache != null) {
+        terrainCache.invalidate(position);
+      }
+      for (WalkableZone zone : liveEnemyZones) {
+        if (zone != null) {
+          zone.update(position.getX(), position.getY(), caseObj);
+        }
+      }
+    }
+  }
+
+  /**
+   * Marks a position of the map to be redrawn by the next frame.
+   *
+   * @param position The position to redraw, ignored if it is outside the map.
+   * @throws NullPointerException if position is null.
+   */
+  public final void markToReDraw(Position position) {
+    Objects.requireNonNull(position);
+    if (grid.isInside(position)) {
+      casesToReDraw.add(new Position(position.getX(), position.getY()));
+    }
+  }
+
+  /**
+   * Marks the positions covered by the drawing of a character to be redrawn by the next frame:
+   * its own tile and the one on its right, both reached by its health drawn above it, the two tiles above it
+   * holding its health and the tile on its left holding the item in its hand.
+   *
+   * @param position The position of the character.
+   * @throws NullPointerException if position is null.
+   */
+  public final void markCharacterToReDraw(Position position) {
+    Objects.requireNonNull(position);
+    markToReDraw(position);
+    markToReDraw(new Position(position.getX(), position.getY() - 1));
+    markToReDraw(new Position(position.getX() + 1, position.getY() - 1));
+    markToReDraw(new Position(position.getX() - 1, position.getY()));
+    markToReDraw(new Position(position.getX() + 1, position.getY()));
   }
 
   /**
@@ -84,18 +202,18 @@ public final class GameMap {
    * @return The case at the specified position, or null if no case is present.
    */
   public final Case getCaseAt(Position position) {
-    return grid.get(position);
+    return grid.getCase(position);
   }
 
   /**
    * Checks if the given position is valid and walkable on the map.
    *
    * @param position The position to check.
-   * @param grid     The grid of the game map.
    * @return true if the position is valid and walkable, false otherwise.
    */
-  private final  boolean isValidPosition(Position position, Map<Position, Case> grid) {
-    return grid.containsKey(position) && grid.get(position).isWalkable();
+  private final boolean isValidPosition(Position position) {
+    Case gridCase = grid.getCase(position);
+    return gridCase != null && gridCase.isWalkable();
   }
 
   /**
@@ -117,7 +235,7 @@ public final class GameMap {
    * @param currentPos The current position of the player.
    * @param stringPos The position for additional information (optional).
    */
-  private final void updatePlayerMovement(Map<Position, Case> grid,Position newPos,Position currentPos,Position stringPos) {
+  private final void updatePlayerMovement(MapGrid grid,Position newPos,Position currentPos,Position stringPos) {
     setPlayerPosition(newPos);
 
   }
@@ -130,13 +248,14 @@ public final class GameMap {
    * @param currentPos The current position of the entity.
    * @param entity    The entity to update.
    */
-  private final void updateEntityPosition(Map<Position, Case> grid,Position newPos,Position currentPos,Character entity) {
+  private final void updateEntityPosition(MapGrid grid,Position newPos,Position currentPos,Character entity) {
     entity.setPosition(newPos);
-    Case updatedCurrentCase = updateCaseWithEntity(grid.get(currentPos), null);
-    grid.put(currentPos, updatedCurrentCase);
+    characterIndex.insert(entity, newPos);
+    Case updatedCurrentCase = updateCaseWithEntity(grid.getCase(currentPos), null);
+    setCaseAt(currentPos, updatedCurrentCase);
 
-    Case updatedNewCase = updateCaseWithEntity(grid.get(newPos), entity);
-    grid.put(newPos, updatedNewCase);
+    Case updatedNewCase = updateCaseWithEntity(grid.getCase(newPos), entity);
+    setCaseAt(newPos, updatedNewCase);
   }
   
   /**
@@ -153,7 +272,7 @@ public final class GameMap {
     Position newPosition = currentPosition.calculateNewPosition(direction);
     Position stringPos = new Position(playerPosition.getX(),playerPosition.getY()-1);
     
-    if (isValidPosition(newPosition, grid)) {
+    if (isValidPosition(newPosition)) {
       updateEntityPosition(grid, newPosition, currentPosition, entity);
       if(entity.isPlayer()) updatePlayerMovement(grid, newPosition, currentPosition, stringPos); 
       
@@ -234,11 +353,11 @@ public final class GameMap {
     Objects.requireNonNull(position);
     Objects.requireNonNull(object);
     Objects.requireNonNull(updater);
-    Case gridCase = grid.get(position);
+    Case gridCase = grid.getCase(position);
 
     if (gridCase != null) {
         Case updatedCase = updater.update(gridCase, object);
-        grid.put(position, updatedCase);
+        setCaseAt(position, updatedCase);
     } else {
         throw new IllegalArgumentException("This position does not exist in the grid\n");
     }
@@ -250,39 +369,58 @@ public final class GameMap {
    *
    * @param imgName The name of the image to load.
    * @return The loaded BufferedImage.
-   * @throws IOException If an I/O error occurs during image loading.
+   * @throws UncheckedIOException If an I/O error occurs during image loading.
    */
-  private static final BufferedImage getImageFromFile(String imgName ) throws IOException {
+  private static final BufferedImage getImageFromFile(String imgName ) {
     BufferedImage img;
     String pathToImg;
     pathToImg = "/img/" + imgName + ".png";
     
-    img = Graph.loadImage(pathToImg);
-    
+    try {
+      img = Graph.loadImage(pathToImg);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Image " + pathToImg + " cant be read", e);
+    }
     
     return img;
     
   }
   
   /**
-   * Initializes a map of BufferedImages from a list of ObjectFromSkin instances.
+   * Starts decoding the images of the skins of a list of ObjectFromSkin instances and of the data section.
+   * Each image is decoded by a task of a pool of daemon threads, so that the images are decoded while the
+   * grid of the map is built.
    *
-   * @param objects The list of ObjectFromSkin instances.
-   * @return A map associating object skins with their corresponding BufferedImages.
-   * @throws IOException If an I/O error occurs during image loading.
+   * @param objects   The list of ObjectFromSkin instances.
+   * @param dataSkins The skins used by the tiles of the data section.
+   * @return A future of the map associating object skins with their corresponding BufferedImages,
+   *         completed when every image is decoded.
    */
-  private static final Map<String, BufferedImage> initImagesMap(List<ObjectFromSkin> objects) throws IOException {
-    Map<String, BufferedImage> imagesMap = new HashMap<>();
-
+  private static final CompletableFuture<Map<String, BufferedImage>> initImagesMap(List<ObjectFromSkin> objects, List<String> dataSkins) {
+    Set<String> imageKeys = new LinkedHashSet<>();
+    for (String skin : dataSkins) {
+        imageKeys.add(SkinRegistry.resolve(skin).imageKey());
+    }
     for (ObjectFromSkin object : objects) {
-        String skin = object.getObjectSkin();
-        if (!imagesMap.containsKey(skin) && !skin.equals("VOID")) {  
-            BufferedImage img = getImageFromFile(skin);
-            imagesMap.put(skin, img);
-        }
+        imageKeys.add(object.getImageKey());
     }
+    imageKeys.remove("VOID");
 
-    return imagesMap;
+    Map<String, BufferedImage> imagesMap = new ConcurrentHashMap<>();
+    int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), imageKeys.size()));
+    ExecutorService decoders = Executors.newFixedThreadPool(threads, task -> {
+      Thread thread = new Thread(task, "image-decoder");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      CompletableFuture<?>[] decodings = imageKeys.stream()
+          .map(imageKey -> CompletableFuture.runAsync(() -> imagesMap.put(imageKey, getImageFromFile(imageKey)), decoders))
+          .toArray(CompletableFuture<?>[]::new);
+      return CompletableFuture.allOf(decodings).thenApply(decoded -> imagesMap);
+    } finally {
+      decoders.shutdown();
+    }
   }
   
   
@@ -290,6 +428,13 @@ public final class GameMap {
 
   /**
    * Initializes and returns the game map grid from a specified file path.
+   * <p>
+   * The map is loaded from its compiled ".bmap" file when it is up to date with the map file.
+   * Otherwise the map file is parsed and validated, then compiled for the next loads.
+   * <p>
+   * The images of the skins start being decoded as soon as the skins of the map are known, while
+   * the grid is built. The map is returned without waiting for them: {@link #awaitPictures()} waits
+   * for the end of the decoding.
    *
    * @param filepath The path to the file used to initialize the map.
    * @return The initialized game map grid.
@@ -300,21 +445,46 @@ public final class GameMap {
     
     LoadObjectsFromMap objectsToLoad;
     MapSize mapSize;
-    Map<Position, Case> grid = new HashMap<>();
-    Map<String, BufferedImage> mapImages = new HashMap<>();
+    MapGrid grid;
+    CompletableFuture<Map<String, BufferedImage>> mapImages;
     List<ObjectFromSkin> objects;
     MapContainer mapContainer;
-    mapContainer = ParseFile.execLexer(filepath);
-    mapSize = new MapSize(mapContainer.mapDimensions()[1],mapContainer.mapDimensions()[0]);
+    mapContainer = loadMapContainer(Path.of(filepath));
     objects = mapContainer.buildAllMapObjects();
-    objectsToLoad = new LoadObjectsFromMap(objects);
+    mapImages = GameMap.initImagesMap(objects, mapContainer.dataBlock().skins());
 
-    mapImages = GameMap.initImagesMap(objects);
+    mapSize = new MapSize(mapContainer.mapDimensions()[1],mapContainer.mapDimensions()[0]);
+    grid = new DenseMapGrid(mapSize);
+    objectsToLoad = new LoadObjectsFromMap(objects);
     GameMap gameMap = new GameMap(grid, mapSize,mapImages);
     
+    mapContainer.dataBlock().fillGrid(grid);
     objectsToLoad.loadObjectsInMap(gameMap);
     return gameMap;
   }
+
+  /**
+   * Reads the content of a map file, from its compiled map if it is up to date, or by parsing
+   * the map file and compiling it otherwise.
+   *
+   * @param mapPath The path of the map file.
+   * @return The content of the map.
+   * @throws IOException If an I/O error occurs reading the map file.
+   */
+  private static MapContainer loadMapContainer(Path mapPath) throws IOException {
+    long sourceHash = BinaryMap.sourceHash(mapPath);
+    MapContainer mapContainer = BinaryMap.load(mapPath, sourceHash);
+    if (mapContainer != null) {
+      return mapContainer;
+    }
+    mapContainer = ParseFile.execLexer(mapPath.toString());
+    try {
+      BinaryMap.save(mapPath, sourceHash, mapContainer);
+    } catch (IOException e) {
+      System.out.println("The compiled map could not be written: " + e.getMessage());
+    }
+    return mapContainer;
+  }
   
   /**
    * Checks the player's position relative to the map boundaries.
@@ -322,16 +492,10 @@ public final class GameMap {
    * @param grid The map grid.
    * @return -1 if the player is near the left boundary, 1 if near the right boundary, 0 otherwise.
    */
-  public int checkPlayerPosition(Map<Position, Case> grid) {
+  public int checkPlayerPosition(MapGrid grid) {
     Objects.requireNonNull(grid);
 
-
-    int maxX = 0;
-    for (Position pos : grid.keySet()) {
-        if (pos.getX() > maxX) {
-            maxX = pos.getX();
-        }
-    }
+    int maxX = grid.width() - 1;
 
    
     if (playerPosition.getX() >= maxX - 5) {
@@ -396,9 +560,7 @@ public final class GameMap {
    * @throws NoSuchElementException if no character is found at the player's position.
    */
   public final Character characterFromMap(GameMap gameMap) {
-    Map<Position, Case> grid;
-    grid =gameMap.getGrid();
-    Optional<Character> optionalChar = grid.get(gameMap.getPlayerPosition()).getCharacter();
+    Optional<Character> optionalChar = gameMap.getCaseAt(gameMap.getPlayerPosition()).getCharacter();
     
     Character character = optionalChar.orElseThrow(() -> new NoSuchElementException("No character found"));
     return character;
@@ -414,12 +576,31 @@ public final class GameMap {
   }
 
   /**
-   * Retrieves the pictures associated with objects in the map.
+   * Retrieves the pictures associated with objects in the map, waiting for their decoding if needed.
    *
    * @return The map of object names to their corresponding images.
+   * @throws UncheckedIOException if an image could not be read.
    */
   public Map<String,BufferedImage> getPicturesInMap() {
-    return picturesInMap;
+    return awaitPictures();
+  }
+
+  /**
+   * Waits until every picture of the map is decoded. Drawing the map needs its pictures, so the
+   * first drawing of the map waits for them.
+   *
+   * @return The map of object names to their corresponding images.
+   * @throws UncheckedIOException if an image could not be read.
+   */
+  public Map<String,BufferedImage> awaitPictures() {
+    try {
+      return picturesInMap.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
   }
   
   /**
@@ -441,11 +622,11 @@ public final class GameMap {
   }
   
   /**
-   * Retrieves the list of cases that need to be redrawn in the game map.
+   * Retrieves the positions of the cases that need to be redrawn in the game map.
    *
-   * @return The list of cases to redraw.
+   * @return The positions of the cases to redraw, in the order they were marked.
    */
-  public ArrayList<Case> getCasesToReDraw() {
+  public Set<Position> getCasesToReDraw() {
     return casesToReDraw;
   }
   
@@ -467,6 +648,60 @@ public final class GameMap {
     this.mapDrawed = mapInitialised;
   }
 
+  /**
+   * Retrieves the cache of the ground of the map, used to draw the map when it is present.
+   *
+   * @return The cache of the ground, or null if the map is drawn tile by tile.
+   */
+  public TerrainCache getTerrainCache() {
+    return terrainCache;
+  }
+
+  /**
+   * Sets the cache of the ground of the map.
+   *
+   * @param terrainCache The cache of the ground, or null to draw the map tile by tile.
+   */
+  public void setTerrainCache(TerrainCache terrainCache) {
+    this.terrainCache = terrainCache;
+  }
+
+  /**
+   * Retrieves the transformation from grid coordinates to screen pixels of the last full drawing of the map.
+   *
+   * @return The transformation of the camera, or null if the map was never drawn.
+   */
+  public AffineTransform getCameraTransform() {
+    return cameraTransform;
+  }
+
+  /**
+   * Sets the transformation from grid coordinates to screen pixels of the last full drawing of the map.
+   *
+   * @param cameraTransform The transformation of the camera.
+   */
+  public void setCameraTransform(AffineTransform cameraTransform) {
+    this.cameraTransform = cameraTransform;
+  }
+
+  /**
+   * Retrieves the counters of the tiles repainted by the frames of the map.
+   *
+   * @return The counters of the frames.
+   */
+  public RenderStats getRenderStats() {
+    return renderStats;
+  }
+
+  /**
+   * Retrieves the counters of the live enemies by band of distance to the player.
+   *
+   * @return The counters of the bands.
+   */
+  public InterestStats getInterestStats() {
+    return interestStats;
+  }
+
   /**
    * Retrieves the scale information for different aspects of the map.
    *
@@ -531,51 +766,455 @@ public final class GameMap {
   }
   
   /**
-   * Retrieves and returns a map of enemy positions and their corresponding cases on the game grid.
+   * Adds an enemy to the live enemies of the map. The enemies are registered when the objects of the
+   * map are loaded, and stay registered until they die; their moves do not change the registry since
+   * their position is kept by the enemies themselves. Each enemy receives an identifier, increasing
+   * in the order of registration, which gives its priority when enemies compete for a tile.
    *
-   * @return A map containing enemy positions as keys and their associated cases as values.
+   * @param enemy The enemy to register.
+   * @throws NullPointerException if enemy is null.
+   * @throws IllegalArgumentException if the character is not an enemy.
    */
-  protected Map<Position, Case> getEnemies() {
-      Map<Position, Case> enemies = new HashMap<>();
-      for (Map.Entry<Position, Case> entry : grid.entrySet()) {
-          Position position = entry.getKey();
-          Case aCase = entry.getValue();
-          if (aCase.getCaseState().equals(ActionType.CONTAINS_ENEMY)) {
-              enemies.put(position, aCase);
-          }
+  protected final void registerEnemy(Character enemy) {
+    Objects.requireNonNull(enemy);
+    if (!enemy.isEnemy()) {
+      throw new IllegalArgumentException("Only enemies can be registered as live enemies\n");
+    }
+    if (!enemyIds.containsKey(enemy)) {
+      int id = nextEnemyId++;
+      enemyIds.put(enemy, id);
+      if (liveEnemies.size() == liveEnemyIds.length) {
+        liveEnemyIds = Arrays.copyOf(liveEnemyIds, 2 * liveEnemyIds.length);
+      }
+      liveEnemyIds[liveEnemies.size()] = id;
+      liveEnemies.add(enemy);
+      liveEnemyZones.add(enemyZonesBuilt ? zoneOf(enemy) : null);
+      if (isChaser(enemy)) {
+        liveChasers++;
       }
-      return enemies;
+    }
+  }
+
+  /**
+   * Removes a dead enemy from the live enemies of the map. The other enemies keep their order.
+   *
+   * @param enemy The enemy to remove.
+   * @throws NullPointerException if enemy is null.
+   */
+  public final void unregisterEnemy(Character enemy) {
+    Objects.requireNonNull(enemy);
+    Integer id = enemyIds.remove(enemy);
+    if (id == null) {
+      return;
+    }
+    int index = Arrays.binarySearch(liveEnemyIds, 0, liveEnemies.size(), id);
+    liveEnemies.remove(index);
+    liveEnemyZones.remove(index);
+    if (isChaser(enemy)) {
+      liveChasers--;
+    }
+    System.arraycopy(liveEnemyIds, index + 1, liveEnemyIds, index, liveEnemies.size() - index);
+  }
+
+  /**
+   * Builds the walkable zones of the registered enemies, once the objects of the map are loaded. The
+   * enemies registered later get their zone when they are registered.
+   */
+  protected final void buildEnemyZones() {
+    for (int i = 0; i < liveEnemies.size(); i++) {
+      if (liveEnemyZones.get(i) == null) {
+        liveEnemyZones.set(i, zoneOf(liveEnemies.get(i)));
+      }
+    }
+    enemyZonesBuilt = true;
+  }
+
+  /**
+   * Builds the walkable zone of an enemy, from the bounds of the zone read in the map file.
+   *
+   * @param enemy The enemy.
+   * @return The walkable zone of the enemy, or null if the enemy is not bound to a zone.
+   */
+  private WalkableZone zoneOf(Character enemy) {
+    if (enemy instanceof Enemy zoned) {
+      return new WalkableZone(zoned.getMinZoneWidth(), zoned.getMinZoneHeight(),
+          zoned.getMaxZoneWidth(), zoned.getMaxZoneHeight(), grid);
+    }
+    return null;
+  }
+
+  /**
+   * Retrieves the index of the characters of the map by position. The characters are added when the
+   * objects of the map are loaded, moved with them, and removed when they die.
+   *
+   * @return The spatial index of the characters.
+   */
+  public SpatialIndex<Character> getCharacterIndex() {
+    return characterIndex;
+  }
+
+  /**
+   * Retrieves the index of the items lying on the map by position. The items are added when the
+   * objects of the map are loaded, and removed when they are picked up.
+   *
+   * @return The spatial index of the items.
+   */
+  public SpatialIndex<InsideInventory> getItemIndex() {
+    return itemIndex;
+  }
+
+  /**
+   * Retrieves the enemies of the map that are still alive.
+   *
+   * @return An unmodifiable view of the live enemies.
+   */
+  public List<Character> getLiveEnemies() {
+    return Collections.unmodifiableList(liveEnemies);
   }
   
   
   
   /**
-   * Updates the movements of enemy characters on the game grid.
-   * This method selects a random direction for each enemy and attempts to move them accordingly.
-   * If no character is found in a case, it throws a NoSuchElementException.
+   * Sets the seed of the random moves of the enemies. Two maps loaded from the same file with the
+   * same seed move their enemies the same way, whatever the executor of their moves.
+   *
+   * @param seed The seed of the moves.
+   */
+  public void setAiSeed(long seed) {
+    this.aiSeed = seed;
+    this.aiTick = 0;
+  }
+
+  /**
+   * Sets the executor computing the moves of the enemies, the ForkJoin common pool by default.
+   *
+   * @param executor The executor of the moves, or null to compute them in the calling thread.
+   */
+  public void setAiExecutor(Executor executor) {
+    this.aiExecutor = executor;
+  }
+
+  /**
+   * Sets the radii of the bands of the enemies around the player, in Manhattan distance. The enemies
+   * within the active radius move at every tick, the enemies within the reduced radius move once
+   * every {@value #REDUCED_INTERVAL} ticks, and the others sleep. The radii are
+   * {@value #ACTIVE_RADIUS} and {@value #REDUCED_RADIUS} by default.
+   *
+   * @param activeRadius  The largest distance of the active enemies.
+   * @param reducedRadius The largest distance of the reduced enemies.
+   * @throws IllegalArgumentException if activeRadius is negative or reducedRadius is less than activeRadius.
+   */
+  public void setInterestRadii(int activeRadius, int reducedRadius) {
+    if (activeRadius < 0 || reducedRadius < activeRadius) {
+      throw new IllegalArgumentException("The reduced radius must be at least the active radius, which cant be negative\n");
+    }
+    this.activeRadius = activeRadius;
+    this.reducedRadius = reducedRadius;
+  }
+
+  /**
+   * Updates the movements of enemy characters on the game grid, in two phases.
+   * <p>
+   * Only the enemies near the player are updated: the enemies of the active band at every tick, the
+   * enemies of the reduced band at one tick out of {@value #REDUCED_INTERVAL}, and the enemies beyond
+   * sleep. The band of an enemy only depends on its distance to the player at the start of the tick,
+   * so an enemy crossing to another band costs nothing, and the ticks of the reduced band are
+   * staggered by the identifiers of the enemies. The enemies to update are found in the index of the
+   * characters, so the sleeping enemies are not even visited.
+   * <p>
+   * First, each updated enemy picks a random free neighbour tile of its walkable zone. The grid is not
+   * modified during this phase, so it is a read-only snapshot shared by the enemies, and large crowds
+   * are split in chunks computed by the executor. The choice of an enemy only depends on the seed, the
+   * tick, the identifier of the enemy and the snapshot. The enemies chasing the player read their
+   * next step in the flow field toward the player, computed before the phase. The chasing enemies
+   * beyond the field then search their path in the calling thread, as the path finder is shared.
+   * Then, the moves are committed in the calling thread, in the order of the identifiers: an enemy
+   * moves if its target tile was free in the snapshot and no enemy of higher priority reserved it.
+   * The result is the same with any executor, or without one.
    */
   protected void updateEnemiesMouvements() {
-      Map<Position, Case> enemies = getEnemies();
-      for (Map.Entry<Position, Case> entry : enemies.entrySet()) {
-          Case aCase = entry.getValue();
-          Optional<Character> tmpOptionalChar = aCase.getCharacter();
-          Character tmpChar = tmpOptionalChar.orElseThrow(() -> new NoSuchElementException("No character found"));
-          Direction aleatDir = Direction.getRandomDirection();
-          moveMovableEntity(tmpChar, aleatDir, this);
+      int count = liveEnemies.size();
+      long tick = aiTick++;
+      if (intentTargets.length < count) {
+          intentTargets = new int[Math.max(count, 2 * intentTargets.length)];
+          intentDirections = new Direction[intentTargets.length];
+          tickedEnemies = new int[intentTargets.length];
+      }
+      selectTickedEnemies(tick);
+      interestStats.recordTick(activeCount, reducedCount, count - activeCount - reducedCount, tickedCount);
+      count = tickedCount;
+      if (liveChasers > 0) {
+          flowField().update(playerPosition.getX(), playerPosition.getY());
+      }
+      if (aiExecutor == null || count < PARALLEL_AI_THRESHOLD) {
+          computeIntents(0, count, tick);
+      } else {
+          CompletableFuture<?>[] chunks = new CompletableFuture<?>[(count + AI_CHUNK - 1) / AI_CHUNK];
+          for (int chunk = 0; chunk < chunks.length; chunk++) {
+              int from = chunk * AI_CHUNK;
+              int to = Math.min(count, from + AI_CHUNK);
+              chunks[chunk] = CompletableFuture.runAsync(() -> computeIntents(from, to, tick), aiExecutor);
+          }
+          CompletableFuture.allOf(chunks).join();
+      }
+      for (int k = 0; liveChasers > 0 && k < count; k++) {
+          int i = tickedEnemies[k];
+          Position position = liveEnemies.get(i).getPosition();
+          if (isChaser(liveEnemies.get(i)) && flowField.step(position.getY() * grid.width() + position.getX()) == null) {
+              computeChaseIntent(i);
+          }
+      }
+
+      if (reservedTiles == null) {
+          reservedTiles = new BitSet(grid.width() * grid.height());
+      }
+      for (int k = 0; k < count; k++) {
+          int i = tickedEnemies[k];
+          Character enemy = liveEnemies.get(i);
+          int target = intentTargets[i];
+          if (target >= 0 && !reservedTiles.get(target)) {
+              reservedTiles.set(target);
+              moveMovableEntity(enemy, intentDirections[i], this);
+          } else {
+              enemy.setCaseInFrontPosition(enemy.getPosition().calculateNewPosition(intentDirections[i]));
+          }
+      }
+      for (int k = 0; k < count; k++) {
+          if (intentTargets[tickedEnemies[k]] >= 0) {
+              reservedTiles.clear(intentTargets[tickedEnemies[k]]);
+          }
       }
   }
+
+  /**
+   * Selects the live enemies updated by a tick, in the order of their identifiers, and counts the
+   * enemies of the active and reduced bands. When the whole map is within the active radius, every
+   * enemy is selected without querying the index.
+   *
+   * @param tick The number of the movement tick.
+   */
+  private void selectTickedEnemies(long tick) {
+      int playerX = playerPosition.getX();
+      int playerY = playerPosition.getY();
+      int farthest = Math.max(playerX, grid.width() - 1 - playerX) + Math.max(playerY, grid.height() - 1 - playerY);
+      tickedCount = 0;
+      activeCount = 0;
+      reducedCount = 0;
+      if (farthest <= activeRadius) {
+          for (int i = 0; i < liveEnemies.size(); i++) {
+              tickedEnemies[tickedCount++] = i;
+          }
+          activeCount = tickedCount;
+          return;
+      }
+      interestTick = tick;
+      characterIndex.visitRadius(playerX, playerY, reducedRadius, interestVisitor);
+      Arrays.sort(tickedEnemies, 0, tickedCount);
+  }
+
+  /**
+   * Puts an enemy found around the player in its band, and selects it if it is updated by the tick.
+   *
+   * @return true, to visit every character around the player.
+   */
+  private boolean selectEnemy(Character character, int x, int y) {
+      Integer id = enemyIds.get(character);
+      if (id == null) {
+          return true;
+      }
+      if (Math.abs(x - playerPosition.getX()) + Math.abs(y - playerPosition.getY()) <= activeRadius) {
+          activeCount++;
+      } else {
+          reducedCount++;
+          if ((interestTick + id) % REDUCED_INTERVAL != 0) {
+              return true;
+          }
+      }
+      tickedEnemies[tickedCount++] = Arrays.binarySearch(liveEnemyIds, 0, liveEnemies.size(), id);
+      return true;
+  }
+
+  /**
+   * Computes the intended moves of a range of the enemies updated by the tick, reading the grid only. An enemy picks one
+   * of its neighbour tiles that are in its walkable zone and free, or stays if there is none. An
+   * enemy chasing the player in its zone follows the flow field instead, if it is in the field and
+   * the step of the field stays in the zone.
+   *
+   * @param from The index of the first enemy among the updated enemies.
+   * @param to   The index after the last enemy.
+   * @param tick The number of the movement tick.
+   */
+  private void computeIntents(int from, int to, long tick) {
+      for (int k = from; k < to; k++) {
+          int i = tickedEnemies[k];
+          long random = mix(aiSeed + tick * 0x9E3779B97F4A7C15L + liveEnemyIds[i]);
+          Position position = liveEnemies.get(i).getPosition();
+          WalkableZone zone = liveEnemyZones.get(i);
+          if (isChaser(liveEnemies.get(i)) && zone != null && zone.isWalkable(playerPosition.getX(), playerPosition.getY())) {
+              Direction step = flowField.step(position.getY() * grid.width() + position.getX());
+              if (step != null && setChaseIntent(i, position, zone, step)) {
+                  continue;
+              }
+          }
+          int choices = 0;
+          for (int move = 0; move < Direction.MOVES.length; move++) {
+              int x = position.getX() + Direction.MOVES[move].deltaX();
+              int y = position.getY() + Direction.MOVES[move].deltaY();
+              Case target = grid.getCase(x, y);
+              if ((zone == null || zone.isWalkable(x, y)) && target != null && target.isWalkable()) {
+                  choices |= 1 << move;
+              }
+          }
+          if (choices == 0) {
+              intentDirections[i] = Direction.fromRandomBits(random);
+              intentTargets[i] = -1;
+              continue;
+          }
+          for (int skipped = (int) Math.floorMod(random, (long) Integer.bitCount(choices)); skipped > 0; skipped--) {
+              choices &= choices - 1;
+          }
+          Direction direction = Direction.MOVES[Integer.numberOfTrailingZeros(choices)];
+          intentDirections[i] = direction;
+          intentTargets[i] = (position.getY() + direction.deltaY()) * grid.width() + position.getX() + direction.deltaX();
+      }
+  }
+
+  /**
+   * Computes the intended move of a chasing enemy beyond the flow field: while the player is in its
+   * zone, the enemy walks to the next tile of a shortest path to the player, or of a hierarchical
+   * route on the largest maps. Otherwise, or if the step leaves its zone, the enemy keeps its
+   * random move.
+   *
+   * @param index The index of the enemy among the live enemies.
+   */
+  private void computeChaseIntent(int index) {
+      Position position = liveEnemies.get(index).getPosition();
+      WalkableZone zone = liveEnemyZones.get(index);
+      if (zone == null || !zone.isWalkable(playerPosition.getX(), playerPosition.getY())) {
+          return;
+      }
+      int width = grid.width();
+      int start = position.getY() * width + position.getX();
+      int goal = playerPosition.getY() * width + playerPosition.getX();
+      int step = width * grid.height() > HIERARCHICAL_PATH_TILES
+          ? hierarchicalPathFinder().nextStep(start, goal)
+          : pathFinder().nextStep(start, goal);
+      if (step < 0) {
+          return;
+      }
+      int stepX = step % width;
+      int stepY = step / width;
+      setChaseIntent(index, position, zone, stepX < position.getX() ? Direction.LEFT
+          : stepX > position.getX() ? Direction.RIGHT
+          : stepY < position.getY() ? Direction.UP : Direction.DOWN);
+  }
+
+  /**
+   * Sets the intended move of a chasing enemy: it walks one step toward the player, or faces the
+   * tile of the step if the tile is taken. The paths ignore the zones, so a step out of the zone of
+   * the enemy is refused and the intended move is left unchanged.
+   *
+   * @param index     The index of the enemy among the live enemies.
+   * @param position  The position of the enemy.
+   * @param zone      The walkable zone of the enemy.
+   * @param direction The direction of the step.
+   * @return true if the intended move was set, false if the step leaves the zone.
+   */
+  private boolean setChaseIntent(int index, Position position, WalkableZone zone, Direction direction) {
+      int stepX = position.getX() + direction.deltaX();
+      int stepY = position.getY() + direction.deltaY();
+      if (!zone.isWalkable(stepX, stepY)) {
+          return false;
+      }
+      Case target = grid.getCase(stepX, stepY);
+      intentDirections[index] = direction;
+      intentTargets[index] = target.isWalkable() ? stepY * grid.width() + stepX : -1;
+      return true;
+  }
+
+  private static boolean isChaser(Character enemy) {
+    return enemy instanceof Enemy zoned && zoned.getBehavior() == EnemyBehavior.CHASE;
+  }
+
+  /**
+   * Gets the navigation grid of the map, built the first time it is needed.
+   *
+   * @return The navigation grid.
+   */
+  private NavigationGrid navigationGrid() {
+    if (navigationGrid == null) {
+      navigationGrid = new NavigationGrid(grid);
+    }
+    return navigationGrid;
+  }
+
+  /**
+   * Gets the path finder of the map, built the first time it is needed.
+   *
+   * @return The path finder.
+   */
+  private PathFinder pathFinder() {
+    if (pathFinder == null) {
+      pathFinder = new PathFinder(navigationGrid());
+    }
+    return pathFinder;
+  }
+
+  /**
+   * Gets the hierarchical path finder of the map, built the first time it is needed.
+   *
+   * @return The hierarchical path finder.
+   */
+  private HierarchicalPathFinder hierarchicalPathFinder() {
+    if (hierarchicalPathFinder == null) {
+      hierarchicalPathFinder = new HierarchicalPathFinder(navigationGrid(), CLUSTER_SIZE);
+    }
+    return hierarchicalPathFinder;
+  }
+
+  /**
+   * Gets the flow field toward the player, built the first time it is needed.
+   *
+   * @return The flow field.
+   */
+  private FlowField flowField() {
+    if (flowField == null) {
+      flowField = new FlowField(navigationGrid(), FLOW_FIELD_RADIUS);
+    }
+    return flowField;
+  }
+
+  /**
+   * Mixes the bits of a value, as the finalizer of SplitMix64.
+   *
+   * @param value The value to mix.
+   * @return The mixed bits.
+   */
+  private static long mix(long value) {
+      long bits = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+      bits = (bits ^ (bits >>> 27)) * 0x94D049BB133111EBL;
+      return bits ^ (bits >>> 31);
+  }
   
   
   
   /**
-   * Initiates enemy movements if a certain time interval has passed since the last event.
+   * Advances the simulation of the enemies by one tick, and initiates enemy movements once every
+   * second of simulated time. The time is counted in ticks rather than read from the clock, so the
+   * enemies keep their pace whatever the frame rate.
    * Enemy movements are updated using the updateEnemiesMouvements method.
-   * The lastMonsterEvent timestamp is updated after initiating enemy movements.
+   *
+   * @param tickNanos The duration of the tick, in nanoseconds.
+   * @throws IllegalArgumentException if tickNanos is not positive.
    */
-  public void enemiesMouvements() {
-      if (Instant.now().getEpochSecond() - lastMonsterEvent.getEpochSecond() >= MONSTERINTERVAL) {
+  public void enemiesMouvements(long tickNanos) {
+      if (tickNanos <= 0) {
+          throw new IllegalArgumentException("A tick must last a positive time");
+      }
+      nanosSinceMonsterEvent += tickNanos;
+      if (nanosSinceMonsterEvent >= MONSTERINTERVAL) {
           updateEnemiesMouvements();
-          lastMonsterEvent = Instant.now();
+          nanosSinceMonsterEvent -= MONSTERINTERVAL;
       }
   }
 
@@ -0,0 +1,693 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Paths between distant tiles of a {@link NavigationGrid}, with hierarchical pathfinding (HPA*).
+ * <p>
+ * The map is split in square clusters. Along the border of two neighbour clusters, every run of
+ * tiles navigable on both sides is an entrance, with a node on each side of the border, in the
+ * middle of the run, or at both ends if the run is long. The nodes of a cluster are linked by the
+ * length of the shortest path between them inside the cluster. A search links the start and the
+ * goal to the nodes of their clusters, then runs A* on this abstract graph, whose size is the
+ * number of entrances rather than the number of tiles. The route found goes through waypoints at
+ * most one cluster apart, and each leg is refined into tiles only when it is walked, by a search
+ * inside its cluster. The routes are near-optimal, as they go through the entrances.
+ * <p>
+ * When a tile changes, such as a door opening, the abstract graph is not built again: the
+ * entrances of the borders the tile lies on are found again, and the nodes of the clusters
+ * touching these borders are linked again.
+ * <p>
+ * The routes walked by the chasing characters are cached by the tile of the character and the
+ * goal: each step of a route is cached for the tile it leads to, so a character following the
+ * route refines it leg by leg while the goal does not move, without searching again. A route is
+ * dropped when a tile changes in a cluster it crosses. A hierarchical path finder is not
+ * thread-safe.
+ */
+final class HierarchicalPathFinder {
+
+  private static final int LONG_ENTRANCE = 6;
+  private static final int TEMPORARY = -1;
+  private static final int CACHE_SIZE = 1024;
+
+  private static final class Node {
+    private final int tile;
+    private final int cluster;
+    private final int border;
+    private Node[] links = new Node[8];
+    private int[] costs = new int[8];
+    private int linkCount;
+    private int openStamp;
+    private int closedStamp;
+    private int g;
+    private Node parent;
+
+    private Node(int tile, int cluster, int border) {
+      this.tile = tile;
+      this.cluster = cluster;
+      this.border = border;
+    }
+
+    private void link(Node node, int cost) {
+      if (linkCount == links.length) {
+        links = Arrays.copyOf(links, 2 * linkCount);
+        costs = Arrays.copyOf(costs, 2 * linkCount);
+      }
+      links[linkCount] = node;
+      costs[linkCount++] = cost;
+    }
+
+    /**
+     * Removes the links to the nodes of the same cluster, or to one node if it is not null.
+     */
+    private void unlink(Node node) {
+      int kept = 0;
+      for (int i = 0; i < linkCount; i++) {
+        boolean removed = node == null ? links[i].cluster == cluster : links[i] == node;
+        if (!removed) {
+          links[kept] = links[i];
+          costs[kept++] = costs[i];
+        }
+      }
+      Arrays.fill(links, kept, linkCount, null);
+      linkCount = kept;
+    }
+  }
+
+  private final NavigationGrid navigation;
+  private final int width;
+  private final int height;
+  private final int clusterSize;
+  private final int clustersX;
+  private final List<List<Node>> clusters;
+  private final int[] localStamps;
+  private final int[] localDistances;
+  private final int[] localParents;
+  private final int[] localQueue;
+  private long[] heapKeys = new long[256];
+  private Node[] heapNodes = new Node[256];
+  private int heapSize;
+  private int localStamp;
+  private int stamp;
+  private int nodeCount;
+  private long expanded;
+  private long rebuiltClusters;
+  private long cacheHits;
+  private final Map<Long, Step> routeSteps = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Long, Step> eldest) {
+      return size() > CACHE_SIZE;
+    }
+  };
+
+  /**
+   * Builds the abstract graph of a navigation grid.
+   *
+   * @param navigation  The navigation grid of the map.
+   * @param clusterSize The width and height of a cluster, in tiles.
+   * @throws NullPointerException if navigation is null.
+   * @throws IllegalArgumentException if clusterSize is less than 2.
+   */
+  HierarchicalPathFinder(NavigationGrid navigation, int clusterSize) {
+    this.navigation = Objects.requireNonNull(navigation);
+    if (clusterSize < 2) {
+      throw new IllegalArgumentException("A cluster needs at least 2 x 2 tiles\n");
+    }
+    this.width = navigation.width();
+    this.height = navigation.height();
+    this.clusterSize = clusterSize;
+    this.clustersX = (width + clusterSize - 1) / clusterSize;
+    int clusterCount = clustersX * ((height + clusterSize - 1) / clusterSize);
+    this.clusters = new ArrayList<>(clusterCount);
+    for (int i = 0; i < clusterCount; i++) {
+      clusters.add(new ArrayList<>());
+    }
+    this.localStamps = new int[clusterSize * clusterSize];
+    this.localDistances = new int[clusterSize * clusterSize];
+    this.localParents = new int[clusterSize * clusterSize];
+    this.localQueue = new int[clusterSize * clusterSize];
+    for (int cluster = 0; cluster < clusterCount; cluster++) {
+      buildBorder(2 * cluster);
+      buildBorder(2 * cluster + 1);
+    }
+    for (int cluster = 0; cluster < clusterCount; cluster++) {
+      linkCluster(cluster);
+    }
+  }
+
+  /**
+   * A route found by a search, refined into tiles one leg at a time while it is walked.
+   */
+  final class Route {
+    private final int[] waypoints;
+    private final int length;
+    private int leg;
+    private int[] tiles = new int[0];
+    private int next;
+
+    private Route(int[] waypoints, int length) {
+      this.waypoints = waypoints;
+      this.length = length;
+    }
+
+    /**
+     * Gets the next tile of the route, refining the next leg if needed.
+     *
+     * @return The index of the next tile, or -1 once the goal is reached or if the tiles of the leg
+     *         changed since the search and the leg cannot be walked anymore.
+     */
+    int next() {
+      while (next == tiles.length) {
+        if (leg + 1 >= waypoints.length) {
+          return -1;
+        }
+        tiles = refine(waypoints[leg], waypoints[leg + 1]);
+        leg++;
+        next = 0;
+        if (tiles == null) {
+          leg = waypoints.length;
+          tiles = new int[0];
+          return -1;
+        }
+      }
+      return tiles[next++];
+    }
+
+    /**
+     * Gets the number of steps of the route.
+     *
+     * @return The length of the route.
+     */
+    int length() {
+      return length;
+    }
+
+    /**
+     * Gets the number of legs refined so far.
+     *
+     * @return The number of refined legs.
+     */
+    int refinedLegs() {
+      return leg;
+    }
+
+    /**
+     * Checks whether the part of the route not walked yet goes through a cluster.
+     *
+     * @param cluster The index of the cluster.
+     * @return true if the current leg or a later one has a waypoint in the cluster.
+     */
+    private boolean crosses(int cluster) {
+      for (int i = Math.max(0, leg - 1); i < waypoints.length; i++) {
+        if (clusterOf(waypoints[i]) == cluster) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * A cached step of a route: the tile to walk to from the tile of its key.
+   */
+  private static final class Step {
+    private final Route route;
+    private final int tile;
+    private boolean followed;
+
+    private Step(Route route, int tile) {
+      this.route = route;
+      this.tile = tile;
+    }
+  }
+
+  /**
+   * Searches a route between two tiles on the abstract graph. Only the waypoints are computed, the
+   * tiles are refined when the route is walked.
+   *
+   * @param start The index of the start tile, y * width + x.
+   * @param goal  The index of the goal tile.
+   * @return The route from start to goal, or null if there is none.
+   * @throws IndexOutOfBoundsException if a tile is outside the map.
+   */
+  Route findRoute(int start, int goal) {
+    Objects.checkIndex(start, width * height);
+    Objects.checkIndex(goal, width * height);
+    Node startNode = insert(start);
+    Node goalNode = insert(goal);
+    try {
+      return search(startNode, goalNode);
+    } finally {
+      remove(goalNode);
+      remove(startNode);
+    }
+  }
+
+  /**
+   * Finds the next tile on a route between two tiles, from the cache or with a search. The step
+   * after the returned tile is cached for it, so a character walking the route advances it one
+   * tile at a time, refining its legs only when it reaches them.
+   *
+   * @param start The index of the start tile, y * width + x.
+   * @param goal  The index of the goal tile.
+   * @return The index of the neighbour tile of start to walk to, or -1 if the goal is the start or
+   *         cannot be reached.
+   */
+  int nextStep(int start, int goal) {
+    Step step = routeSteps.get(key(start, goal));
+    if (step != null) {
+      cacheHits++;
+    } else {
+      Route route = findRoute(start, goal);
+      if (route == null) {
+        return -1;
+      }
+      step = new Step(route, route.next());
+      if (step.tile < 0) {
+        return -1;
+      }
+      routeSteps.put(key(start, goal), step);
+    }
+    if (!step.followed) {
+      step.followed = true;
+      int after = step.route.next();
+      if (after >= 0) {
+        routeSteps.put(key(step.tile, goal), new Step(step.route, after));
+      }
+    }
+    return step.tile;
+  }
+
+  /**
+   * Updates the abstract graph after a tile became navigable or stopped being so. Only the
+   * entrances of the borders of the tile and the links of the clusters around them are rebuilt. The
+   * edges of the map are not borders, as no cluster lies beyond them.
+   *
+   * @param x The x-coordinate of the tile.
+   * @param y The y-coordinate of the tile.
+   */
+  void tileChanged(int x, int y) {
+    if (x < 0 || x >= width || y < 0 || y >= height) {
+      return;
+    }
+    int cluster = clusterOf(y * width + x);
+    int[] borders = new int[4];
+    int count = 0;
+    if (x % clusterSize == clusterSize - 1 && x + 1 < width) {
+      borders[count++] = 2 * cluster;
+    }
+    if (x % clusterSize == 0 && x > 0) {
+      borders[count++] = 2 * (cluster - 1);
+    }
+    if (y % clusterSize == clusterSize - 1 && y + 1 < height) {
+      borders[count++] = 2 * cluster + 1;
+    }
+    if (y % clusterSize == 0 && y > 0) {
+      borders[count++] = 2 * (cluster - clustersX) + 1;
+    }
+    for (int i = 0; i < count; i++) {
+      int border = borders[i];
+      for (int side : new int[] { border / 2, neighbourCluster(border) }) {
+        List<Node> nodes = clusters.get(side);
+        nodeCount -= nodes.size();
+        nodes.removeIf(node -> node.border == border);
+        nodeCount += nodes.size();
+      }
+      buildBorder(border);
+    }
+    linkCluster(cluster);
+    rebuiltClusters++;
+    dropRoutes(cluster);
+    for (int i = 0; i < count; i++) {
+      int other = borders[i] / 2 == cluster ? neighbourCluster(borders[i]) : borders[i] / 2;
+      linkCluster(other);
+      rebuiltClusters++;
+      dropRoutes(other);
+    }
+  }
+
+  /**
+   * Gets the number of nodes of the abstract graph.
+   *
+   * @return The number of nodes.
+   */
+  int nodes() {
+    return nodeCount;
+  }
+
+  /**
+   * Gets the number of abstract nodes expanded by the searches.
+   *
+   * @return The number of expanded nodes.
+   */
+  long expanded() {
+    return expanded;
+  }
+
+  /**
+   * Gets the number of next steps found in the cache of the routes.
+   *
+   * @return The number of cache hits.
+   */
+  long cacheHits() {
+    return cacheHits;
+  }
+
+  /**
+   * Gets the number of clusters linked again after tiles changed.
+   *
+   * @return The number of rebuilt clusters.
+   */
+  long rebuiltClusters() {
+    return rebuiltClusters;
+  }
+
+  /**
+   * Drops the cached steps of the routes crossing a cluster whose tiles changed.
+   */
+  private void dropRoutes(int cluster) {
+    routeSteps.values().removeIf(step -> step.route.crosses(cluster));
+  }
+
+  private static long key(int start, int goal) {
+    return (long) start << 32 | goal & 0xFFFFFFFFL;
+  }
+
+  private int clusterOf(int tile) {
+    return (tile / width / clusterSize) * clustersX + tile % width / clusterSize;
+  }
+
+  /**
+   * Gets the cluster on the other side of a border. The border 2 * c is on the right of the cluster
+   * c, and the border 2 * c + 1 is below it.
+   */
+  private int neighbourCluster(int border) {
+    return border % 2 == 0 ? border / 2 + 1 : border / 2 + clustersX;
+  }
+
+  /**
+   * Finds the entrances of a border and adds their nodes to the clusters on both sides.
+   */
+  private void buildBorder(int border) {
+    int cluster = border / 2;
+    int left = cluster % clustersX * clusterSize;
+    int top = cluster / clustersX * clusterSize;
+    boolean vertical = border % 2 == 0;
+    int lineX = vertical ? left + clusterSize - 1 : left;
+    int lineY = vertical ? top : top + clusterSize - 1;
+    int stepX = vertical ? 0 : 1;
+    int stepY = vertical ? 1 : 0;
+    int crossX = vertical ? 1 : 0;
+    int crossY = vertical ? 0 : 1;
+    if (lineX + crossX >= width || lineY + crossY >= height) {
+      return;
+    }
+    int length = vertical ? Math.min(clusterSize, height - top) : Math.min(clusterSize, width - left);
+    int runStart = -1;
+    for (int i = 0; i <= length; i++) {
+      int x = lineX + i * stepX;
+      int y = lineY + i * stepY;
+      boolean open = i < length && navigation.isNavigable(x, y) && navigation.isNavigable(x + crossX, y + crossY);
+      if (open && runStart < 0) {
+        runStart = i;
+      } else if (!open && runStart >= 0) {
+        int runEnd = i - 1;
+        if (runEnd - runStart + 1 >= LONG_ENTRANCE) {
+          addEntrance(border, lineX + runStart * stepX, lineY + runStart * stepY, crossX, crossY);
+          addEntrance(border, lineX + runEnd * stepX, lineY + runEnd * stepY, crossX, crossY);
+        } else {
+          int middle = (runStart + runEnd) / 2;
+          addEntrance(border, lineX + middle * stepX, lineY + middle * stepY, crossX, crossY);
+        }
+        runStart = -1;
+      }
+    }
+  }
+
+  private void addEntrance(int border, int x, int y, int crossX, int crossY) {
+    Node inside = new Node(y * width + x, border / 2, border);
+    Node outside = new Node((y + crossY) * width + x + crossX, neighbourCluster(border), border);
+    inside.link(outside, 1);
+    outside.link(inside, 1);
+    clusters.get(inside.cluster).add(inside);
+    clusters.get(outside.cluster).add(outside);
+    nodeCount += 2;
+  }
+
+  /**
+   * Links the nodes of a cluster by the length of the shortest paths between them in the cluster.
+   */
+  private void linkCluster(int cluster) {
+    List<Node> nodes = clusters.get(cluster);
+    for (Node node : nodes) {
+      node.unlink(null);
+    }
+    for (int i = 0; i < nodes.size(); i++) {
+      searchCluster(nodes.get(i).tile);
+      for (int j = i + 1; j < nodes.size(); j++) {
+        int distance = localDistance(nodes.get(j).tile);
+        if (distance >= 0) {
+          nodes.get(i).link(nodes.get(j), distance);
+          nodes.get(j).link(nodes.get(i), distance);
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds a temporary node for the start or the goal of a search, linked to the nodes of its cluster.
+   */
+  private Node insert(int tile) {
+    Node node = new Node(tile, clusterOf(tile), TEMPORARY);
+    List<Node> nodes = clusters.get(node.cluster);
+    searchCluster(tile);
+    for (Node other : nodes) {
+      int distance = localDistance(other.tile);
+      if (distance >= 0) {
+        node.link(other, distance);
+        other.link(node, distance);
+      }
+    }
+    nodes.add(node);
+    return node;
+  }
+
+  private void remove(Node node) {
+    List<Node> nodes = clusters.get(node.cluster);
+    nodes.remove(node);
+    for (Node other : nodes) {
+      other.unlink(node);
+    }
+  }
+
+  /**
+   * Runs A* on the abstract graph.
+   */
+  private Route search(Node start, Node goal) {
+    stamp++;
+    Arrays.fill(heapNodes, 0, heapSize, null);
+    heapSize = 0;
+    start.openStamp = stamp;
+    start.g = 0;
+    start.parent = null;
+    push(start, manhattan(start.tile, goal.tile), 0);
+    while (heapSize > 0) {
+      int entryScore = Integer.MAX_VALUE - (int) heapKeys[0];
+      Node node = pop();
+      if (node.closedStamp == stamp || entryScore != node.g) {
+        continue;
+      }
+      node.closedStamp = stamp;
+      expanded++;
+      if (node == goal) {
+        return buildRoute(goal);
+      }
+      for (int i = 0; i < node.linkCount; i++) {
+        Node next = node.links[i];
+        int g = node.g + node.costs[i];
+        if (next.closedStamp == stamp || next.openStamp == stamp && next.g <= g) {
+          continue;
+        }
+        next.openStamp = stamp;
+        next.g = g;
+        next.parent = node;
+        push(next, g + manhattan(next.tile, goal.tile), g);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Adds a node to the open list. The key orders the nodes by estimate, then by the largest score,
+   * and keeps the score to skip the entries of the nodes reached again by a shorter path.
+   */
+  private void push(Node node, int f, int g) {
+    if (heapSize == heapKeys.length) {
+      heapKeys = Arrays.copyOf(heapKeys, 2 * heapSize);
+      heapNodes = Arrays.copyOf(heapNodes, 2 * heapSize);
+    }
+    long key = (long) f << 32 | (Integer.MAX_VALUE - g);
+    int index = heapSize++;
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (heapKeys[parent] <= key) {
+        break;
+      }
+      heapKeys[index] = heapKeys[parent];
+      heapNodes[index] = heapNodes[parent];
+      index = parent;
+    }
+    heapKeys[index] = key;
+    heapNodes[index] = node;
+  }
+
+  private Node pop() {
+    Node top = heapNodes[0];
+    long key = heapKeys[--heapSize];
+    Node node = heapNodes[heapSize];
+    heapNodes[heapSize] = null;
+    int index = 0;
+    while (true) {
+      int child = 2 * index + 1;
+      if (child >= heapSize) {
+        break;
+      }
+      if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+        child++;
+      }
+      if (key <= heapKeys[child]) {
+        break;
+      }
+      heapKeys[index] = heapKeys[child];
+      heapNodes[index] = heapNodes[child];
+      index = child;
+    }
+    if (heapSize > 0) {
+      heapKeys[index] = key;
+      heapNodes[index] = node;
+    }
+    return top;
+  }
+
+  private Route buildRoute(Node goal) {
+    int count = 0;
+    for (Node node = goal; node != null; node = node.parent) {
+      count++;
+    }
+    int[] waypoints = new int[count];
+    for (Node node = goal; node != null; node = node.parent) {
+      waypoints[--count] = node.tile;
+    }
+    return new Route(waypoints, goal.g);
+  }
+
+  private int manhattan(int from, int to) {
+    return Math.abs(from % width - to % width) + Math.abs(from / width - to / width);
+  }
+
+  /**
+   * Refines the leg between two waypoints, either neighbours or in the same cluster.
+   *
+   * @return The tiles of the leg after from, or null if the leg cannot be walked anymore.
+   */
+  private int[] refine(int from, int to) {
+    if (from == to) {
+      return new int[0];
+    }
+    if (manhattan(from, to) == 1) {
+      return new int[] { to };
+    }
+    if (clusterOf(from) != clusterOf(to)) {
+      return null;
+    }
+    searchCluster(from);
+    int distance = localDistance(to);
+    if (distance < 0) {
+      return null;
+    }
+    int[] tiles = new int[distance];
+    int tile = to;
+    for (int i = distance - 1; i >= 0; i--) {
+      tiles[i] = tile;
+      tile = localParents[localIndex(tile)];
+    }
+    return tiles;
+  }
+
+  /**
+   * Runs a breadth-first search from a tile, inside the cluster of the tile. The origin is walked
+   * through even if it is not navigable.
+   */
+  private void searchCluster(int origin) {
+    int cluster = clusterOf(origin);
+    int left = cluster % clustersX * clusterSize;
+    int top = cluster / clustersX * clusterSize;
+    int localWidth = Math.min(width, left + clusterSize) - left;
+    int localHeight = Math.min(height, top + clusterSize) - top;
+    if (localStamp == Integer.MAX_VALUE) {
+      Arrays.fill(localStamps, 0);
+      localStamp = 0;
+    }
+    localStamp++;
+    int head = 0;
+    int tail = 0;
+    int originLocal = localIndex(origin);
+    localStamps[originLocal] = localStamp;
+    localDistances[originLocal] = 0;
+    localQueue[tail++] = originLocal;
+    while (head < tail) {
+      int local = localQueue[head++];
+      int localX = local % clusterSize;
+      int localY = local / clusterSize;
+      int tile = (top + localY) * width + left + localX;
+      int distance = localDistances[local] + 1;
+      if (localX > 0) {
+        tail = visit(local, local - 1, tile, tile - 1, distance, tail);
+      }
+      if (localX < localWidth - 1) {
+        tail = visit(local, local + 1, tile, tile + 1, distance, tail);
+      }
+      if (localY > 0) {
+        tail = visit(local, local - clusterSize, tile, tile - width, distance, tail);
+      }
+      if (localY < localHeight - 1) {
+        tail = visit(local, local + clusterSize, tile, tile + width, distance, tail);
+      }
+    }
+  }
+
+  /**
+   * Adds a neighbour tile to the queue of the search in a cluster if it is navigable and new.
+   *
+   * @return The new end of the queue.
+   */
+  private int visit(int local, int nextLocal, int tile, int next, int distance, int tail) {
+    if (localStamps[nextLocal] == localStamp || !navigation.isNavigable(next)) {
+      return tail;
+    }
+    localStamps[nextLocal] = localStamp;
+    localDistances[nextLocal] = distance;
+    localParents[nextLocal] = tile;
+    localQueue[tail] = nextLocal;
+    return tail + 1;
+  }
+
+  /**
+   * Gets the distance found by the last search in a cluster, or -1 if the tile was not reached.
+   */
+  private int localDistance(int tile) {
+    int local = localIndex(tile);
+    return localStamps[local] == localStamp ? localDistances[local] : -1;
+  }
+
+  private int localIndex(int tile) {
+    return (tile / width % clusterSize) * clusterSize + tile % width % clusterSize;
+  }
+}
@@ -0,0 +1,300 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.TheBigAdventure.groundEntities.DecorationType;
+import com.TheBigAdventure.groundEntities.DecorativeElement;
+import com.TheBigAdventure.groundEntities.ObstacleType;
+import com.TheBigAdventure.groundEntities.Obstacles;
+
+/**
+ * Benchmark of the {@link HierarchicalPathFinder} against the {@link PathFinder} on a
+ * {@value #SIDE} by {@value #SIDE} map.
+ * <p>
+ * The map is a grid of rooms of {@value #ROOM} tiles, whose walls have a passage or a closed door,
+ * with scattered trees. The benchmark builds the abstract graph, then searches routes between
+ * random tiles at least {@value #MIN_DISTANCE} tiles apart. It prints the latency percentiles of
+ * the abstract searches, of the first leg as a chasing character refines it, and of the whole
+ * routes refined tile by tile, checking that every route walks from its start to its goal. Some
+ * routes are then walked by chasers asking their next step at every tile, as the enemies do, and
+ * the latency of a step is printed with the share of the steps found in the cache. It compares
+ * some routes with the shortest paths of A*, then opens doors and holes in the outer wall,
+ * on the edges of the map, and prints the latency of the local rebuilds against the time to build
+ * the whole graph, checking the graph against a graph built from scratch.
+ * <p>
+ * Usage: {@code java -Xmx3g -cp out com.TheBigAdventure.mapBuiler.HierarchicalPathFinderBenchmark}
+ */
+final class HierarchicalPathFinderBenchmark {
+
+  private static final int SIDE = 4096;
+  private static final int ROOM = 64;
+  private static final int CLUSTER_SIZE = 32;
+  private static final int PASSAGE_PERCENT = 70;
+  private static final int TREE_PERCENT = 3;
+  private static final int MIN_DISTANCE = 1024;
+  private static final int QUERIES = 200;
+  private static final int COMPARED_QUERIES = 10;
+  private static final int DOORS = 200;
+  private static final int DOOR_SAMPLING = 30;
+  private static final int EDGE_OPENINGS = 40;
+
+  private HierarchicalPathFinderBenchmark() {
+  }
+
+  public static void main(String[] args) {
+    Random random = new Random(7);
+    int[] doors = new int[DOORS];
+    MapGrid grid = roomsGrid(random, doors);
+    NavigationGrid navigation = new NavigationGrid(grid);
+
+    long start = System.nanoTime();
+    HierarchicalPathFinder hierarchical = new HierarchicalPathFinder(navigation, CLUSTER_SIZE);
+    long buildNanos = System.nanoTime() - start;
+    System.out.printf("%d x %d map, clusters of %d: %,d abstract nodes built in %.1f ms%n",
+        SIDE, SIDE, CLUSTER_SIZE, hierarchical.nodes(), buildNanos / 1e6);
+
+    int[] pairs = new int[2 * QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      do {
+        pairs[2 * i] = randomTile(navigation, random);
+        pairs[2 * i + 1] = randomTile(navigation, random);
+      } while (distance(pairs[2 * i], pairs[2 * i + 1]) < MIN_DISTANCE
+          || hierarchical.findRoute(pairs[2 * i], pairs[2 * i + 1]) == null);
+    }
+
+    long[] searchNanos = new long[QUERIES];
+    long[] firstLegNanos = new long[QUERIES];
+    long[] walkNanos = new long[QUERIES];
+    long expanded = hierarchical.expanded();
+    int[] lengths = new int[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      start = System.nanoTime();
+      HierarchicalPathFinder.Route route = hierarchical.findRoute(pairs[2 * i], pairs[2 * i + 1]);
+      searchNanos[i] = System.nanoTime() - start;
+      int tile = route.next();
+      firstLegNanos[i] = System.nanoTime() - start;
+      lengths[i] = walk(navigation, route, pairs[2 * i], tile, pairs[2 * i + 1]);
+      walkNanos[i] = System.nanoTime() - start;
+    }
+    report("abstract search", searchNanos);
+    report("search + first leg", firstLegNanos);
+    report("search + whole route", walkNanos);
+    System.out.printf("%,.0f abstract nodes expanded per search%n", (hierarchical.expanded() - expanded) / (double) QUERIES);
+
+    long hits = hierarchical.cacheHits();
+    int chaseSteps = 0;
+    for (int i = 0; i < COMPARED_QUERIES; i++) {
+      chaseSteps += lengths[i];
+    }
+    long[] chaseNanos = new long[chaseSteps];
+    int step = 0;
+    for (int i = 0; i < COMPARED_QUERIES; i++) {
+      int tile = pairs[2 * i];
+      while (tile != pairs[2 * i + 1]) {
+        start = System.nanoTime();
+        int next = hierarchical.nextStep(tile, pairs[2 * i + 1]);
+        chaseNanos[step++] = System.nanoTime() - start;
+        if (distance(tile, next) != 1 || step > chaseSteps) {
+          throw new IllegalStateException("Invalid chase step from " + tile + " to " + next);
+        }
+        tile = next;
+      }
+    }
+    report("chase step", Arrays.copyOf(chaseNanos, step));
+    System.out.printf("%.2f %% of the chase steps found in the cache%n", 100.0 * (hierarchical.cacheHits() - hits) / step);
+
+    PathFinder pathFinder = new PathFinder(navigation);
+    long[] aStarNanos = new long[COMPARED_QUERIES];
+    double worstRatio = 1;
+    double totalRatio = 0;
+    expanded = pathFinder.expanded();
+    for (int i = 0; i < COMPARED_QUERIES; i++) {
+      start = System.nanoTime();
+      int[] path = pathFinder.findPath(pairs[2 * i], pairs[2 * i + 1]);
+      aStarNanos[i] = System.nanoTime() - start;
+      double ratio = lengths[i] / (double) (path.length - 1);
+      worstRatio = Math.max(worstRatio, ratio);
+      totalRatio += ratio;
+    }
+    report("A*", aStarNanos);
+    System.out.printf("%,.0f tiles expanded per A* search, routes %.3f times as long as shortest paths on average, %.3f at worst%n",
+        (pathFinder.expanded() - expanded) / (double) COMPARED_QUERIES, totalRatio / COMPARED_QUERIES, worstRatio);
+
+    long[] rebuildNanos = new long[DOORS];
+    Case open = new Case(DecorativeElement.of(DecorationType.VOID));
+    long rebuilt = hierarchical.rebuiltClusters();
+    for (int i = 0; i < DOORS; i++) {
+      int x = doors[i] % SIDE;
+      int y = doors[i] / SIDE;
+      start = System.nanoTime();
+      grid.setCase(x, y, open);
+      if (navigation.update(x, y, open)) {
+        hierarchical.tileChanged(x, y);
+      }
+      rebuildNanos[i] = System.nanoTime() - start;
+    }
+    report("door opening", rebuildNanos);
+    System.out.printf("%.1f clusters linked again per door, against %.1f ms to build the whole graph%n",
+        (hierarchical.rebuiltClusters() - rebuilt) / (double) DOORS, buildNanos / 1e6);
+
+    long[] edgeNanos = new long[EDGE_OPENINGS];
+    for (int i = 0; i < EDGE_OPENINGS; i++) {
+      int edge = edgeTile(random, i);
+      int x = edge % SIDE;
+      int y = edge / SIDE;
+      start = System.nanoTime();
+      grid.setCase(x, y, open);
+      if (navigation.update(x, y, open)) {
+        hierarchical.tileChanged(x, y);
+      }
+      edgeNanos[i] = System.nanoTime() - start;
+    }
+    report("edge opening", edgeNanos);
+
+    HierarchicalPathFinder rebuiltFromScratch = new HierarchicalPathFinder(navigation, CLUSTER_SIZE);
+    if (rebuiltFromScratch.nodes() != hierarchical.nodes()) {
+      throw new IllegalStateException("The graph has " + hierarchical.nodes() + " nodes after opening the tiles instead of "
+          + rebuiltFromScratch.nodes());
+    }
+    for (int i = 0; i < COMPARED_QUERIES; i++) {
+      HierarchicalPathFinder.Route route = hierarchical.findRoute(pairs[2 * i], pairs[2 * i + 1]);
+      HierarchicalPathFinder.Route expected = rebuiltFromScratch.findRoute(pairs[2 * i], pairs[2 * i + 1]);
+      if (route.length() != expected.length()) {
+        throw new IllegalStateException("Route of " + route.length() + " steps after opening the tiles instead of " + expected.length());
+      }
+      walk(navigation, route, pairs[2 * i], route.next(), pairs[2 * i + 1]);
+    }
+    System.out.println("graph after opening the doors and the edges checked against a graph built from scratch");
+  }
+
+  /**
+   * Walks a route tile by tile.
+   *
+   * @return The number of steps of the route.
+   * @throws IllegalStateException if a step is not a move to a navigable neighbour or the route
+   *                               does not end on the goal.
+   */
+  private static int walk(NavigationGrid navigation, HierarchicalPathFinder.Route route, int start, int first, int goal) {
+    int steps = 0;
+    int previous = start;
+    for (int tile = first; tile >= 0; tile = route.next()) {
+      if (distance(previous, tile) != 1 || !navigation.isNavigable(tile) && tile != goal) {
+        throw new IllegalStateException("Invalid step from " + previous + " to " + tile);
+      }
+      previous = tile;
+      steps++;
+    }
+    if (previous != goal) {
+      throw new IllegalStateException("The route ends on " + previous + " instead of " + goal);
+    }
+    return steps;
+  }
+
+  private static void report(String name, long[] nanos) {
+    long[] sorted = nanos.clone();
+    Arrays.sort(sorted);
+    System.out.printf("%-22s p50 %9.3f ms  p90 %9.3f ms  p99 %9.3f ms  max %9.3f ms%n", name,
+        percentile(sorted, 50) / 1e6, percentile(sorted, 90) / 1e6, percentile(sorted, 99) / 1e6,
+        sorted[sorted.length - 1] / 1e6);
+  }
+
+  private static long percentile(long[] sorted, int percent) {
+    return sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)];
+  }
+
+  private static int distance(int from, int to) {
+    return Math.abs(from % SIDE - to % SIDE) + Math.abs(from / SIDE - to / SIDE);
+  }
+
+  /**
+   * Picks a tile on an edge of the map. The first openings are the four corners, the next ones go
+   * round the last row, the last column, the first row and the first column.
+   *
+   * @return The index of the tile.
+   */
+  private static int edgeTile(Random random, int opening) {
+    if (opening < 4) {
+      int x = opening % 2 == 0 ? SIDE - 1 : 0;
+      int y = opening < 2 ? SIDE - 1 : 0;
+      return y * SIDE + x;
+    }
+    int along = random.nextInt(SIDE);
+    return switch (opening % 4) {
+    case 0 -> (SIDE - 1) * SIDE + along;
+    case 1 -> along * SIDE + SIDE - 1;
+    case 2 -> along;
+    default -> along * SIDE;
+    };
+  }
+
+  private static int randomTile(NavigationGrid navigation, Random random) {
+    while (true) {
+      int tile = random.nextInt(SIDE * SIDE);
+      if (navigation.isNavigable(tile)) {
+        return tile;
+      }
+    }
+  }
+
+  /**
+   * Builds the grid of the rooms. Every wall between two rooms has a closed door in its middle,
+   * and most walls also have a passage.
+   *
+   * @param random The source of the passages and the trees.
+   * @param doors  The array filled with the indexes of random doors.
+   * @return The grid of the map.
+   */
+  private static MapGrid roomsGrid(Random random, int[] doors) {
+    Case grass = new Case(DecorativeElement.of(DecorationType.GRASS));
+    Case tree = new Case(Obstacles.of(ObstacleType.TREE));
+    Case wall = new Case(Obstacles.of(ObstacleType.WALL));
+    Case door = new Case(Obstacles.of(ObstacleType.DOOR));
+    MapGrid grid = new DenseMapGrid(new MapSize(SIDE, SIDE));
+    for (int y = 0; y < SIDE; y++) {
+      for (int x = 0; x < SIDE; x++) {
+        boolean border = x == 0 || y == 0 || x == SIDE - 1 || y == SIDE - 1;
+        grid.setCase(x, y, border || x % ROOM == 0 || y % ROOM == 0 ? wall
+            : random.nextInt(100) < TREE_PERCENT ? tree : grass);
+      }
+    }
+    int rooms = SIDE / ROOM;
+    int doorCount = 0;
+    for (int row = 0; row < rooms; row++) {
+      for (int column = 0; column < rooms; column++) {
+        int left = column * ROOM;
+        int top = row * ROOM;
+        if (column > 0) {
+          doorCount = addWallOpenings(grid, random, left, top, 0, 1, door, grass, doors, doorCount);
+        }
+        if (row > 0) {
+          doorCount = addWallOpenings(grid, random, left, top, 1, 0, door, grass, doors, doorCount);
+        }
+      }
+    }
+    return grid;
+  }
+
+  /**
+   * Puts a closed door in the middle of a wall and, most of the time, a passage of three tiles in
+   * its first half.
+   *
+   * @return The number of doors recorded.
+   */
+  private static int addWallOpenings(MapGrid grid, Random random, int x, int y, int alongX, int alongY,
+      Case door, Case grass, int[] doors, int doorCount) {
+    int doorX = x + ROOM / 2 * alongX;
+    int doorY = y + ROOM / 2 * alongY;
+    grid.setCase(doorX, doorY, door);
+    if (doorCount < doors.length && random.nextInt(DOOR_SAMPLING) == 0) {
+      doors[doorCount++] = doorY * SIDE + doorX;
+    }
+    if (random.nextInt(100) < PASSAGE_PERCENT) {
+      int passage = 2 + random.nextInt(ROOM / 2 - 6);
+      for (int i = passage; i < passage + 3; i++) {
+        grid.setCase(x + i * alongX, y + i * alongY, grass);
+      }
+    }
+    return doorCount;
+  }
+}
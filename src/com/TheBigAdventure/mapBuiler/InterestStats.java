@@ -0,0 +1,88 @@
+package com.TheBigAdventure.mapBuiler;
+
+/**
+ * Counters of the live enemies of a game map by band of distance to the player, at the last
+ * movement tick.
+ * <p>
+ * The active enemies, near the player, move at every tick. The reduced enemies, in the band around
+ * them, move once every few ticks. The sleeping enemies, beyond, are not updated at all.
+ */
+public final class InterestStats {
+
+  private long ticks;
+  private long updates;
+  private int active;
+  private int reduced;
+  private int sleeping;
+
+  /**
+   * Records the bands of the enemies at a movement tick.
+   *
+   * @param active   The number of enemies in the active band.
+   * @param reduced  The number of enemies in the reduced band.
+   * @param sleeping The number of sleeping enemies.
+   * @param updated  The number of enemies updated by the tick.
+   * @throws IllegalArgumentException if a number is negative.
+   */
+  void recordTick(int active, int reduced, int sleeping, int updated) {
+    if (active < 0 || reduced < 0 || sleeping < 0 || updated < 0) {
+      throw new IllegalArgumentException("The number of enemies cant be negative\n");
+    }
+    ticks++;
+    updates += updated;
+    this.active = active;
+    this.reduced = reduced;
+    this.sleeping = sleeping;
+  }
+
+  /**
+   * Gets the number of movement ticks recorded.
+   *
+   * @return The number of ticks.
+   */
+  public long ticks() {
+    return ticks;
+  }
+
+  /**
+   * Gets the number of enemy updates computed by the ticks.
+   *
+   * @return The number of updates.
+   */
+  public long updates() {
+    return updates;
+  }
+
+  /**
+   * Gets the number of enemies in the active band at the last tick.
+   *
+   * @return The number of active enemies.
+   */
+  public int active() {
+    return active;
+  }
+
+  /**
+   * Gets the number of enemies in the reduced band at the last tick.
+   *
+   * @return The number of reduced enemies.
+   */
+  public int reduced() {
+    return reduced;
+  }
+
+  /**
+   * Gets the number of sleeping enemies at the last tick.
+   *
+   * @return The number of sleeping enemies.
+   */
+  public int sleeping() {
+    return sleeping;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d ticks, %d active, %d reduced, %d sleeping enemies, %d updates",
+        ticks, active, reduced, sleeping, updates);
+  }
+}
@@ -1,93 +1,302 @@
 package com.TheBigAdventure.mapBuiler;
 
-import java.util.List;
-
-//import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-
-
-import static java.util.stream.Collectors.joining;
+import java.util.Objects;
 
 /**
- * Lexer class for tokenizing input text based on a predefined set of patterns.
+ * Lexer class for tokenizing input text, character by character, into the tokens of {@link Token}.
+ * <p>
+ * The lexer is a state machine reading the text once: it looks at the current character to know
+ * which tokens can start there, then tries them in the order of {@link Token}, the first complete
+ * token wins. Characters that cannot start any token are skipped. The tokens are reported as
+ * offsets in the text, and a {@link Result} holding the content of a token is only created by
+ * {@link #nextResult()}.
  */
 public class Lexer {
-  
-    private static final List<Token> TOKENS = List.of(Token.values());
-    private static final Pattern PATTERN = Pattern.compile(
-        TOKENS.stream()
-            .map(token -> "(" + token.regex() + ")")
-            .collect(joining("|")));
-
-    private final String text;
-    private final Matcher matcher;
-    private int lastEnd = 0;
-    
+
+    private static final String DATA_DELIMITER = "\"\"\"";
+
+    private final CharSequence text;
+    private final int length;
+    private int position = 0;
+    private Token token;
+    private int tokenStart;
+    private int tokenEnd;
+
     /**
      * Constructs a Lexer object with the specified input text.
      *
      * @param text The input text to tokenize.
      */
-    public Lexer(String text) {
-        this.text = text;
-        this.matcher = PATTERN.matcher(text);
-        
+    public Lexer(CharSequence text) {
+        this.text = Objects.requireNonNull(text);
+        this.length = text.length();
+    }
+
+    /**
+     * Moves to the next token of the input text.
+     *
+     * @return true if a token has been found, false if the end of the text has been reached.
+     */
+    public boolean advance() {
+        while (position < length) {
+            int start = position;
+            int end = matchAt(start);
+            if (end >= 0) {
+                tokenStart = start;
+                tokenEnd = end;
+                position = end;
+                return true;
+            }
+            position = start + 1;
+        }
+        token = null;
+        return false;
+    }
+
+    /**
+     * Gets the type of the current token.
+     *
+     * @return The token found by the last call to {@link #advance()}, or null if there is none.
+     */
+    public Token token() {
+        return token;
+    }
+
+    /**
+     * Gets the offset of the first character of the current token.
+     *
+     * @return The start offset of the current token in the text.
+     */
+    public int tokenStart() {
+        return tokenStart;
+    }
+
+    /**
+     * Gets the offset following the last character of the current token.
+     *
+     * @return The end offset of the current token in the text.
+     */
+    public int tokenEnd() {
+        return tokenEnd;
     }
-    
+
     /**
      * Retrieves the next token and its content from the input text.
      *
      * @return The next token and its content as a Result object, or null if no more tokens are found.
      */
     public Result nextResult() {
-       
-        if (!matcher.find(lastEnd)) {
+        if (!advance()) {
             return null;
         }
+        return new Result(token, text.subSequence(tokenStart, tokenEnd).toString());
+    }
 
-        for (Token token : TOKENS) {
-            if (matcher.group(token.ordinal() + 1) != null) {
-                String content = matcher.group(token.ordinal() + 1);
-                lastEnd = matcher.end();
-                return new Result(token, content);
+    /**
+     * Retrieves the content of the next two tokens from the input text without advancing the tokenization.
+     *
+     * @return An array containing the content of the next two tokens, with null entries if fewer tokens are found.
+     */
+    public String[] nextThreeResultsContent() {
+        int originalPosition = position;
+        Token originalToken = token;
+        int originalStart = tokenStart;
+        int originalEnd = tokenEnd;
+        String[] results = new String[2];
+
+        for (int i = 0; i < results.length; i++) {
+            if (!advance()) {
+                break;
             }
+            results[i] = text.subSequence(tokenStart, tokenEnd).toString().trim();
         }
 
-        throw new IllegalStateException("No matching token found.");
+        position = originalPosition;
+        token = originalToken;
+        tokenStart = originalStart;
+        tokenEnd = originalEnd;
+        return results;
     }
-    
+
     /**
-     * Retrieves the content of the next three tokens from the input text without advancing the tokenization.
+     * Tries to match a token starting at the given offset.
      *
-     * @return An array containing the content of the next three tokens, or null if fewer than three tokens are found.
+     * @param start The offset of the first character of the token.
+     * @return The end offset of the token, or -1 if no token starts at this offset.
      */
-    public String[] nextThreeResultsContent() {
-      int originalLastEnd = lastEnd;
-      int rangeOfI = 2;
-      Matcher originalMatcher = PATTERN.matcher(text);
-      originalMatcher.useTransparentBounds(true).useAnchoringBounds(false);
-      originalMatcher.region(lastEnd, text.length());
-
-      String[] results = new String[2];
-
-      for (int i = 0; i < rangeOfI; i++) {
-          Result nextResult = nextResult();
-          if (nextResult == null) {
-              break; 
-          }
-
-          results[i] = nextResult.content().trim();
-          
-      }
-
-      lastEnd = originalLastEnd;
-      matcher.reset();
-      matcher.useTransparentBounds(true).useAnchoringBounds(false);
-      matcher.region(lastEnd, text.length());
-
-      return results;
-  }
+    private int matchAt(int start) {
+        char c = text.charAt(start);
+        int end;
+        switch (c) {
+        case '[':
+            if ((end = matchSectionHeader(start)) >= 0) return found(Token.SECTION_HEADER, end);
+            return found(Token.LEFT_BRACKET, start + 1);
+        case '(':
+            if ((end = matchSize(start)) >= 0) return found(Token.SIZE, end);
+            if ((end = matchZone(start)) >= 0) return found(Token.ZONE, end);
+            if ((end = matchPosition(start)) >= 0) return found(Token.POSITION, end);
+            return found(Token.LEFT_PARENS, start + 1);
+        case '"':
+            if ((end = matchDataBlock(start)) >= 0) return found(Token.DATA_BLOCK, end);
+            return -1;
+        case ')':
+            return found(Token.RIGHT_PARENS, start + 1);
+        case ',':
+            return found(Token.COMMA, start + 1);
+        case ':':
+            return found(Token.COLON, start + 1);
+        case ']':
+            return found(Token.RIGHT_BRACKET, start + 1);
+        default:
+            if (isDigit(c)) return found(Token.NUMBER, skipDigits(start));
+            if (isLetter(c)) return found(Token.IDENTIFIER, skipLetters(start));
+            return -1;
+        }
+    }
+
+    /**
+     * Records the type of the token that has been matched.
+     *
+     * @param matched The type of the token.
+     * @param end     The end offset of the token.
+     * @return The end offset of the token.
+     */
+    private int found(Token matched, int end) {
+        token = matched;
+        return end;
+    }
+
+    /**
+     * Matches a section header such as "[grid]".
+     */
+    private int matchSectionHeader(int start) {
+        int end = start + 1;
+        while (end < length && isWordChar(text.charAt(end))) {
+            end++;
+        }
+        if (end == start + 1 || !isChar(end, ']')) {
+            return -1;
+        }
+        return end + 1;
+    }
+
+    /**
+     * Matches a size such as "(65 x 47)".
+     */
+    private int matchSize(int start) {
+        int end = matchPair(start, 'x');
+        if (end < 0 || !isChar(end, ')')) {
+            return -1;
+        }
+        return end + 1;
+    }
+
+    /**
+     * Matches a position such as "(5, 2)".
+     */
+    private int matchPosition(int start) {
+        int end = matchPair(start, ',');
+        if (end < 0 || !isChar(end, ')')) {
+            return -1;
+        }
+        return end + 1;
+    }
+
+    /**
+     * Matches a zone such as "(38, 24) (10 x 8)".
+     */
+    private int matchZone(int start) {
+        int end = matchPosition(start);
+        if (end < 0) {
+            return -1;
+        }
+        end = skipSpaces(end);
+        if (!isChar(end, '(')) {
+            return -1;
+        }
+        return matchSize(end);
+    }
+
+    /**
+     * Matches an opening parenthesis followed by two numbers around a separator, with optional
+     * spaces between them and before the closing parenthesis.
+     *
+     * @return The offset where the closing parenthesis is expected, or -1 if the text does not match.
+     */
+    private int matchPair(int start, char separator) {
+        int end = skipSpaces(start + 1);
+        if (end >= length || !isDigit(text.charAt(end))) {
+            return -1;
+        }
+        end = skipSpaces(skipDigits(end));
+        if (!isChar(end, separator)) {
+            return -1;
+        }
+        end = skipSpaces(end + 1);
+        if (end >= length || !isDigit(text.charAt(end))) {
+            return -1;
+        }
+        return skipSpaces(skipDigits(end));
+    }
+
+    /**
+     * Matches a data block, from an opening triple quote to the nearest closing triple quote.
+     */
+    private int matchDataBlock(int start) {
+        if (!startsWithDelimiter(start)) {
+            return -1;
+        }
+        for (int end = start + DATA_DELIMITER.length(); end + DATA_DELIMITER.length() <= length; end++) {
+            if (startsWithDelimiter(end)) {
+                return end + DATA_DELIMITER.length();
+            }
+        }
+        return -1;
+    }
+
+    private boolean startsWithDelimiter(int offset) {
+        return isChar(offset, '"') && isChar(offset + 1, '"') && isChar(offset + 2, '"');
+    }
+
+    private boolean isChar(int offset, char expected) {
+        return offset < length && text.charAt(offset) == expected;
+    }
+
+    private int skipSpaces(int offset) {
+        while (offset < length && isSpace(text.charAt(offset))) {
+            offset++;
+        }
+        return offset;
+    }
+
+    private int skipDigits(int offset) {
+        while (offset < length && isDigit(text.charAt(offset))) {
+            offset++;
+        }
+        return offset;
+    }
+
+    private int skipLetters(int offset) {
+        while (offset < length && isLetter(text.charAt(offset))) {
+            offset++;
+        }
+        return offset;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isWordChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '_';
+    }
 
 }
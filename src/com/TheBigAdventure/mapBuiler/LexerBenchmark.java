@@ -0,0 +1,120 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Benchmark comparing the state machine {@link Lexer} with the regular expression {@link RegexLexer}.
+ * <p>
+ * Both lexers tokenize the same texts: a map file given as argument (maps/fun.map by default)
+ * and synthetic maps of about 1 MB and 100 MB. The benchmark first checks that both lexers
+ * produce the same tokens, then prints the best time of several runs of each lexer.
+ * <p>
+ * Usage: {@code java -Xmx2g -cp out com.TheBigAdventure.mapBuiler.LexerBenchmark [map file]}
+ */
+final class LexerBenchmark {
+
+  private static final int RUNS = 5;
+  private static final String ENCODINGS = "LAVA(L) PLANK(p) GRASS(g) TREE(T) TREES(E) FLOWER(f) WALL(W) WATER(Z)";
+  private static final String ROW_PATTERN = "EWTZ  g f  LL  p  ZZZ    T   ";
+
+  private LexerBenchmark() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    String mapPath = args.length > 0 ? args[0] : "maps/fun.map";
+
+    run(mapPath, Files.readString(Path.of(mapPath)));
+    run("synthetic 1 MB", syntheticMap(1 << 20));
+    run("synthetic 100 MB", syntheticMap(100 << 20));
+  }
+
+  /**
+   * Checks both lexers on the text then prints their timings.
+   *
+   * @param name The name of the text in the report.
+   * @param text The text to tokenize.
+   */
+  private static void run(String name, String text) {
+    int tokens = checkSameTokens(text);
+    long regexNanos = Long.MAX_VALUE;
+    long stateMachineNanos = Long.MAX_VALUE;
+    for (int i = 0; i < RUNS; i++) {
+      regexNanos = Math.min(regexNanos, timeRegexLexer(text));
+      stateMachineNanos = Math.min(stateMachineNanos, timeLexer(text));
+    }
+    System.out.printf("%-20s %,12d chars %,10d tokens  regex %10.3f ms  state machine %10.3f ms  x%.1f%n",
+        name, text.length(), tokens, regexNanos / 1e6, stateMachineNanos / 1e6, regexNanos / (double) stateMachineNanos);
+  }
+
+  private static long timeRegexLexer(String text) {
+    long start = System.nanoTime();
+    RegexLexer lexer = new RegexLexer(text);
+    while (lexer.nextResult() != null) {
+      // only the tokenization is measured
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static long timeLexer(String text) {
+    long start = System.nanoTime();
+    Lexer lexer = new Lexer(text);
+    while (lexer.advance()) {
+      // only the tokenization is measured
+    }
+    return System.nanoTime() - start;
+  }
+
+  /**
+   * Tokenizes the text with both lexers and compares the results.
+   *
+   * @param text The text to tokenize.
+   * @return The number of tokens of the text.
+   * @throws IllegalStateException if the lexers disagree.
+   */
+  private static int checkSameTokens(String text) {
+    RegexLexer regexLexer = new RegexLexer(text);
+    Lexer lexer = new Lexer(text);
+    int tokens = 0;
+    while (true) {
+      Result expected = regexLexer.nextResult();
+      Result actual = lexer.nextResult();
+      if (expected == null && actual == null) {
+        return tokens;
+      }
+      if (expected == null || !expected.equals(actual)) {
+        throw new IllegalStateException("Lexers disagree at token " + tokens + ": " + expected + " / " + actual);
+      }
+      tokens++;
+    }
+  }
+
+  /**
+   * Builds a valid map text of about the given size, made mostly of its data section.
+   *
+   * @param targetChars The approximate number of characters of the map.
+   * @return The text of the map.
+   */
+  static String syntheticMap(int targetChars) {
+    int width = (int) Math.max(16, Math.sqrt(targetChars));
+    int height = Math.max(3, targetChars / (width + 3));
+    StringBuilder builder = new StringBuilder(targetChars + 1024);
+    builder.append("[grid]\n  encodings: ").append(ENCODINGS).append('\n');
+    builder.append("  size: (").append(width).append(" x ").append(height).append(")\n");
+    builder.append("  data: \"\"\"\n");
+    for (int y = 0; y < height; y++) {
+      builder.append("  ");
+      for (int x = 0; x < width; x++) {
+        boolean border = y == 0 || y == height - 1 || x == 0 || x == width - 1;
+        builder.append(border ? 'W' : ROW_PATTERN.charAt((x + y) % ROW_PATTERN.length()));
+      }
+      builder.append('\n');
+    }
+    builder.append("  \"\"\"\n\n");
+    builder.append("[element]\n  name: fluffy\n  player: true\n  skin: BABA\n  position: (1,1)\n  health: 10\n\n");
+    builder.append("[element]\n  name: waldo\n  skin: MONSTER\n  position: (2, 2)\n  kind: enemy\n")
+           .append("  health: 10\n  zone: (1, 1) (10 x 8)\n  behavior: stroll\n  damage: 5\n");
+    return builder.toString();
+  }
+}
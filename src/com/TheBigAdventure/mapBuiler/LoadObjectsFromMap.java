@@ -1,19 +1,13 @@
 package com.TheBigAdventure.mapBuiler;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
 import com.TheBigAdventure.characterEntities.Character;
-import com.TheBigAdventure.characterEntities.CharacterType;
 import com.TheBigAdventure.characterEntities.Player;
-import com.TheBigAdventure.groundEntities.DecorationType;
 import com.TheBigAdventure.groundEntities.Environnement;
-import com.TheBigAdventure.groundEntities.ObstacleType;
-import com.TheBigAdventure.groundEntities.biomeType;
 import com.TheBigAdventure.usableEntities.InsideInventory;
-import com.TheBigAdventure.usableEntities.ItemType;
 
 public class LoadObjectsFromMap {
 
@@ -44,7 +38,7 @@ public class LoadObjectsFromMap {
    *                       map.
    */
   private void loadCharacter(GameMap gameMap, ObjectFromSkin object, Position objectPosition,
-      Map<Position, Case> grid) {
+      MapGrid grid) {
 
     if (object.isCharacter()) {
 
@@ -57,20 +51,22 @@ public class LoadObjectsFromMap {
         gameMap.setPlayerPosition(objectPosition);
         // System.out.println(characterEntity.toString());
       } else {
-        CharacterType entityType;
-        entityType = CharacterType.fromString(object.getObjectSkin());
-        characterEntity = entityType.createCharacter(object);
+        characterEntity = object.getSkin().createCharacter(object);
       }
 
-      caseGrid = grid.get(objectPosition);
+      caseGrid = grid.getCase(objectPosition);
       if (caseGrid == null) {
-        grid.put(objectPosition, new Case(characterEntity));
+        grid.setCase(objectPosition, new Case(characterEntity));
 
       } else {
 
         gameMap.updateCase(objectPosition, Optional.ofNullable(characterEntity), Character::updateCharacterInCase);
 
       }
+      gameMap.getCharacterIndex().insert(characterEntity, objectPosition);
+      if (characterEntity.isEnemy()) {
+        gameMap.registerEnemy(characterEntity);
+      }
 
       return;
 
@@ -88,23 +84,22 @@ public class LoadObjectsFromMap {
    * @param grid           The grid representing the current state of the game
    *                       map.
    */
-  private void loadItem(GameMap gameMap, ObjectFromSkin object, Position objectPosition, Map<Position, Case> grid) {
+  private void loadItem(GameMap gameMap, ObjectFromSkin object, Position objectPosition, MapGrid grid) {
 
     if (object.isInsideInventory()) {
-      ItemType entityItemType;
       Case caseGrid;
       InsideInventory item;
 
-      entityItemType = ItemType.fromString(object.getObjectSkin());
-      item = entityItemType.createItem(object);
-      caseGrid = grid.get(objectPosition);
+      item = object.getSkin().createItem(object);
+      caseGrid = grid.getCase(objectPosition);
       if (caseGrid == null) {
-        grid.put(objectPosition, new Case(item));
+        grid.setCase(objectPosition, new Case(item));
 
       } else {
         gameMap.updateCase(object.getPosition(), Optional.ofNullable(item), InsideInventory::updateItemInCase);
 
       }
+      gameMap.getItemIndex().insert(item, objectPosition);
 
       return;
     }
@@ -126,28 +121,16 @@ public class LoadObjectsFromMap {
    *                       map.
    */
   private void loadEnvironnement(GameMap gameMap, ObjectFromSkin object, Position objectPosition,
-      Map<Position, Case> grid) {
+      MapGrid grid) {
 
     if (object.isEnvironnement()) {
       Case caseGrid;
-      Environnement environnementEntity = null;
-      if (DecorationType.fromString(object.getObjectSkin()) != null) {
-        environnementEntity = DecorationType.loadEnvironnement(object);
-
-      }
-      if (ObstacleType.fromString(object.getObjectSkin()) != null) {
-        environnementEntity = ObstacleType.loadEnvironnement(object);
-
-      }
-      if (biomeType.fromString(object.getObjectSkin()) != null) {
-        environnementEntity = biomeType.loadEnvironnement(object);
-
-      }
-      caseGrid = grid.get(objectPosition);
+      Environnement environnementEntity = object.getSkin().environnement();
+      caseGrid = grid.getCase(objectPosition);
       if (caseGrid == null) {
         caseGrid = new Case(environnementEntity);
-        grid.put(objectPosition, caseGrid);
-        // System.out.println(grid.get(objectPosition).toString());
+        grid.setCase(objectPosition, caseGrid);
+        // System.out.println(grid.getCase(objectPosition).toString());
         // System.out.println(objectPosition.toString());
 
       } else {
@@ -168,10 +151,10 @@ public class LoadObjectsFromMap {
    * @param gameMap The game map where objects will be loaded.
    * @return The updated grid of the game map after all objects have been loaded.
    */
-  public Map<Position, Case> loadObjectsInMap(GameMap gameMap) {
+  public MapGrid loadObjectsInMap(GameMap gameMap) {
     Objects.requireNonNull(gameMap);
     Position objectPosition;
-    Map<Position, Case> grid = null;
+    MapGrid grid = null;
     for (ObjectFromSkin object : objectsToLoad) {
       Objects.requireNonNull(objectsToLoad);
 
@@ -183,6 +166,7 @@ public class LoadObjectsFromMap {
       loadItem(gameMap, object, objectPosition, grid);
 
     }
+    gameMap.buildEnemyZones();
     return gameMap.getGrid();
   }
 
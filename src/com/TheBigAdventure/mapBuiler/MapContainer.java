@@ -6,19 +6,22 @@ import java.util.Map;
 import java.util.Objects;
 
 /**
- * Record representing a container for map-related data, including map dimensions and a list of map elements.
+ * Record representing a container for map-related data, including map dimensions, a list of map elements
+ * and the decoded data section.
  */
-record MapContainer(int[] mapDimensions, List<Map<String, String>> listOfElements) {
+record MapContainer(int[] mapDimensions, List<Map<String, String>> listOfElements, DataBlock dataBlock) {
 	
     /**
-     * Constructs a MapContainer with the specified map dimensions and list of elements.
+     * Constructs a MapContainer with the specified map dimensions, list of elements and data section.
      *
      * @param mapDimensions  The dimensions of the map.
      * @param listOfElements The list of elements in the map.
+     * @param dataBlock      The decoded data section of the map.
      */
 	public MapContainer {
     Objects.requireNonNull(mapDimensions, "mapDimensions cannot be null");
     Objects.requireNonNull(listOfElements, "listOfElements cannot be null");
+    Objects.requireNonNull(dataBlock, "dataBlock cannot be null");
   }
   
     /**
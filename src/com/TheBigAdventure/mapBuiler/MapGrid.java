@@ -0,0 +1,87 @@
+package com.TheBigAdventure.mapBuiler;
+
+/**
+ * Storage of the cases of a game map, addressed by their position on the grid.
+ * <p>
+ * Implementations are sized once from the {@link MapSize} of the map. Iterating over a grid
+ * returns its cases row by row, from the top-left corner to the bottom-right corner, skipping
+ * the positions where no case has been set yet.
+ */
+public interface MapGrid extends Iterable<Case> {
+
+  /**
+   * Gets the number of columns of the grid.
+   *
+   * @return The width of the grid.
+   */
+  int width();
+
+  /**
+   * Gets the number of rows of the grid.
+   *
+   * @return The height of the grid.
+   */
+  int height();
+
+  /**
+   * Checks if the given coordinates are inside the bounds of the grid.
+   *
+   * @param x The x-coordinate to check.
+   * @param y The y-coordinate to check.
+   * @return true if the coordinates are inside the grid, false otherwise.
+   */
+  default boolean isInside(int x, int y) {
+    return x >= 0 && y >= 0 && x < width() && y < height();
+  }
+
+  /**
+   * Checks if the given position is inside the bounds of the grid.
+   *
+   * @param position The position to check.
+   * @return true if the position is inside the grid, false otherwise.
+   */
+  default boolean isInside(Position position) {
+    return isInside(position.getX(), position.getY());
+  }
+
+  /**
+   * Retrieves the case at the given coordinates.
+   *
+   * @param x The x-coordinate of the case.
+   * @param y The y-coordinate of the case.
+   * @return The case at these coordinates, or null if the coordinates are outside the grid or no case is set.
+   */
+  Case getCase(int x, int y);
+
+  /**
+   * Retrieves the case at the given position.
+   *
+   * @param position The position of the case.
+   * @return The case at this position, or null if the position is outside the grid or no case is set.
+   */
+  default Case getCase(Position position) {
+    return getCase(position.getX(), position.getY());
+  }
+
+  /**
+   * Sets the case at the given coordinates. Different coordinates may be set concurrently by
+   * different threads, like the rows of a map filled in parallel.
+   *
+   * @param x       The x-coordinate of the case.
+   * @param y       The y-coordinate of the case.
+   * @param caseObj The case to place at these coordinates.
+   * @throws IllegalArgumentException if the coordinates are outside the grid.
+   */
+  void setCase(int x, int y, Case caseObj);
+
+  /**
+   * Sets the case at the given position.
+   *
+   * @param position The position of the case.
+   * @param caseObj  The case to place at this position.
+   * @throws IllegalArgumentException if the position is outside the grid.
+   */
+  default void setCase(Position position, Case caseObj) {
+    setCase(position.getX(), position.getY(), caseObj);
+  }
+}
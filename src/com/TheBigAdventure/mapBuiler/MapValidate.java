@@ -1,6 +1,5 @@
 package com.TheBigAdventure.mapBuiler;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -15,19 +14,19 @@ public class MapValidate {
 	 * 
 	 * @param sizeContent The size section.
 	 * @param encodingContent The encoding section.
-	 * @param dataContent The data section.
+	 * @param dataDefined Whether the data section has been found.
 	 * 
 	 * @throws IllegalArgumentException If the size content, encoding content, or data content is empty.
 	 *     The exception message specifies which section is empty.
 	 */
-	public static void validateSectionNotEmpty(String sizeContent, Map<String, String> encodingContent, String dataContent) {
+	public static void validateSectionNotEmpty(String sizeContent, Map<String, String> encodingContent, boolean dataDefined) {
 		if(sizeContent == null) {
 			throw new IllegalArgumentException("Size section is not defined");
 		}
 		if(encodingContent.isEmpty()) {
 			throw new IllegalArgumentException("Encodings  section is not defined");
 		}
-		if(dataContent == null) {
+		if(!dataDefined) {
 			throw new IllegalArgumentException("Data section is not defined");
 		}
 	}
@@ -237,79 +236,10 @@ public class MapValidate {
 		return erreur;
 	}
 	
-	/**
-	 * Validates the data section with respect to size content, encoding content, and overall structure.
-	 * 
-	 * @param dataContent The map content to be validated.
-	 * @param encodingContent The encoding content to be used for validation.
-	 * @param sizeContent The size content to be used for validation.
-	 * 
-	 * @throws NullPointerException If any of the input parameters (dataContent, encodingContent, sizeContent) is null.
-	 * @throws IllegalArgumentException If the dimensions of the data do not match the specified size content,
-	 *     if the first line does not conform to the specified encoding content,
-	 *     if the body data does not conform to the specified encoding content,
-	 *     or if the last line does not conform to the specified encoding content.
-	 */
-	public static void validatedata(String dataContent, Map<String, String> encodingContent, String sizeContent) {
-    	Objects.requireNonNull(dataContent);
-    	Objects.requireNonNull(encodingContent);
-    	Objects.requireNonNull(sizeContent);
-    	int erreur = 0;
-    	String[] line = convertChaine(dataContent); //convert string to String[]
-    	
-    	erreur += validateDimensionData(line, sizeContent); //check the length of the lines and the number of lines
-    	erreur += validateFirstLine(line, encodingContent); //check the first line
-    	erreur += validateBodyData(line, encodingContent); //check the body of the map
-		erreur += validateLastLine(line, encodingContent); //check the last line
-		
-		if(erreur != 0) {
-			throw new IllegalArgumentException("Data section error");
-		}
-    }
-	
-	/**
-	 * Converts a string representation of data section into an array of trimmed lines.
-	 * 
-	 * @param dataContent The string representation of data section to be converted.
-	 * @return An array of trimmed lines extracted from the input string.
-	 * 
-	 * @throws NullPointerException If the input parameter (dataContent) is null.
-	 */
-	public static String[] convertChaine(String dataContent) {
-		Objects.requireNonNull(dataContent);
-		String[] lines = dataContent.replace("\"", "").trim().split("\n"); //remove quotes at the start and end of the data section and convert String to String[]
-		for(int i = 0; i < lines.length; i++) {
-			lines[i] = lines[i].trim(); //remove spaces at the star and end for each lines
-		}
-		return lines;
-	}
-	
-	/**
-	 * Validates the dimensions of the data section based on the specified size content.
-	 * 
-	 * @param line The array of lines representing the data section.
-	 * @param sizeContent The size content specifying the expected dimensions in the format "width x height".
-	 * 
-	 * @throws IllegalArgumentException If the actual number of lines does not match the specified height,
-	 *     or if the number of characters in any line does not match the specified width.
-	 * @throws NumberFormatException If there is an error parsing the width or height from the size content.
-	 */
-	private static int validateDimensionData(String[] line, String sizeContent) {
-		Objects.requireNonNull(line);
-		Objects.requireNonNull(sizeContent);
-		String[] sizeParts = getDimenssion(sizeContent); //get dimension values 
-		int erreur = 0;
-		erreur += validateCountLine(line, Integer.parseInt(sizeParts[1])); //check the number of lines (represents the height)
-		for(int i = 0; i < line.length; i++) {
-			erreur += validateCountCol(line[i], i + 1, Integer.parseInt(sizeParts[0]));//check line by line the number of character (represents the width)
-		}
-		return erreur;
-	}
-	
 	/**
 	 * Validates the number of lines in the data section.
 	 * 
-	 * @param line The array of lines representing the data section.
+	 * @param heigth The actual number of lines of the data section.
 	 * @param ExpectedHeight The expected number of lines (height).
 	 * 
 	 * @throws IllegalArgumentException If the actual number of lines is less than the expected height, 
@@ -317,11 +247,8 @@ public class MapValidate {
 	 *     If the actual number of lines is greater than the expected height, 
 	 *     an error message is printed indicating that the map height is too large.
 	 */
-	private static int validateCountLine(String[] line, int ExpectedHeight) {
-		Objects.requireNonNull(line);
-		Objects.requireNonNull(ExpectedHeight);
+	protected static int validateCountLine(int heigth, int ExpectedHeight) {
 		int erreur = 0;
-		int heigth = line.length;
 		if(heigth != ExpectedHeight) {
 			erreur++;
 			if(heigth < ExpectedHeight) {
@@ -339,216 +266,95 @@ public class MapValidate {
 	 * @param ligne The string representing a line in the data section.
 	 * @param indice The index of the line being validated.
 	 * @param ExpectedWidth The expected number of characters in the line (width).
+	 * @param errors The list receiving the error messages, in the order they are found.
 	 * 
 	 * @throws IllegalArgumentException If the actual number of characters in the line is less than the expected width, 
-	 *     an error message is printed indicating that the line is too short (column count error).
+	 *     an error message is added indicating that the line is too short (column count error).
 	 *     If the actual number of characters in the line is greater than the expected width, 
-	 *     an error message is printed indicating that the line is too long (column count error).
+	 *     an error message is added indicating that the line is too long (column count error).
 	 */
-	private static int validateCountCol(String ligne, int indice, int ExpectedWidth) {
+	protected static int validateCountCol(String ligne, int indice, int ExpectedWidth, List<String> errors) {
 		Objects.requireNonNull(ligne);
-		Objects.requireNonNull(indice);
-		Objects.requireNonNull(ExpectedWidth);
+		Objects.requireNonNull(errors);
 		int size = ligne.length();
 		int erreur = 0;
 		if(size != ExpectedWidth) {
 			erreur++;
 			if(size < ExpectedWidth) {
-				System.out.println("ERROR line " + indice + " too short,the number of colums must be equal to the Width in Size section");
+				errors.add("ERROR line " + indice + " too short,the number of colums must be equal to the Width in Size section");
 			}
 			else {
-			  System.out.println("ERROR line " + indice + " too long,the number of colums must be equal to the Width in Size section");
-			}
-		}
-		return erreur;
-	}
-	
-	/**
-	 * Validates the first line of data section based on the specified encoding content.
-	 * 
-	 * @param line The array of lines representing the data section.
-	 * @param encodingContent The encoding content to be used for validation.
-	 * 
-	 * @throws IllegalArgumentException If any character in the first line is not recognized according to the encoding content,
-	 *     an error message is printed indicating the position of the unrecognized character.
-	 */
-	private static int validateFirstLine(String[] line, Map<String, String> encodingContent){
-		Objects.requireNonNull(line);
-		Objects.requireNonNull(encodingContent);
-		int sizeLine = line[0].length();
-		int erreur = 0;
-		for(int i = 0; i < sizeLine; i++) { //browse character by character of the first line
-			String elem = line[0].charAt(i) + ""; //covert char to String
-			if(!encodingContent.containsValue(elem)) { //check if the current character belongs to the encodings section
-				System.out.println("error line 1, column " + (i+1)+" code "+elem+" not recognized based on the encodings");
-				erreur++;
+			  errors.add("ERROR line " + indice + " too long,the number of colums must be equal to the Width in Size section");
 			}
 		}
 		return erreur;
 	}
 	
 	/**
-	 * Validates the last line of data section based on the specified encoding content.
+	 * Validates the first or the last line of data section based on the specified encoding table.
+	 * Every character of these lines must belong to the encodings section.
 	 * 
-	 * @param line The array of lines representing the data content.
-	 * @param encodingContent The encoding content to be used for validation.
-	 * 
-	 * @throws IllegalArgumentException If any character in the last line is not recognized according to the encoding content,
-	 *     an error message is printed indicating the position of the unrecognized character.
-	 */
-	private static int validateLastLine(String[] line, Map<String, String> encodingContent){
-		Objects.requireNonNull(line);
-		Objects.requireNonNull(encodingContent);
-		int erreur = 0;
-		int indiceLine = line.length;
-		int sizeLine = line[indiceLine - 1].length(); //size of the last line
-		for(int i = 0; i < sizeLine; i++) { //browse character by character the last line
-			String elem = line[indiceLine - 1].charAt(i) + ""; //String to String[]
-			if(!encodingContent.containsValue(elem)) { //check if the current character belongs to the encodings section
-				System.out.println("error line " + indiceLine + ", column " + (i+1)+" code "+elem+"not recognized based on the encodings");
-				erreur++;
-			}
-		}
-		return erreur;
-	}
-	
-	/**
-	 * Validates the body of the data section excluding the first and last lines, based on the specified encoding content.
-	 * 
-	 * @param line The array of lines representing the data section.
-	 * @param contentEncoding The encoding content to be used for validation.
-	 * 
-	 * @throws IllegalArgumentException If the first character of any line is not recognized according to the encoding content,
-	 *     an error message is printed indicating the position of the unrecognized character.
-	 *     If the last character of any line is not recognized according to the encoding content,
-	 *     an error message is printed indicating the position of the unrecognized character.
-	 *     If any character in the body of the data content is not recognized according to the encoding content,
-	 *     an error message is printed indicating the position of the unrecognized character.
-	 */
-	private static int validateBodyData(String[] line, Map<String, String> contentEncoding) {
-		Objects.requireNonNull(line);
-		Objects.requireNonNull(contentEncoding);
-		int erreur = 0;
-		for(int i = 1; i < line.length - 1; i++) {
-			erreur += validateFirstChar(line[i], i+1, contentEncoding); //first character of line
-			erreur += validateLastChar(line[i], i+1, contentEncoding); //last character of line
-			erreur += validateContentMap(line[i], contentEncoding, i+1);//check the content line by line
-		}
-		return erreur;
-	}
-	
-	/**
-	 * Validates the first character of a specific line in the data section based on the specified encoding content.
-	 * 
-	 * @param ligne The string representing a line in the data section.
+	 * @param ligne The string representing the first or the last line of the data section.
 	 * @param indice The index of the line being validated.
-	 * @param contentEncoding The encoding content to be used for validation.
+	 * @param encodings The compiled encodings to be used for validation.
+	 * @param errors The list receiving the error messages, in the order they are found.
 	 * 
-	 * @throws IllegalArgumentException If the first character of the line is not recognized according to the encoding content,
-	 *     an error message is printed indicating the position and the unrecognized character.
+	 * @throws IllegalArgumentException If any character in the line is not recognized according to the encodings,
+	 *     an error message is added indicating the position of the unrecognized character.
 	 */
-	private static int validateFirstChar(String ligne, int indice, Map<String, String> contentEncoding) {
+	protected static int validateBorderLine(String ligne, int indice, EncodingTable encodings, List<String> errors){
 		Objects.requireNonNull(ligne);
-		Objects.requireNonNull(indice);
-		Objects.requireNonNull(contentEncoding);
+		Objects.requireNonNull(encodings);
+		Objects.requireNonNull(errors);
+		int sizeLine = ligne.length();
 		int erreur = 0;
-		String firstCaractere = ligne.charAt(0) + ""; //String to String[]
-		if(!contentEncoding.containsValue(firstCaractere)) { //check if the character belongs to the encodings section
-			System.out.println("ERROR character at line " + indice + " column: " + firstCaractere + " not recognized");
-			erreur++;
+		for(int i = 0; i < sizeLine; i++) { //browse character by character of the line
+			char elem = ligne.charAt(i);
+			if(!encodings.contains(elem)) { //check if the current character belongs to the encodings section
+				errors.add("error line " + indice + ", column " + (i+1)+" code "+elem+" not recognized based on the encodings");
+				erreur++;
+			}
 		}
 		return erreur;
 	}
 	
 	/**
-	 * Validates the last character of a specific line in the data content based on the specified encoding section.
+	 * Validates a line of the body of the data section, which is neither the first nor the last line,
+	 * based on the specified encoding table. The line is checked in a single pass, so the errors are
+	 * reported in column order.
 	 * 
 	 * @param ligne The string representing a line in the data section.
 	 * @param indice The index of the line being validated.
-	 * @param contentEncoding The encoding content to be used for validation.
+	 * @param encodings The compiled encodings to be used for validation.
+	 * @param errors The list receiving the error messages, in the order they are found.
 	 * 
-	 * @throws IllegalArgumentException If the last character of the line is not recognized according to the encoding content,
-	 *     an error message is printed indicating the position and the unrecognized character.
+	 * @throws IllegalArgumentException If the first or the last character of the line is not recognized according to the encodings,
+	 *     or if any character in the body of the line is neither blank nor recognized according to the encodings,
+	 *     an error message is added indicating the position of the unrecognized character.
 	 */
-	private static int validateLastChar(String ligne, int indice, Map<String, String> contentEncoding) {
+	protected static int validateBodyLine(String ligne, int indice, EncodingTable encodings, List<String> errors) {
 		Objects.requireNonNull(ligne);
-		Objects.requireNonNull(indice);
-		Objects.requireNonNull(contentEncoding);
+		Objects.requireNonNull(encodings);
+		Objects.requireNonNull(errors);
 		int erreur = 0;
 		int lastcol = ligne.length();
-		String lastCaractere = ligne.charAt(lastcol - 1) + ""; //String to String[]
-		if(!contentEncoding.containsValue(lastCaractere)) { ///check if the character belongs to the encodings section
-			System.out.println("ERROR character at line " + indice + " column " + lastcol + " : " + lastCaractere + "not recognized");
-			erreur++;
-		}
-		return erreur;
-	}
-	
-	/**
-	 * Validates the content of a specific line in the data section excluding the first and last characters,
-	 * based on the specified encoding content.
-	 * 
-	 * @param ligne The string representing a line in the data content.
-	 * @param contentEncoding The encoding content to be used for validation.
-	 * @param indice The index of the line being validated.
-	 * 
-	 * @throws IllegalArgumentException If any character in the body of the line (excluding the first and last characters)
-	 *     is not recognized according to the encoding content, an error message is printed indicating the position and
-	 *     the unrecognized character.
-	 */
-	private static int validateContentMap(String ligne, Map<String, String> contentEncoding, int indice) {
-		Objects.requireNonNull(ligne);
-		Objects.requireNonNull(contentEncoding);
-		Objects.requireNonNull(indice);
-		int erreur = 0;
-		for(int i = 1; i < ligne.length() - 1; i++) { //the first and last character of the line have already been checked
-			if(!contentEncoding.containsValue(String.valueOf(ligne.charAt(i))) && ligne.charAt(i) != ' ') { //if it is not the empty character we checked if it belongs to the encoding section
-				System.out.println("ERROR element not recognized at line " + indice + " column " + (i+1));
+		for(int i = 0; i < lastcol; i++) {
+			char elem = ligne.charAt(i);
+			if(encodings.contains(elem)) {
+				continue;
+			}
+			if(i == 0) { //the borders of the line must be recognized
+				errors.add("ERROR character at line " + indice + " column: " + elem + " not recognized");
+				erreur++;
+			} else if(i == lastcol - 1) {
+				errors.add("ERROR character at line " + indice + " column " + lastcol + " : " + elem + "not recognized");
+				erreur++;
+			} else if(elem != ' ') { //inside the line the empty character is allowed
+				errors.add("ERROR element not recognized at line " + indice + " column " + (i+1));
 				erreur++;
 			}
 		}
 		return erreur;
 	}
-	
-	
-	private static String getKeyFromValue(Map<String, String> map, String value) {
-    for (Map.Entry<String, String> entry : map.entrySet()) {
-        if (Objects.equals(entry.getValue(), value)) {
-            return entry.getKey();
-        }
-    }
-    return null; 
-	}
-
-
-	protected static void getDataMapElements( List<Map<String, String>> listOfElements,String dataContent,Map<String, String> encodingsMap) {
-	  String[] dataLines = convertChaine(dataContent);
-	  String skin;
-	  
-	  Map<String,String> tmpMap = new HashMap<>();
-	  for(int i = 0;i<dataLines.length;i++) {
-	    for(int j =0;j<dataLines[i].length();j++) {
-	      //System.out.print(String.valueOf(dataLines[i].charAt(j)));
-	      skin =getKeyFromValue(encodingsMap,String.valueOf(dataLines[i].charAt(j)));
-	      
-	      if(skin == null) {
-	        tmpMap.put("skin","VOID");
-	        tmpMap.put("position","("+j+","+i+")");
-	        tmpMap.put("entityOrElement","element");
-	        listOfElements.add(new HashMap<>(tmpMap));
-	        tmpMap.clear();
-	      }
-	      else {
-	        tmpMap.put("skin",skin);
-          tmpMap.put("position","("+j+","+i+")");
-          tmpMap.put("entityOrElement","element");
-          
-          listOfElements.add(new HashMap<>(tmpMap));
-          tmpMap.clear();
-	      }
-	      
-	    }
-	  }
-	}
 
-}
+}
\ No newline at end of file
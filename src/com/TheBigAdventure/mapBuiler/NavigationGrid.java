@@ -0,0 +1,115 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.util.Objects;
+
+/**
+ * The tiles of a map that characters can walk through, used by the pathfinding.
+ * <p>
+ * A tile is navigable when its case is walkable, the characters standing on it aside: they move
+ * every tick and would make any path stale at once, so they are checked when a character actually
+ * moves. The tiles are stored as one bit per tile, row by row, and are updated one at a time when
+ * a case of the map changes. The version of the grid changes with every navigable tile that
+ * changes, so that the results computed from the grid can be dropped when it is stale.
+ */
+final class NavigationGrid {
+
+  private final int width;
+  private final int height;
+  private final long[] bits;
+  private int version;
+
+  /**
+   * Builds the navigation grid of a map grid.
+   *
+   * @param grid The grid of the map.
+   * @throws NullPointerException if grid is null.
+   */
+  NavigationGrid(MapGrid grid) {
+    Objects.requireNonNull(grid);
+    this.width = grid.width();
+    this.height = grid.height();
+    this.bits = new long[(width * height + Long.SIZE - 1) / Long.SIZE];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        if (isNavigable(grid.getCase(x, y))) {
+          int tile = y * width + x;
+          bits[tile >>> 6] |= 1L << tile;
+        }
+      }
+    }
+  }
+
+  private static boolean isNavigable(Case caseObj) {
+    return caseObj != null && !caseObj.getEnvironnement().isObstacle() && caseObj.getInsideInventory().isEmpty();
+  }
+
+  /**
+   * Gets the width of the grid.
+   *
+   * @return The number of columns.
+   */
+  int width() {
+    return width;
+  }
+
+  /**
+   * Gets the height of the grid.
+   *
+   * @return The number of rows.
+   */
+  int height() {
+    return height;
+  }
+
+  /**
+   * Gets the version of the grid, changed every time a tile becomes navigable or stops being so.
+   *
+   * @return The version of the grid.
+   */
+  int version() {
+    return version;
+  }
+
+  /**
+   * Checks whether a tile is navigable.
+   *
+   * @param tile The index of the tile, y * width + x.
+   * @return true if the tile is navigable.
+   */
+  boolean isNavigable(int tile) {
+    return (bits[tile >>> 6] & (1L << tile)) != 0;
+  }
+
+  /**
+   * Checks whether a tile is inside the map and navigable.
+   *
+   * @param x The x-coordinate of the tile.
+   * @param y The y-coordinate of the tile.
+   * @return true if the tile is navigable.
+   */
+  boolean isNavigable(int x, int y) {
+    return x >= 0 && x < width && y >= 0 && y < height && isNavigable(y * width + x);
+  }
+
+  /**
+   * Updates a tile after its case changed. Tiles outside the map are ignored.
+   *
+   * @param x       The x-coordinate of the tile.
+   * @param y       The y-coordinate of the tile.
+   * @param caseObj The new case of the tile.
+   * @return true if the tile became navigable or stopped being so.
+   */
+  boolean update(int x, int y, Case caseObj) {
+    if (x < 0 || x >= width || y < 0 || y >= height) {
+      return false;
+    }
+    int tile = y * width + x;
+    boolean navigable = isNavigable(caseObj);
+    if (navigable == isNavigable(tile)) {
+      return false;
+    }
+    bits[tile >>> 6] ^= 1L << tile;
+    version++;
+    return true;
+  }
+}
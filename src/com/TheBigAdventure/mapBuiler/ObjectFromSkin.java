@@ -3,18 +3,13 @@ package com.TheBigAdventure.mapBuiler;
 import java.util.Map;
 import java.util.Objects;
 
-import com.TheBigAdventure.characterEntities.CharacterType;
-import com.TheBigAdventure.characterEntities.PlayerSkins;
-import com.TheBigAdventure.groundEntities.DecorationType;
-import com.TheBigAdventure.groundEntities.ObstacleType;
-import com.TheBigAdventure.groundEntities.biomeType;
-import com.TheBigAdventure.usableEntities.ItemType;
-
 /**
  * Represents an object in the map based on its skin, values, and whether it's an entity or an element.
+ * The skin is resolved once in the {@link SkinRegistry} when the object is created.
  */
 public final class ObjectFromSkin {
   private final String objectSkin;
+  private final SkinRegistry.Skin skin;
   private final Map<String, String> objectValues;
   private final boolean entityOrElement;
   
@@ -29,6 +24,7 @@ public final class ObjectFromSkin {
     Objects.requireNonNull(objectSkin);
     Objects.requireNonNull(objectValues);
     this.objectSkin = objectSkin;
+    this.skin = SkinRegistry.resolve(objectSkin);
     this.objectValues = objectValues;
     this.entityOrElement = entityOrElement;
   }
@@ -60,6 +56,24 @@ public final class ObjectFromSkin {
     return objectSkin;
   }
 
+  /**
+   * Retrieves the interned skin of the object.
+   *
+   * @return The skin of the object, or null if the skin is not in the registry.
+   */
+  SkinRegistry.Skin getSkin() {
+    return skin;
+  }
+
+  /**
+   * Retrieves the key of the image of the object in the pictures of the map.
+   *
+   * @return The image key of the skin, or the skin as written in the map if it is not in the registry.
+   */
+  String getImageKey() {
+    return skin != null ? skin.imageKey() : objectSkin;
+  }
+
   /**
    * Parses the position value from the object values and returns a Position object.
    *
@@ -88,11 +102,7 @@ public final class ObjectFromSkin {
    * @return true if the object is a character, false otherwise.
    */
   protected boolean isCharacter() {
-    if (CharacterType.fromString(objectSkin) != null || PlayerSkins.fromString(objectSkin) != null) {
-      return true;
-    }
-    return false;
-
+    return skin != null && skin.category() == SkinRegistry.Category.CHARACTER;
   }
 
   /**
@@ -101,10 +111,7 @@ public final class ObjectFromSkin {
    * @return true if the object is an environment element, false otherwise.
    */
   protected boolean isEnvironnement() {
-    if (ObstacleType.fromString(objectSkin) != null || DecorationType.fromString(objectSkin) != null || biomeType.fromString(objectSkin)!=null) {
-      return true;
-    }
-    return false;
+    return skin != null && skin.category() == SkinRegistry.Category.ENVIRONNEMENT;
   }
 
   /**
@@ -113,11 +120,7 @@ public final class ObjectFromSkin {
    * @return true if the object is inside an inventory, false otherwise.
    */
   protected boolean isInsideInventory() {
-    if (ItemType.fromString(objectSkin) != null) {
-      return true;
-    }
-    return false;
-
+    return skin != null && skin.category() == SkinRegistry.Category.ITEM;
   }
 
   /**
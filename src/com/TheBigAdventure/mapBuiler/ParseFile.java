@@ -14,39 +14,55 @@ import java.util.Objects;
  */
 public class ParseFile {
   
-    /**
-     * Validates the map by checking sections like size, encodings, and data.
-     *
-     * @param encodingsMap     The map containing encodings.
-     * @param listOfElements   List of map elements.
-     * @param mapSize          Size of the map.
-     * @param dataSection      Data section of the map.
-     */
-  protected static void validateMap(Map<String, String> encodingsMap, List<Map<String, String>> listOfElements,String mapSize, String dataSection) {
-    MapValidate.validateSectionNotEmpty(mapSize, encodingsMap, dataSection);
+  private static final String DATA_DELIMITER = "\"\"\"";
+
+  /**
+   * Validates the sections of the map that come before the data section: size and encodings.
+   *
+   * @param encodingsMap     The map containing encodings.
+   * @param mapSize          Size of the map.
+   * @param dataDefined      Whether the data section has been found.
+   */
+  protected static void validateMap(Map<String, String> encodingsMap, String mapSize, boolean dataDefined) {
+    MapValidate.validateSectionNotEmpty(mapSize, encodingsMap, dataDefined);
     MapValidate.validateSize(mapSize);
     MapValidate.validateEncoding(encodingsMap);
-    MapValidate.validatedata(dataSection, encodingsMap, mapSize);
-    MapValidate.getDataMapElements(listOfElements, dataSection, encodingsMap);
   }
   
   /**
-   * Reads the content of a file and returns it as a string.
+   * Reads the lines of a map file up to the opening delimiter of the data section.
    *
-   * @param pathFichier The path to the file.
-   * @return The content of the file as a string.
+   * @param reader The reader of the map file.
+   * @param header The builder receiving the text read before the delimiter.
+   * @return The rest of the line holding the delimiter, or null if the file has no data section.
    * @throws IOException If an I/O error occurs.
    */
-  protected static String readFile(String pathFichier) throws IOException {
+  protected static String readUntilDataBlock(BufferedReader reader, StringBuilder header) throws IOException {
+    String line;
+    while ((line = reader.readLine()) != null) {
+      int start = line.indexOf(DATA_DELIMITER);
+      if (start >= 0) {
+        header.append(line, 0, start).append("\n");
+        return line.substring(start + DATA_DELIMITER.length());
+      }
+      header.append(line).append("\n");
+    }
+    return null;
+  }
+  
+  /**
+   * Reads the remaining lines of a map file.
+   *
+   * @param reader The reader of the map file.
+   * @return The remaining content of the file as a string.
+   * @throws IOException If an I/O error occurs.
+   */
+  protected static String readRemaining(BufferedReader reader) throws IOException {
     StringBuilder data = new StringBuilder();
-
-    try (BufferedReader reader = new BufferedReader(new FileReader(pathFichier))) {
-        String line;
-        while ((line = reader.readLine()) != null) {
-            data.append(line).append("\n");
-        }
+    String line;
+    while ((line = reader.readLine()) != null) {
+      data.append(line).append("\n");
     }
-
     return data.toString();
   }
   
@@ -318,39 +334,61 @@ public class ParseFile {
   
   /**
    * Executes the lexer on the specified file path and returns the result as a MapContainer.
+   * <p>
+   * The file is read once: the sections before the data section are lexed first, then the rows
+   * of the data section are decoded as they are read, and the elements after it are lexed last.
    *
    * @param filePath The path to the file.
-   * @return A MapContainer containing map dimensions and elements.
+   * @return A MapContainer containing map dimensions, elements and decoded data section.
    * @throws IOException If an I/O error occurs.
    */
   protected static MapContainer execLexer(String filePath) throws IOException {
     Objects.requireNonNull(filePath);
     System.out.println("Current working directory: " + System.getProperty("user.dir"));
     
-    var text = ParseFile.readFile(filePath);
-    var lexer = new Lexer(text);
-    List<String> encodingsList = new ArrayList<>();
-    Map<String, String> encodingsMap = new HashMap<>();
-    Map<String, String> elementsPropreties = new HashMap<>();
-    List<Map<String, String>> listOfElements = new ArrayList<>();
-    Result result;
-    boolean sizeSectionStarted = false;
-    boolean sizeSectionEnded = false;
-    boolean elementSectionStarted = false;
-    String mapSize = null;
-    String dataSection = null;
-    boolean insideEncodingsSection = false;
-    boolean isProcessing = true;
-    int [] mapDimensions= null;
-    while (isProcessing) {
-      result = lexer.nextResult();
-
-      if (result != null) {
+    LexedSections sections = new LexedSections();
+    DataBlock dataBlock;
+    int [] mapDimensions;
+    try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+      StringBuilder header = new StringBuilder();
+      String dataFirstLine = ParseFile.readUntilDataBlock(reader, header);
+      sections.consume(new Lexer(header.toString()));
+      
+      ParseFile.validateMap(sections.encodingsMap, sections.mapSize, dataFirstLine != null);
+      mapDimensions = extractSize(sections.mapSize);
+      dataBlock = DataBlock.read(reader, dataFirstLine, new MapSize(mapDimensions[1], mapDimensions[0]), sections.encodingsMap);
+      
+      sections.consume(new Lexer(ParseFile.readRemaining(reader)));
+    }
+    sections.finish();
+   
+    return new MapContainer(mapDimensions, sections.listOfElements, dataBlock);
+  }
+  
+  /**
+   * State of the lexing of the sections of a map file, kept between the text before and
+   * the text after the data section.
+   */
+  private static final class LexedSections {
+    private final List<String> encodingsList = new ArrayList<>();
+    private Map<String, String> encodingsMap = new HashMap<>();
+    private final Map<String, String> elementsPropreties = new HashMap<>();
+    private final List<Map<String, String>> listOfElements = new ArrayList<>();
+    private boolean sizeSectionStarted = false;
+    private boolean sizeSectionEnded = false;
+    private boolean elementSectionStarted = false;
+    private boolean insideEncodingsSection = false;
+    private String mapSize = null;
+    
+    /**
+     * Processes every token of the lexer.
+     *
+     * @param lexer The lexer over a part of the map file.
+     */
+    private void consume(Lexer lexer) {
+      Result result;
+      while ((result = lexer.nextResult()) != null) {
           String content = result.content().trim();
-          
-          
-         if(result.token().equals(Token.DATA_BLOCK))  dataSection = content;
-         
 
           if (ParseFile.isElementSectionStarted(content)) {
               if (elementSectionStarted) ParseFile.extracted(elementsPropreties, listOfElements);
@@ -363,8 +401,11 @@ public class ParseFile {
           if (ParseFile.isEncodingsSectionStarted(content)) insideEncodingsSection = true;
           
           if (insideEncodingsSection) {
-              encodingsMap = ParseFile.encodingsMapInit(encodingsList, result, encodingsMap, content, insideEncodingsSection);
-              if (encodingsMap != null) insideEncodingsSection = false;
+              Map<String, String> encodings = ParseFile.encodingsMapInit(encodingsList, result, encodingsMap, content, insideEncodingsSection);
+              if (encodings != null) {
+                  encodingsMap = encodings;
+                  insideEncodingsSection = false;
+              }
           }
 
           if (ParseFile.isSizeSectionStarted(content) && !sizeSectionEnded) {
@@ -376,21 +417,17 @@ public class ParseFile {
               mapSize = content;
               sizeSectionEnded = true;
           }
-
-      } else {
-          if (elementSectionStarted) {
-              elementsPropreties.put("entityOrElement", "entity");
-              listOfElements.add(new HashMap<>(elementsPropreties));
-          }
-          isProcessing = false;
       }
-    } 
-   
+    }
     
-    ParseFile.validateMap(encodingsMap, listOfElements, mapSize, dataSection);
-    mapDimensions = extractSize(mapSize);
-   
-    return new MapContainer(mapDimensions, listOfElements);
+    /**
+     * Adds the last element being read to the list of elements.
+     */
+    private void finish() {
+      if (elementSectionStarted) {
+          ParseFile.extracted(elementsPropreties, listOfElements);
+      }
+    }
   }
 
 }
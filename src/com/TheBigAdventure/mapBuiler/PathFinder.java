@@ -0,0 +1,254 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shortest paths between the tiles of a {@link NavigationGrid}, with the A* algorithm.
+ * <p>
+ * The moves go to the four neighbour tiles and cost one, the heuristic is the Manhattan distance,
+ * so the estimate of a neighbour is the estimate of its tile or two more. The open list is then
+ * two stacks instead of a priority queue: the tiles of the current estimate, expanded last in
+ * first out so the deepest ones go first, and the tiles of the next estimate. The scores and the
+ * parents are arrays allocated once for the map, and the stacks grow to the largest search; they
+ * are reused by every search. A stamp per tile tells whether its values belong to the current
+ * search, so they are never cleared.
+ * <p>
+ * The next steps are cached by start and goal. A search caches the next step of every tile of
+ * the beginning of its path, so a character following the path finds its next steps in the cache
+ * while the goal does not move. The cache is dropped when a tile of the navigation grid changes.
+ * A path finder is not thread-safe.
+ */
+final class PathFinder {
+
+  private static final int CACHE_SIZE = 4096;
+  private static final int CACHED_STEPS = 32;
+  private static final int UNREACHABLE = -1;
+
+  private final NavigationGrid navigation;
+  private final int width;
+  private final int height;
+  private final int[] gScores;
+  private final int[] parents;
+  private final int[] openStamps;
+  private final int[] closedStamps;
+  private int[] openTiles = new int[256];
+  private int openSize;
+  private int[] nextTiles = new int[256];
+  private int nextSize;
+  private int openEstimate;
+  private int stamp;
+  private long expanded;
+  private long searches;
+  private long cacheHits;
+  private int cacheVersion;
+  private final Map<Long, Integer> nextSteps = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+      return size() > CACHE_SIZE;
+    }
+  };
+
+  /**
+   * Constructs a path finder on a navigation grid.
+   *
+   * @param navigation The navigation grid of the map.
+   * @throws NullPointerException if navigation is null.
+   */
+  PathFinder(NavigationGrid navigation) {
+    this.navigation = Objects.requireNonNull(navigation);
+    this.width = navigation.width();
+    this.height = navigation.height();
+    int tiles = width * height;
+    this.gScores = new int[tiles];
+    this.parents = new int[tiles];
+    this.openStamps = new int[tiles];
+    this.closedStamps = new int[tiles];
+    this.cacheVersion = navigation.version();
+  }
+
+  /**
+   * Finds the next tile on a shortest path, from the cache or with a search.
+   *
+   * @param start The index of the start tile, y * width + x.
+   * @param goal  The index of the goal tile.
+   * @return The index of the neighbour tile of start to walk to, or -1 if the goal is the start or
+   *         cannot be reached.
+   */
+  int nextStep(int start, int goal) {
+    if (cacheVersion != navigation.version()) {
+      nextSteps.clear();
+      cacheVersion = navigation.version();
+    }
+    Integer cached = nextSteps.get(key(start, goal));
+    if (cached != null) {
+      cacheHits++;
+      return cached;
+    }
+    int[] path = findPath(start, goal);
+    if (path == null || path.length < 2) {
+      nextSteps.put(key(start, goal), UNREACHABLE);
+      return UNREACHABLE;
+    }
+    for (int i = 0; i < Math.min(CACHED_STEPS, path.length - 1); i++) {
+      nextSteps.put(key(path[i], goal), path[i + 1]);
+    }
+    return path[1];
+  }
+
+  /**
+   * Searches a shortest path between two tiles, without the cache. The start and goal tiles are
+   * walked through even if they are not navigable, as they hold the characters looking for the path.
+   *
+   * @param start The index of the start tile, y * width + x.
+   * @param goal  The index of the goal tile.
+   * @return The indexes of the tiles of the path, from start to goal, or null if there is none.
+   * @throws IndexOutOfBoundsException if a tile is outside the map.
+   */
+  int[] findPath(int start, int goal) {
+    Objects.checkIndex(start, gScores.length);
+    Objects.checkIndex(goal, gScores.length);
+    searches++;
+    nextStamp();
+    openSize = 0;
+    nextSize = 0;
+    int goalX = goal % width;
+    int goalY = goal / width;
+    gScores[start] = 0;
+    parents[start] = -1;
+    openStamps[start] = stamp;
+    openEstimate = Math.abs(start % width - goalX) + Math.abs(start / width - goalY);
+    push(start, openEstimate);
+    while (openSize > 0 || nextSize > 0) {
+      int tile = pop();
+      if (closedStamps[tile] == stamp) {
+        continue;
+      }
+      closedStamps[tile] = stamp;
+      expanded++;
+      if (tile == goal) {
+        return buildPath(goal);
+      }
+      int x = tile % width;
+      int y = tile / width;
+      int g = gScores[tile] + 1;
+      if (x > 0) {
+        open(tile, tile - 1, g, Math.abs(x - 1 - goalX) + Math.abs(y - goalY), goal);
+      }
+      if (x < width - 1) {
+        open(tile, tile + 1, g, Math.abs(x + 1 - goalX) + Math.abs(y - goalY), goal);
+      }
+      if (y > 0) {
+        open(tile, tile - width, g, Math.abs(x - goalX) + Math.abs(y - 1 - goalY), goal);
+      }
+      if (y < height - 1) {
+        open(tile, tile + width, g, Math.abs(x - goalX) + Math.abs(y + 1 - goalY), goal);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Gets the number of searches run since the path finder was built.
+   *
+   * @return The number of searches.
+   */
+  long searches() {
+    return searches;
+  }
+
+  /**
+   * Gets the number of next steps found in the cache.
+   *
+   * @return The number of cache hits.
+   */
+  long cacheHits() {
+    return cacheHits;
+  }
+
+  /**
+   * Gets the number of tiles expanded by the searches.
+   *
+   * @return The number of expanded tiles.
+   */
+  long expanded() {
+    return expanded;
+  }
+
+  /**
+   * Adds a neighbour tile to the open list if it is navigable and reached by a shorter path.
+   */
+  private void open(int tile, int neighbour, int g, int h, int goal) {
+    if (neighbour != goal && !navigation.isNavigable(neighbour)
+        || closedStamps[neighbour] == stamp
+        || openStamps[neighbour] == stamp && gScores[neighbour] <= g) {
+      return;
+    }
+    openStamps[neighbour] = stamp;
+    gScores[neighbour] = g;
+    parents[neighbour] = tile;
+    push(neighbour, g + h);
+  }
+
+  private static long key(int start, int goal) {
+    return (long) start << 32 | goal & 0xFFFFFFFFL;
+  }
+
+  private void nextStamp() {
+    if (stamp == Integer.MAX_VALUE) {
+      Arrays.fill(openStamps, 0);
+      Arrays.fill(closedStamps, 0);
+      stamp = 0;
+    }
+    stamp++;
+  }
+
+  private int[] buildPath(int goal) {
+    int length = 0;
+    for (int tile = goal; tile >= 0; tile = parents[tile]) {
+      length++;
+    }
+    int[] path = new int[length];
+    for (int tile = goal; tile >= 0; tile = parents[tile]) {
+      path[--length] = tile;
+    }
+    return path;
+  }
+
+  /**
+   * Adds a tile to the open list, on the stack of its estimate.
+   */
+  private void push(int tile, int estimate) {
+    if (estimate == openEstimate) {
+      if (openSize == openTiles.length) {
+        openTiles = Arrays.copyOf(openTiles, openSize * 2);
+      }
+      openTiles[openSize++] = tile;
+    } else {
+      if (nextSize == nextTiles.length) {
+        nextTiles = Arrays.copyOf(nextTiles, nextSize * 2);
+      }
+      nextTiles[nextSize++] = tile;
+    }
+  }
+
+  /**
+   * Removes a tile of the lowest estimate from the open list, moving to the next estimate when
+   * the current one has no tile left.
+   */
+  private int pop() {
+    if (openSize == 0) {
+      int[] tiles = openTiles;
+      openTiles = nextTiles;
+      openSize = nextSize;
+      nextTiles = tiles;
+      nextSize = 0;
+      openEstimate += 2;
+    }
+    return openTiles[--openSize];
+  }
+}
@@ -0,0 +1,280 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Benchmark of the {@link PathFinder} on maps of {@value #SMALL_SIDE} by {@value #SMALL_SIDE} and
+ * {@value #LARGE_SIDE} by {@value #LARGE_SIDE} tiles.
+ * <p>
+ * The maps are synthetic grass fields crossed by walls every {@value #WALL_SPACING} columns, with
+ * a door every {@value #DOOR_SPACING} rows, and scattered trees. For each map, the benchmark runs
+ * searches between random tiles within {@value #MAX_DISTANCE} tiles of each other, then the
+ * searches of characters walking step by step toward a goal, answered by the cache. It prints the
+ * searches per second, the tiles expanded and the bytes allocated per search, which are the path
+ * returned. The lengths of some paths are checked against a breadth-first search.
+ * <p>
+ * Last, {@value #CHASERS} characters chase a goal moving one tile per round, once with a search
+ * each, then with a {@link FlowField} of radius {@value #FLOW_RADIUS} computed once per round and
+ * read by every character.
+ * <p>
+ * Usage: {@code java -Xmx2g -cp out com.TheBigAdventure.mapBuiler.PathFinderBenchmark}
+ */
+final class PathFinderBenchmark {
+
+  private static final int SMALL_SIDE = 256;
+  private static final int LARGE_SIDE = 2048;
+  private static final int WALL_SPACING = 16;
+  private static final int DOOR_SPACING = 24;
+  private static final int TREE_PERCENT = 10;
+  private static final int MAX_DISTANCE = 200;
+  private static final int SEARCHES = 2000;
+  private static final int WALKERS = 200;
+  private static final int CHECKED_SEARCHES = 20;
+  private static final int CHASERS = 500;
+  private static final int FLOW_RADIUS = 64;
+  private static final int ROUNDS = 50;
+
+  private PathFinderBenchmark() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    Path directory = Files.createTempDirectory("path-finder");
+    try {
+      for (int side : new int[] { SMALL_SIDE, LARGE_SIDE }) {
+        Path mapPath = directory.resolve("maze" + side + ".map");
+        Files.writeString(mapPath, mazeMap(side, new Random(side)));
+        try {
+          run(side, new NavigationGrid(GameMap.initMap(mapPath.toString()).getGrid()));
+        } finally {
+          Files.deleteIfExists(mapPath);
+          Files.deleteIfExists(BinaryMap.compiledPath(mapPath));
+        }
+      }
+    } finally {
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  /**
+   * Runs the searches of a map then prints their timings.
+   *
+   * @param side       The width and height of the map.
+   * @param navigation The navigation grid of the map.
+   * @throws IllegalStateException if a path is not a shortest path.
+   */
+  private static void run(int side, NavigationGrid navigation) {
+    Random random = new Random(42);
+    int[] pairs = new int[2 * SEARCHES];
+    for (int i = 0; i < SEARCHES; i++) {
+      pairs[2 * i] = randomTile(navigation, random);
+      pairs[2 * i + 1] = randomTileNear(navigation, random, pairs[2 * i]);
+    }
+    PathFinder pathFinder = new PathFinder(navigation);
+    for (int i = 0; i < SEARCHES; i++) {
+      pathFinder.findPath(pairs[2 * i], pairs[2 * i + 1]);
+    }
+
+    long expanded = pathFinder.expanded();
+    int found = 0;
+    long start = System.nanoTime();
+    long allocated = allocatedBytes();
+    for (int i = 0; i < SEARCHES; i++) {
+      if (pathFinder.findPath(pairs[2 * i], pairs[2 * i + 1]) != null) {
+        found++;
+      }
+    }
+    long nanos = System.nanoTime() - start;
+    long bytes = allocatedBytes() - allocated;
+    System.out.printf("%4d x %-4d search  %,10.0f searches per second  %,9.0f tiles expanded  %,8.0f bytes per search  %d/%d found%n",
+        side, side, SEARCHES / (nanos / 1e9), (pathFinder.expanded() - expanded) / (double) SEARCHES,
+        bytes / (double) SEARCHES, found, SEARCHES);
+
+    long searches = pathFinder.searches();
+    long steps = 0;
+    start = System.nanoTime();
+    for (int walker = 0; walker < WALKERS; walker++) {
+      int goal = pairs[2 * walker + 1];
+      for (int tile = pairs[2 * walker]; tile >= 0 && tile != goal; tile = pathFinder.nextStep(tile, goal)) {
+        steps++;
+      }
+    }
+    nanos = System.nanoTime() - start;
+    System.out.printf("%4d x %-4d walk    %,10.0f steps per second    %,9d steps  %,d searches  %,d cache hits%n",
+        side, side, steps / (nanos / 1e9), steps, pathFinder.searches() - searches, pathFinder.cacheHits());
+
+    for (int i = 0; i < CHECKED_SEARCHES; i++) {
+      int[] path = pathFinder.findPath(pairs[2 * i], pairs[2 * i + 1]);
+      int expected = breadthFirstDistance(navigation, pairs[2 * i], pairs[2 * i + 1]);
+      int actual = path == null ? -1 : path.length - 1;
+      if (actual != expected) {
+        throw new IllegalStateException("Path of " + actual + " steps instead of " + expected);
+      }
+    }
+    compareCrowd(side, navigation, random);
+  }
+
+  /**
+   * Times the next steps of chasers toward a moving goal, with a search per chaser then with a
+   * flow field, and checks some steps of the field against a breadth-first search.
+   *
+   * @throws IllegalStateException if a step of the field is not on a shortest path.
+   */
+  private static void compareCrowd(int side, NavigationGrid navigation, Random random) {
+    int width = navigation.width();
+    int[] goals = new int[ROUNDS];
+    goals[0] = randomTile(navigation, random);
+    for (int round = 1; round < ROUNDS; round++) {
+      goals[round] = goals[round - 1];
+      for (Direction direction : Direction.MOVES) {
+        int x = goals[round - 1] % width + direction.deltaX();
+        int y = goals[round - 1] / width + direction.deltaY();
+        if (navigation.isNavigable(x, y) && random.nextBoolean()) {
+          goals[round] = y * width + x;
+        }
+      }
+    }
+    int[] chasers = new int[CHASERS];
+    for (int i = 0; i < CHASERS; i++) {
+      do {
+        int x = goals[0] % width + random.nextInt(FLOW_RADIUS) - FLOW_RADIUS / 2;
+        int y = goals[0] / width + random.nextInt(FLOW_RADIUS) - FLOW_RADIUS / 2;
+        chasers[i] = navigation.isNavigable(x, y) ? y * width + x : -1;
+      } while (chasers[i] < 0);
+    }
+
+    PathFinder pathFinder = new PathFinder(navigation);
+    long steps = 0;
+    long start = System.nanoTime();
+    for (int round = 0; round < ROUNDS; round++) {
+      for (int chaser : chasers) {
+        int[] path = pathFinder.findPath(chaser, goals[round]);
+        steps += path != null && path.length > 1 ? 1 : 0;
+      }
+    }
+    long searchNanos = System.nanoTime() - start;
+
+    FlowField flowField = new FlowField(navigation, FLOW_RADIUS);
+    long fieldSteps = 0;
+    start = System.nanoTime();
+    for (int round = 0; round < ROUNDS; round++) {
+      flowField.update(goals[round] % width, goals[round] / width);
+      for (int chaser : chasers) {
+        fieldSteps += flowField.step(chaser) != null ? 1 : 0;
+      }
+    }
+    long fieldNanos = System.nanoTime() - start;
+    System.out.printf("%4d x %-4d chase   %d chasers: a search each %8.3f ms per round (%,d steps)  flow field %8.3f ms per round (%,d steps, %,d tiles)%n",
+        side, side, CHASERS, searchNanos / 1e6 / ROUNDS, steps, fieldNanos / 1e6 / ROUNDS, fieldSteps, flowField.size());
+
+    int goal = goals[ROUNDS - 1];
+    for (int i = 0; i < CHECKED_SEARCHES; i++) {
+      Direction step = flowField.step(chasers[i]);
+      if (step == null) {
+        continue;
+      }
+      int next = chasers[i] + step.deltaY() * width + step.deltaX();
+      if (breadthFirstDistance(navigation, next, goal) + 1 != breadthFirstDistance(navigation, chasers[i], goal)) {
+        throw new IllegalStateException("Step " + step + " of the flow field is not on a shortest path");
+      }
+    }
+  }
+
+  private static int randomTile(NavigationGrid navigation, Random random) {
+    while (true) {
+      int tile = random.nextInt(navigation.width() * navigation.height());
+      if (navigation.isNavigable(tile)) {
+        return tile;
+      }
+    }
+  }
+
+  private static int randomTileNear(NavigationGrid navigation, Random random, int origin) {
+    int width = navigation.width();
+    while (true) {
+      int x = origin % width + random.nextInt(2 * MAX_DISTANCE + 1) - MAX_DISTANCE;
+      int y = origin / width + random.nextInt(2 * MAX_DISTANCE + 1) - MAX_DISTANCE;
+      if (navigation.isNavigable(x, y)) {
+        return y * width + x;
+      }
+    }
+  }
+
+  /**
+   * Computes the length of a shortest path with a breadth-first search.
+   *
+   * @return The number of steps of the path, or -1 if there is none.
+   */
+  private static int breadthFirstDistance(NavigationGrid navigation, int start, int goal) {
+    int width = navigation.width();
+    int[] distances = new int[width * navigation.height()];
+    Arrays.fill(distances, -1);
+    ArrayDeque<Integer> queue = new ArrayDeque<>();
+    distances[start] = 0;
+    queue.add(start);
+    while (!queue.isEmpty()) {
+      int tile = queue.poll();
+      if (tile == goal) {
+        return distances[tile];
+      }
+      for (Direction direction : Direction.MOVES) {
+        int x = tile % width + direction.deltaX();
+        int y = tile / width + direction.deltaY();
+        if (navigation.isNavigable(x, y) && distances[y * width + x] < 0) {
+          distances[y * width + x] = distances[tile] + 1;
+          queue.add(y * width + x);
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Builds the text of a square grass field surrounded by walls, crossed by walls with doors and
+   * scattered with trees, with a player in a corner.
+   *
+   * @param side   The width and height of the map.
+   * @param random The source of the trees and doors.
+   * @return The text of the map.
+   */
+  private static String mazeMap(int side, Random random) {
+    StringBuilder builder = new StringBuilder(side * (side + 3) + 256);
+    builder.append("[grid]\n  encodings: GRASS(g) WALL(W) TREE(T)\n");
+    builder.append("  size: (").append(side).append(" x ").append(side).append(")\n");
+    builder.append("  data: \"\"\"\n");
+    int[] doorOffsets = new int[side / WALL_SPACING + 1];
+    for (int i = 0; i < doorOffsets.length; i++) {
+      doorOffsets[i] = random.nextInt(DOOR_SPACING);
+    }
+    for (int y = 0; y < side; y++) {
+      builder.append("  ");
+      for (int x = 0; x < side; x++) {
+        boolean border = y == 0 || y == side - 1 || x == 0 || x == side - 1;
+        boolean wall = x % WALL_SPACING == 0 && y % DOOR_SPACING != doorOffsets[x / WALL_SPACING];
+        if (border || wall) {
+          builder.append('W');
+        } else if (x > 2 && y > 2 && random.nextInt(100) < TREE_PERCENT) {
+          builder.append('T');
+        } else {
+          builder.append('g');
+        }
+      }
+      builder.append('\n');
+    }
+    builder.append("  \"\"\"\n\n");
+    builder.append("[element]\n  name: fluffy\n  player: true\n  skin: BABA\n  position: (1,1)\n  health: 10\n\n");
+    return builder.toString();
+  }
+
+  private static long allocatedBytes() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+      return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0;
+  }
+}
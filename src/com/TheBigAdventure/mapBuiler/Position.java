@@ -1,7 +1,5 @@
 package com.TheBigAdventure.mapBuiler;
 
-import java.util.Objects;
-
 /**
  * Represents a position on a grid and provides methods for managing and manipulating positions.
  *
@@ -75,7 +73,7 @@ public class Position {
    */
   @Override
   public int hashCode() {
-      return Objects.hash(x, y);
+      return 31 * x + y;
   }
   
   /**
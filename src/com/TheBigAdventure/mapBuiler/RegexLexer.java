@@ -0,0 +1,113 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.util.List;
+
+//import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Lexer tokenizing input text with a single regular expression made of the patterns of every token.
+ * <p>
+ * This is the reference implementation of {@link Lexer}, kept to compare both lexers.
+ */
+final class RegexLexer {
+  
+    private static final List<Token> TOKENS = List.of(Token.values());
+    private static final Pattern PATTERN = Pattern.compile(
+        TOKENS.stream()
+            .map(token -> "(" + token.regex() + ")")
+            .collect(joining("|")));
+    private static final int[] TOKEN_GROUPS = tokenGroups();
+
+    private final String text;
+    private final Matcher matcher;
+    private int lastEnd = 0;
+    
+    /**
+     * Constructs a RegexLexer object with the specified input text.
+     *
+     * @param text The input text to tokenize.
+     */
+    RegexLexer(String text) {
+        this.text = text;
+        this.matcher = PATTERN.matcher(text);
+        
+    }
+    
+    /**
+     * Retrieves the next token and its content from the input text.
+     *
+     * @return The next token and its content as a Result object, or null if no more tokens are found.
+     */
+    Result nextResult() {
+       
+        if (!matcher.find(lastEnd)) {
+            return null;
+        }
+
+        for (Token token : TOKENS) {
+            if (matcher.group(TOKEN_GROUPS[token.ordinal()]) != null) {
+                String content = matcher.group(TOKEN_GROUPS[token.ordinal()]);
+                lastEnd = matcher.end();
+                return new Result(token, content);
+            }
+        }
+
+        throw new IllegalStateException("No matching token found.");
+    }
+    
+    /**
+     * Retrieves the content of the next three tokens from the input text without advancing the tokenization.
+     *
+     * @return An array containing the content of the next three tokens, or null if fewer than three tokens are found.
+     */
+    String[] nextThreeResultsContent() {
+      int originalLastEnd = lastEnd;
+      int rangeOfI = 2;
+      Matcher originalMatcher = PATTERN.matcher(text);
+      originalMatcher.useTransparentBounds(true).useAnchoringBounds(false);
+      originalMatcher.region(lastEnd, text.length());
+
+      String[] results = new String[2];
+
+      for (int i = 0; i < rangeOfI; i++) {
+          Result nextResult = nextResult();
+          if (nextResult == null) {
+              break; 
+          }
+
+          results[i] = nextResult.content().trim();
+          
+      }
+
+      lastEnd = originalLastEnd;
+      matcher.reset();
+      matcher.useTransparentBounds(true).useAnchoringBounds(false);
+      matcher.region(lastEnd, text.length());
+
+      return results;
+  }
+
+
+    /**
+     * Computes the index of the group of each token in the pattern, skipping the groups
+     * nested inside the regular expression of a token.
+     *
+     * @return The group index of each token, indexed by token ordinal.
+     */
+    private static int[] tokenGroups() {
+      int[] groups = new int[TOKENS.size()];
+      int group = 1;
+      for (Token token : TOKENS) {
+        groups[token.ordinal()] = group;
+        group += 1 + Pattern.compile(token.regex()).matcher("").groupCount();
+      }
+      return groups;
+    }
+
+}
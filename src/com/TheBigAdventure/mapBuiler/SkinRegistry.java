@@ -0,0 +1,151 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import com.TheBigAdventure.characterEntities.Character;
+import com.TheBigAdventure.characterEntities.CharacterType;
+import com.TheBigAdventure.characterEntities.PlayerSkins;
+import com.TheBigAdventure.groundEntities.Biomes;
+import com.TheBigAdventure.groundEntities.DecorationType;
+import com.TheBigAdventure.groundEntities.DecorativeElement;
+import com.TheBigAdventure.groundEntities.Environnement;
+import com.TheBigAdventure.groundEntities.ObstacleType;
+import com.TheBigAdventure.groundEntities.Obstacles;
+import com.TheBigAdventure.groundEntities.biomeType;
+import com.TheBigAdventure.usableEntities.InsideInventory;
+import com.TheBigAdventure.usableEntities.ItemType;
+
+/**
+ * Registry of every skin that can appear in a map, built once from the skin enums.
+ * <p>
+ * Each skin is interned as a single {@link Skin} holding its identifier, its category, the
+ * factory building its object, or the shared instance of its ground element, and the key of its
+ * image. Resolving a skin name is a single hash lookup, whatever its case, instead of a scan of
+ * the values of every skin enum.
+ * <p>
+ * When a name belongs to several enums, the first category wins in this order: characters,
+ * decorations, obstacles, biomes and items.
+ */
+final class SkinRegistry {
+
+  /**
+   * The kind of object a skin builds.
+   */
+  enum Category {
+    CHARACTER, ENVIRONNEMENT, ITEM
+  }
+
+  /**
+   * An interned skin of the registry.
+   *
+   * @param id                   The identifier of the skin, its index in the registry.
+   * @param name                 The canonical name of the skin.
+   * @param category             The kind of object the skin builds.
+   * @param imageKey             The key of the image of the skin in the pictures of a map.
+   * @param environnement        The ground element shared by every tile of the skin, or null if the skin is not an environnement.
+   * @param characterFactory     The factory of a non player character, or null if the skin can only be a player.
+   * @param itemFactory          The factory of the item, or null if the skin is not an item.
+   */
+  record Skin(int id, String name, Category category, String imageKey,
+      Environnement environnement,
+      Function<ObjectFromSkin, Character> characterFactory,
+      Function<ObjectFromSkin, InsideInventory> itemFactory) {
+
+    /**
+     * Builds the non player character described by an element of the map.
+     *
+     * @param object The element of the map.
+     * @return The character.
+     * @throws IllegalArgumentException if the skin cannot be used by a non player character.
+     */
+    Character createCharacter(ObjectFromSkin object) {
+      if (characterFactory == null) {
+        throw new IllegalArgumentException("Skin " + name + " can only be used by the player\n");
+      }
+      return characterFactory.apply(object);
+    }
+
+    /**
+     * Builds the item described by an element of the map.
+     *
+     * @param object The element of the map.
+     * @return The item.
+     * @throws IllegalArgumentException if the skin is not an item.
+     */
+    InsideInventory createItem(ObjectFromSkin object) {
+      if (itemFactory == null) {
+        throw new IllegalArgumentException("Skin " + name + " is not an item\n");
+      }
+      return itemFactory.apply(object);
+    }
+  }
+
+  private static final List<Skin> SKINS = new ArrayList<>();
+  private static final Map<String, Skin> SKINS_BY_NAME = new HashMap<>();
+
+  static {
+    for (CharacterType type : CharacterType.values()) {
+      register(type.name(), Category.CHARACTER, null, type::createCharacter, null);
+    }
+    for (PlayerSkins type : PlayerSkins.values()) {
+      register(type.name(), Category.CHARACTER, null, null, null);
+    }
+    for (DecorationType type : DecorationType.values()) {
+      register(type.name(), Category.ENVIRONNEMENT, DecorativeElement.of(type), null, null);
+    }
+    for (ObstacleType type : ObstacleType.values()) {
+      register(type.name(), Category.ENVIRONNEMENT, Obstacles.of(type), null, null);
+    }
+    for (biomeType type : biomeType.values()) {
+      register(type.name(), Category.ENVIRONNEMENT, Biomes.of(type), null, null);
+    }
+    for (ItemType type : ItemType.values()) {
+      register(type.name(), Category.ITEM, null, null, type::createItem);
+    }
+  }
+
+  private SkinRegistry() {
+  }
+
+  private static void register(String name, Category category, Environnement environnement,
+      Function<ObjectFromSkin, Character> characterFactory, Function<ObjectFromSkin, InsideInventory> itemFactory) {
+    if (SKINS_BY_NAME.containsKey(name)) {
+      return;
+    }
+    Skin skin = new Skin(SKINS.size(), name, category, name, environnement, characterFactory, itemFactory);
+    SKINS.add(skin);
+    SKINS_BY_NAME.put(name, skin);
+  }
+
+  /**
+   * Finds the interned skin of a name, ignoring its case.
+   *
+   * @param name The name of the skin.
+   * @return The skin, or null if no skin has this name.
+   */
+  static Skin resolve(String name) {
+    Objects.requireNonNull(name);
+    Skin skin = SKINS_BY_NAME.get(name);
+    if (skin != null) {
+      return skin;
+    }
+    return SKINS_BY_NAME.get(name.toUpperCase(Locale.ROOT));
+  }
+
+  /**
+   * Gets the skin of an identifier.
+   *
+   * @param id The identifier of the skin.
+   * @return The skin with this identifier.
+   * @throws IndexOutOfBoundsException if no skin has this identifier.
+   */
+  static Skin get(int id) {
+    return SKINS.get(id);
+  }
+}
@@ -0,0 +1,416 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Index of the entities of a map by their position, answering proximity queries without scanning
+ * the grid.
+ * <p>
+ * The map is split in square buckets of {@value #BUCKET_SIZE} by {@value #BUCKET_SIZE} tiles, and
+ * each bucket links the entities standing on its tiles. An entity is found by identity, so that
+ * equal items remain distinct entities. The index is updated when an entity is added, moves or is
+ * removed, in constant time. The queries walk the buckets overlapping the searched area and hand
+ * each entity found to a {@link Visitor}; they allocate nothing once the index has grown to hold
+ * its entities. Distances are Manhattan distances, like {@link Position#manhattanDistanceTo}.
+ *
+ * @param <T> The type of the entities.
+ */
+public final class SpatialIndex<T> {
+
+  /**
+   * Receives the entities found by a query.
+   *
+   * @param <T> The type of the entities.
+   */
+  @FunctionalInterface
+  public interface Visitor<T> {
+
+    /**
+     * Visits an entity found by a query.
+     *
+     * @param entity The entity.
+     * @param x      The x-coordinate of the entity.
+     * @param y      The y-coordinate of the entity.
+     * @return true to continue the query, false to stop it.
+     */
+    boolean visit(T entity, int x, int y);
+  }
+
+  private static final int BUCKET_SIZE = 16;
+  private static final int BUCKET_SHIFT = 4;
+  private static final int NONE = -1;
+
+  private final int width;
+  private final int height;
+  private final int bucketColumns;
+  private final int bucketRows;
+  private final int[] bucketHeads;
+  private final Map<T, Integer> handles = new IdentityHashMap<>();
+  private Object[] entities = new Object[16];
+  private int[] xs = new int[16];
+  private int[] ys = new int[16];
+  private int[] nexts = new int[16];
+  private int[] previouses = new int[16];
+  private int freeHead = NONE;
+  private int used;
+  private int size;
+  private int[] nearestHandles = new int[8];
+  private int[] nearestDistances = new int[8];
+
+  /**
+   * Constructs an empty index for a map.
+   *
+   * @param width  The width of the map.
+   * @param height The height of the map.
+   * @throws IllegalArgumentException if width or height is not positive.
+   */
+  public SpatialIndex(int width, int height) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("The dimensions of an indexed map must be positive\n");
+    }
+    this.width = width;
+    this.height = height;
+    this.bucketColumns = (width + BUCKET_SIZE - 1) >> BUCKET_SHIFT;
+    this.bucketRows = (height + BUCKET_SIZE - 1) >> BUCKET_SHIFT;
+    this.bucketHeads = new int[bucketColumns * bucketRows];
+    Arrays.fill(bucketHeads, NONE);
+  }
+
+  /**
+   * Gets the number of entities in the index.
+   *
+   * @return The number of entities.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks whether an entity is in the index.
+   *
+   * @param entity The entity.
+   * @return true if the entity is in the index.
+   */
+  public boolean contains(T entity) {
+    return handles.containsKey(entity);
+  }
+
+  /**
+   * Adds an entity to the index, or moves it if it is already in the index.
+   *
+   * @param entity   The entity.
+   * @param position The position of the entity.
+   * @throws NullPointerException if entity or position is null.
+   * @throws IllegalArgumentException if the position is outside the map.
+   */
+  public void insert(T entity, Position position) {
+    Objects.requireNonNull(entity);
+    Objects.requireNonNull(position);
+    int x = position.getX();
+    int y = position.getY();
+    checkInside(x, y);
+    Integer existing = handles.get(entity);
+    if (existing != null) {
+      move(existing, x, y);
+      return;
+    }
+    int handle = allocate();
+    entities[handle] = entity;
+    xs[handle] = x;
+    ys[handle] = y;
+    link(handle, bucketOf(x, y));
+    handles.put(entity, handle);
+    size++;
+  }
+
+  /**
+   * Moves an entity of the index.
+   *
+   * @param entity   The entity.
+   * @param position The new position of the entity.
+   * @throws NullPointerException if entity or position is null.
+   * @throws IllegalArgumentException if the position is outside the map.
+   * @throws IllegalStateException if the entity is not in the index.
+   */
+  public void move(T entity, Position position) {
+    Objects.requireNonNull(entity);
+    Objects.requireNonNull(position);
+    checkInside(position.getX(), position.getY());
+    Integer handle = handles.get(entity);
+    if (handle == null) {
+      throw new IllegalStateException("The entity is not in the index\n");
+    }
+    move(handle, position.getX(), position.getY());
+  }
+
+  /**
+   * Removes an entity from the index.
+   *
+   * @param entity The entity.
+   * @return true if the entity was in the index.
+   * @throws NullPointerException if entity is null.
+   */
+  public boolean remove(T entity) {
+    Objects.requireNonNull(entity);
+    Integer handle = handles.remove(entity);
+    if (handle == null) {
+      return false;
+    }
+    unlink(handle, bucketOf(xs[handle], ys[handle]));
+    entities[handle] = null;
+    nexts[handle] = freeHead;
+    freeHead = handle;
+    size--;
+    return true;
+  }
+
+  /**
+   * Visits the entities standing in a rectangle of tiles, bounds included, bucket after bucket.
+   *
+   * @param minX    The smallest x-coordinate of the rectangle.
+   * @param minY    The smallest y-coordinate of the rectangle.
+   * @param maxX    The largest x-coordinate of the rectangle.
+   * @param maxY    The largest y-coordinate of the rectangle.
+   * @param visitor The visitor of the entities found.
+   * @return true if every entity was visited, false if the visitor stopped the query.
+   * @throws NullPointerException if visitor is null.
+   */
+  public boolean visitRange(int minX, int minY, int maxX, int maxY, Visitor<? super T> visitor) {
+    Objects.requireNonNull(visitor);
+    return visitArea(minX, minY, maxX, maxY, 0, 0, Integer.MAX_VALUE, visitor);
+  }
+
+  /**
+   * Visits the entities within a Manhattan distance of a tile, bucket after bucket.
+   *
+   * @param centerX The x-coordinate of the tile.
+   * @param centerY The y-coordinate of the tile.
+   * @param radius  The largest distance of the entities visited.
+   * @param visitor The visitor of the entities found.
+   * @return true if every entity was visited, false if the visitor stopped the query.
+   * @throws NullPointerException if visitor is null.
+   * @throws IllegalArgumentException if radius is negative.
+   */
+  public boolean visitRadius(int centerX, int centerY, int radius, Visitor<? super T> visitor) {
+    Objects.requireNonNull(visitor);
+    if (radius < 0) {
+      throw new IllegalArgumentException("The radius of a query cant be negative\n");
+    }
+    int reach = Math.min(radius, width + height);
+    return visitArea(centerX - reach, centerY - reach, centerX + reach, centerY + reach,
+        centerX, centerY, radius, visitor);
+  }
+
+  /**
+   * Visits the k entities nearest to a tile, from the nearest, within a largest Manhattan distance.
+   * Entities at the same distance are visited in a fixed order, so a query always gives the same result.
+   *
+   * @param centerX     The x-coordinate of the tile.
+   * @param centerY     The y-coordinate of the tile.
+   * @param k           The number of entities to visit.
+   * @param maxDistance The largest distance of the entities visited.
+   * @param visitor     The visitor of the entities found.
+   * @return The number of entities visited.
+   * @throws NullPointerException if visitor is null.
+   * @throws IllegalArgumentException if k or maxDistance is negative.
+   */
+  @SuppressWarnings("unchecked")
+  public int visitNearest(int centerX, int centerY, int k, int maxDistance, Visitor<? super T> visitor) {
+    Objects.requireNonNull(visitor);
+    if (k < 0 || maxDistance < 0) {
+      throw new IllegalArgumentException("The number and the distance of the nearest entities cant be negative\n");
+    }
+    if (k == 0) {
+      return 0;
+    }
+    if (nearestHandles.length < k) {
+      nearestHandles = new int[Math.max(k, nearestHandles.length * 2)];
+      nearestDistances = new int[nearestHandles.length];
+    }
+    int found = 0;
+    int centerColumn = Math.max(0, Math.min(bucketColumns - 1, centerX >> BUCKET_SHIFT));
+    int centerRow = Math.max(0, Math.min(bucketRows - 1, centerY >> BUCKET_SHIFT));
+    int maxRing = Math.max(Math.max(centerColumn, bucketColumns - 1 - centerColumn),
+        Math.max(centerRow, bucketRows - 1 - centerRow));
+    for (int ring = 0; ring <= maxRing; ring++) {
+      long ringDistance = ring == 0 ? 0 : (long) (ring - 1) * BUCKET_SIZE + 1;
+      if (ringDistance > maxDistance || (found == k && ringDistance > nearestDistances[0])) {
+        break;
+      }
+      for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+        if (row < 0 || row >= bucketRows) {
+          continue;
+        }
+        boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+        int step = edgeRow ? 1 : 2 * ring;
+        for (int column = centerColumn - ring; column <= centerColumn + ring; column += Math.max(1, step)) {
+          if (column < 0 || column >= bucketColumns) {
+            continue;
+          }
+          for (int handle = bucketHeads[row * bucketColumns + column]; handle != NONE; handle = nexts[handle]) {
+            int distance = Math.abs(xs[handle] - centerX) + Math.abs(ys[handle] - centerY);
+            if (distance > maxDistance) {
+              continue;
+            }
+            if (found < k) {
+              siftUp(found++, handle, distance);
+            } else if (isCloser(distance, handle, nearestDistances[0], nearestHandles[0])) {
+              siftDown(0, found, handle, distance);
+            }
+          }
+        }
+      }
+    }
+
+    for (int end = found - 1; end > 0; end--) {
+      int handle = nearestHandles[end];
+      int distance = nearestDistances[end];
+      nearestHandles[end] = nearestHandles[0];
+      nearestDistances[end] = nearestDistances[0];
+      siftDown(0, end, handle, distance);
+    }
+    for (int i = 0; i < found; i++) {
+      int handle = nearestHandles[i];
+      if (!visitor.visit((T) entities[handle], xs[handle], ys[handle])) {
+        return i + 1;
+      }
+    }
+    return found;
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean visitArea(int minX, int minY, int maxX, int maxY, int centerX, int centerY, int radius,
+      Visitor<? super T> visitor) {
+    int clampedMinX = Math.max(0, minX);
+    int clampedMinY = Math.max(0, minY);
+    int clampedMaxX = Math.min(width - 1, maxX);
+    int clampedMaxY = Math.min(height - 1, maxY);
+    if (clampedMinX > clampedMaxX || clampedMinY > clampedMaxY) {
+      return true;
+    }
+    for (int row = clampedMinY >> BUCKET_SHIFT; row <= clampedMaxY >> BUCKET_SHIFT; row++) {
+      for (int column = clampedMinX >> BUCKET_SHIFT; column <= clampedMaxX >> BUCKET_SHIFT; column++) {
+        for (int handle = bucketHeads[row * bucketColumns + column]; handle != NONE; handle = nexts[handle]) {
+          int x = xs[handle];
+          int y = ys[handle];
+          if (x < clampedMinX || x > clampedMaxX || y < clampedMinY || y > clampedMaxY) {
+            continue;
+          }
+          if (radius != Integer.MAX_VALUE && Math.abs(x - centerX) + Math.abs(y - centerY) > radius) {
+            continue;
+          }
+          if (!visitor.visit((T) entities[handle], x, y)) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Orders the nearest entities by distance, then by handle.
+   */
+  private static boolean isCloser(int distance, int handle, int otherDistance, int otherHandle) {
+    return distance < otherDistance || (distance == otherDistance && handle < otherHandle);
+  }
+
+  private void siftUp(int index, int handle, int distance) {
+    while (index > 0) {
+      int parent = (index - 1) / 2;
+      if (!isCloser(nearestDistances[parent], nearestHandles[parent], distance, handle)) {
+        break;
+      }
+      nearestHandles[index] = nearestHandles[parent];
+      nearestDistances[index] = nearestDistances[parent];
+      index = parent;
+    }
+    nearestHandles[index] = handle;
+    nearestDistances[index] = distance;
+  }
+
+  private void siftDown(int index, int heapSize, int handle, int distance) {
+    while (true) {
+      int child = 2 * index + 1;
+      if (child >= heapSize) {
+        break;
+      }
+      if (child + 1 < heapSize && isCloser(nearestDistances[child], nearestHandles[child],
+          nearestDistances[child + 1], nearestHandles[child + 1])) {
+        child++;
+      }
+      if (!isCloser(distance, handle, nearestDistances[child], nearestHandles[child])) {
+        break;
+      }
+      nearestHandles[index] = nearestHandles[child];
+      nearestDistances[index] = nearestDistances[child];
+      index = child;
+    }
+    nearestHandles[index] = handle;
+    nearestDistances[index] = distance;
+  }
+
+  private void move(int handle, int x, int y) {
+    int oldBucket = bucketOf(xs[handle], ys[handle]);
+    int newBucket = bucketOf(x, y);
+    xs[handle] = x;
+    ys[handle] = y;
+    if (oldBucket != newBucket) {
+      unlink(handle, oldBucket);
+      link(handle, newBucket);
+    }
+  }
+
+  private int allocate() {
+    if (freeHead != NONE) {
+      int handle = freeHead;
+      freeHead = nexts[handle];
+      return handle;
+    }
+    if (used == entities.length) {
+      int capacity = entities.length * 2;
+      entities = Arrays.copyOf(entities, capacity);
+      xs = Arrays.copyOf(xs, capacity);
+      ys = Arrays.copyOf(ys, capacity);
+      nexts = Arrays.copyOf(nexts, capacity);
+      previouses = Arrays.copyOf(previouses, capacity);
+    }
+    return used++;
+  }
+
+  private void link(int handle, int bucket) {
+    int head = bucketHeads[bucket];
+    nexts[handle] = head;
+    previouses[handle] = NONE;
+    if (head != NONE) {
+      previouses[head] = handle;
+    }
+    bucketHeads[bucket] = handle;
+  }
+
+  private void unlink(int handle, int bucket) {
+    int next = nexts[handle];
+    int previous = previouses[handle];
+    if (previous == NONE) {
+      bucketHeads[bucket] = next;
+    } else {
+      nexts[previous] = next;
+    }
+    if (next != NONE) {
+      previouses[next] = previous;
+    }
+  }
+
+  private int bucketOf(int x, int y) {
+    return (y >> BUCKET_SHIFT) * bucketColumns + (x >> BUCKET_SHIFT);
+  }
+
+  private void checkInside(int x, int y) {
+    if (x < 0 || x >= width || y < 0 || y >= height) {
+      throw new IllegalArgumentException("This position does not exist in the grid\n");
+    }
+  }
+}
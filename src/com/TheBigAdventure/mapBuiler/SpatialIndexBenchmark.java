@@ -0,0 +1,154 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Benchmark of the {@link SpatialIndex} with {@value #ENTITIES} entities on a {@value #SIDE} by
+ * {@value #SIDE} map.
+ * <p>
+ * The benchmark fills the index, moves every entity by one tile several times, then runs range,
+ * radius and nearest queries around random tiles. The results of some queries are checked against
+ * a scan of every entity. For each step, it prints the time per operation and the bytes allocated
+ * per operation by the benchmark thread, which must be zero for the queries.
+ * <p>
+ * Usage: {@code java -cp out com.TheBigAdventure.mapBuiler.SpatialIndexBenchmark}
+ */
+final class SpatialIndexBenchmark {
+
+  private static final int SIDE = 4096;
+  private static final int ENTITIES = 100_000;
+  private static final int MOVE_ROUNDS = 10;
+  private static final int QUERIES = 100_000;
+  private static final int CHECKED_QUERIES = 200;
+  private static final int RADIUS = 8;
+  private static final int NEAREST = 8;
+  private static final int RANGE_WIDTH = 64;
+  private static final int RANGE_HEIGHT = 36;
+
+  private static final class Counter implements SpatialIndex.Visitor<Object> {
+    private int count;
+    private long sum;
+
+    @Override
+    public boolean visit(Object entity, int x, int y) {
+      count++;
+      sum += x + y;
+      return true;
+    }
+  }
+
+  private SpatialIndexBenchmark() {
+  }
+
+  public static void main(String[] args) {
+    Random random = new Random(42);
+    SpatialIndex<Object> index = new SpatialIndex<>(SIDE, SIDE);
+    Object[] entities = new Object[ENTITIES];
+    int[] xs = new int[ENTITIES];
+    int[] ys = new int[ENTITIES];
+
+    long start = System.nanoTime();
+    long allocated = allocatedBytes();
+    for (int i = 0; i < ENTITIES; i++) {
+      entities[i] = new Object();
+      xs[i] = random.nextInt(SIDE);
+      ys[i] = random.nextInt(SIDE);
+      index.insert(entities[i], new Position(xs[i], ys[i]));
+    }
+    report("insert", ENTITIES, start, allocated);
+
+    start = System.nanoTime();
+    allocated = allocatedBytes();
+    for (int round = 0; round < MOVE_ROUNDS; round++) {
+      for (int i = 0; i < ENTITIES; i++) {
+        xs[i] = Math.max(0, Math.min(SIDE - 1, xs[i] + random.nextInt(3) - 1));
+        ys[i] = Math.max(0, Math.min(SIDE - 1, ys[i] + random.nextInt(3) - 1));
+        index.move(entities[i], new Position(xs[i], ys[i]));
+      }
+    }
+    report("move", MOVE_ROUNDS * ENTITIES, start, allocated);
+
+    int[] centers = new int[2 * QUERIES];
+    for (int i = 0; i < centers.length; i++) {
+      centers[i] = random.nextInt(SIDE);
+    }
+    Counter counter = new Counter();
+    runQueries("range 64 x 36", centers, counter,
+        (x, y) -> index.visitRange(x, y, x + RANGE_WIDTH - 1, y + RANGE_HEIGHT - 1, counter));
+    runQueries("radius 8", centers, counter, (x, y) -> index.visitRadius(x, y, RADIUS, counter));
+    runQueries("nearest 8", centers, counter, (x, y) -> index.visitNearest(x, y, NEAREST, SIDE * 2, counter));
+
+    for (int i = 0; i < CHECKED_QUERIES; i++) {
+      check(index, xs, ys, centers[2 * i], centers[2 * i + 1]);
+    }
+    System.out.println(CHECKED_QUERIES + " queries checked against a scan of every entity");
+  }
+
+  @FunctionalInterface
+  private interface Query {
+    void run(int x, int y);
+  }
+
+  private static void runQueries(String name, int[] centers, Counter counter, Query query) {
+    for (int i = 0; i < QUERIES; i += 10) {
+      query.run(centers[2 * i], centers[2 * i + 1]);
+    }
+    counter.count = 0;
+    long start = System.nanoTime();
+    long allocated = allocatedBytes();
+    for (int i = 0; i < QUERIES; i++) {
+      query.run(centers[2 * i], centers[2 * i + 1]);
+    }
+    report(name + String.format(" (%.1f found)", counter.count / (double) QUERIES), QUERIES, start, allocated);
+  }
+
+  /**
+   * Checks the radius and nearest queries around a tile against a scan of every entity.
+   *
+   * @throws IllegalStateException if the index disagrees with the scan.
+   */
+  private static void check(SpatialIndex<Object> index, int[] xs, int[] ys, int centerX, int centerY) {
+    int expectedInRadius = 0;
+    int[] distances = new int[xs.length];
+    for (int i = 0; i < xs.length; i++) {
+      distances[i] = Math.abs(xs[i] - centerX) + Math.abs(ys[i] - centerY);
+      if (distances[i] <= RADIUS) {
+        expectedInRadius++;
+      }
+    }
+    Counter counter = new Counter();
+    index.visitRadius(centerX, centerY, RADIUS, counter);
+    if (counter.count != expectedInRadius) {
+      throw new IllegalStateException("Radius query found " + counter.count + " entities instead of " + expectedInRadius);
+    }
+
+    Arrays.sort(distances);
+    int[] nearest = new int[NEAREST];
+    int[] found = { 0 };
+    index.visitNearest(centerX, centerY, NEAREST, SIDE * 2, (entity, x, y) -> {
+      nearest[found[0]++] = Math.abs(x - centerX) + Math.abs(y - centerY);
+      return true;
+    });
+    for (int i = 0; i < NEAREST; i++) {
+      if (nearest[i] != distances[i]) {
+        throw new IllegalStateException("Nearest query disagrees at rank " + i + ": " + nearest[i] + " / " + distances[i]);
+      }
+    }
+  }
+
+  private static void report(String name, int operations, long start, long allocated) {
+    long nanos = System.nanoTime() - start;
+    long bytes = allocatedBytes() - allocated;
+    System.out.printf("%-28s %,10d operations %10.3f us per operation %8.1f bytes per operation%n",
+        name, operations, nanos / 1e3 / operations, bytes / (double) operations);
+  }
+
+  private static long allocatedBytes() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+      return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,85 @@
+package com.TheBigAdventure.mapBuiler;
+
+import java.util.Objects;
+
+/**
+ * The tiles of the zone of an enemy whose ground can be walked on.
+ * <p>
+ * The zone is a rectangle of the map, clipped to the map, with one bit per tile, set when the
+ * environnement entity of the tile is not an obstacle. The characters and the items standing on
+ * the tiles are not part of the zone: they move too often and are checked when a move is chosen.
+ * The bits are updated one tile at a time when the environnement entity of a tile changes.
+ */
+final class WalkableZone {
+
+  private final int minX;
+  private final int minY;
+  private final int width;
+  private final int height;
+  private final long[] bits;
+
+  /**
+   * Builds the zone of the tiles from (minX, minY) included to (maxX, maxY) excluded.
+   *
+   * @param minX The x-coordinate of the first column of the zone.
+   * @param minY The y-coordinate of the first row of the zone.
+   * @param maxX The x-coordinate after the last column of the zone.
+   * @param maxY The y-coordinate after the last row of the zone.
+   * @param grid The grid of the map, read to find the walkable tiles.
+   * @throws NullPointerException if grid is null.
+   */
+  WalkableZone(int minX, int minY, int maxX, int maxY, MapGrid grid) {
+    Objects.requireNonNull(grid);
+    this.minX = Math.max(0, minX);
+    this.minY = Math.max(0, minY);
+    this.width = Math.max(0, Math.min(grid.width(), maxX) - this.minX);
+    this.height = Math.max(0, Math.min(grid.height(), maxY) - this.minY);
+    this.bits = new long[(width * height + Long.SIZE - 1) / Long.SIZE];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        update(this.minX + x, this.minY + y, grid.getCase(this.minX + x, this.minY + y));
+      }
+    }
+  }
+
+  /**
+   * Checks whether a tile is in the zone and its ground can be walked on.
+   *
+   * @param x The x-coordinate of the tile.
+   * @param y The y-coordinate of the tile.
+   * @return true if the tile is walkable in the zone.
+   */
+  boolean isWalkable(int x, int y) {
+    int bit = bitOf(x, y);
+    return bit >= 0 && (bits[bit >>> 6] & (1L << bit)) != 0;
+  }
+
+  /**
+   * Updates the bit of a tile after its case changed. Tiles outside the zone are ignored.
+   *
+   * @param x        The x-coordinate of the tile.
+   * @param y        The y-coordinate of the tile.
+   * @param caseObj  The new case of the tile, or null if the tile has no case.
+   */
+  void update(int x, int y, Case caseObj) {
+    int bit = bitOf(x, y);
+    if (bit < 0) {
+      return;
+    }
+    boolean walkable = caseObj != null && !caseObj.getEnvironnement().isObstacle();
+    if (walkable) {
+      bits[bit >>> 6] |= 1L << bit;
+    } else {
+      bits[bit >>> 6] &= ~(1L << bit);
+    }
+  }
+
+  private int bitOf(int x, int y) {
+    int zoneX = x - minX;
+    int zoneY = y - minY;
+    if (zoneX < 0 || zoneX >= width || zoneY < 0 || zoneY >= height) {
+      return -1;
+    }
+    return zoneY * width + zoneX;
+  }
+}
@@ -5,6 +5,7 @@ package com.TheBigAdventure.usableEntities;
  */
 
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -38,7 +39,7 @@ public interface InsideInventory {
 
   public ItemType typeOfItem();
 
-  public void drawInMap(Graphics2D graphics, int sizeX, int sizeY, Position position,GameMap gameMap);
+  public void drawInMap(Graphics2D graphics, AffineTransform transform, int sizeX, int sizeY, Position position,GameMap gameMap);
   
   public void drawInInventory(Graphics2D graphics,int index,GameMap gameMap);
   
@@ -1,6 +1,7 @@
 package com.TheBigAdventure.usableEntities;
 
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 
 import com.TheBigAdventure.graphic.Graph;
@@ -65,15 +66,16 @@ public record Pizza(String name,int healAmount) implements InsideInventory {
    * size dimensions, position, and game map information.
    *
    * @param graphics   The graphics context used for drawing.
+   * @param transform  The transformation of the graphics context.
    * @param sizeX      The width of the pizza.
    * @param sizeY      The height of the pizza.
    * @param position   The position where the pizza should be drawn on the game map.
    * @param gameMap    The game map containing information about the game environment.
    */
   @Override
-  public void drawInMap(Graphics2D graphics, int sizeX, int sizeY, Position position, GameMap gameMap) {
+  public void drawInMap(Graphics2D graphics, AffineTransform transform, int sizeX, int sizeY, Position position, GameMap gameMap) {
     BufferedImage img = gameMap.getPicturesInMap().get("PIZZA");
-    Graph.drawEntity(position, sizeX, sizeY, graphics,img);
+    Graph.drawEntity(position, sizeX, sizeY, graphics,transform,img);
     
   }
 
@@ -2,6 +2,7 @@ package com.TheBigAdventure.usableEntities;
 
 
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 
 import com.TheBigAdventure.graphic.Graph;
@@ -54,15 +55,16 @@ public record Sword(String name, int damage) implements InsideInventory {
    * size dimensions, position, and game map information.
    *
    * @param graphics   The graphics context used for drawing.
+   * @param transform  The transformation of the graphics context.
    * @param sizeX      The width of the sword.
    * @param sizeY      The height of the sword.
    * @param position   The position where the sword should be drawn on the game map.
    * @param gameMap    The game map containing information about the game environment.
    */
   @Override
-  public void drawInMap(Graphics2D graphics, int sizeX, int sizeY,Position position,GameMap gameMap) {
+  public void drawInMap(Graphics2D graphics, AffineTransform transform, int sizeX, int sizeY,Position position,GameMap gameMap) {
     BufferedImage img = gameMap.getPicturesInMap().get("SWORD");
-    Graph.drawEntity(position, sizeX, sizeY, graphics,img);
+    Graph.drawEntity(position, sizeX, sizeY, graphics,transform,img);
   }
 
   /**